@@ -0,0 +1,115 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.meerware.Application;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Functional tests for the second level cache of {@link Directory} entities.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = Application.class,
+    properties = "directory.cache.enabled=true"
+)
+public class DirectoryCacheFunctionalTest {
+
+    /**
+     * {@link DirectoryService} used to change {@link Contact} entities directly.
+     */
+    @Autowired
+    private DirectoryService service;
+
+    /**
+     * {@link DirectoryRepository} used to populate and read test data.
+     */
+    @Autowired
+    private DirectoryRepository repository;
+
+    /**
+     * {@link EntityManagerFactory} holding the cache statistics.
+     */
+    @Autowired
+    private EntityManagerFactory factory;
+
+    /**
+     * {@link PlatformTransactionManager} used to read within a transaction.
+     */
+    @Autowired
+    private PlatformTransactionManager transactions;
+
+    /**
+     * {@link MeterRegistry} holding the cache metrics.
+     */
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * Stored {@link Directory}.
+     */
+    private Directory directory;
+
+    /**
+     * Sets up the test data.
+     */
+    @Before
+    public void setUp() {
+        directory = repository.save(new Directory("cached", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Ginger Baker"))));
+    }
+
+    /**
+     * Ensures a repeated read is served from the cache.
+     */
+    @Test
+    public void shouldReadFromCache() {
+        final Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        read(directory.getId());
+        final long hits = statistics.getSecondLevelCacheHitCount();
+        assertEquals(2, read(directory.getId()).size());
+        // The directory and its contacts
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= hits + 2);
+        assertNotNull(registry.find("hibernate.second.level.cache.requests").tag("result", "hit").functionCounter());
+    }
+
+    /**
+     * Ensures a direct change of {@link Contact} entities is not hidden by the cache.
+     */
+    @Test
+    public void shouldEvictOnChange() {
+        read(directory.getId());
+        service.change(directory.getId(), new ContactChanges(
+                ImmutableList.of(new Contact("Eric Clapton")), ImmutableList.of(new Contact("Jack Bruce"))));
+        assertEquals(ImmutableList.of(new Contact("Eric Clapton"), new Contact("Ginger Baker")), read(directory.getId()));
+    }
+
+    /**
+     * @param id is the identifier of the {@link Directory}.
+     * @return the {@link Contact} entities of the {@link Directory}, read within a transaction.
+     */
+    private List<Contact> read(UUID id) {
+        return new TransactionTemplate(transactions).execute(status -> repository.findById(id).get().getContacts());
+    }
+}
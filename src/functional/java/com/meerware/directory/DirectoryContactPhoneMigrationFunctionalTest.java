@@ -0,0 +1,137 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.meerware.Application;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Functional tests for the {@link DirectoryContactPhoneMigration}, run against rows stored without a canonical phone.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes =  Application.class
+)
+public class DirectoryContactPhoneMigrationFunctionalTest {
+
+    /**
+     * Number of rows stored without a canonical phone, more than one block of the migration.
+     */
+    private static final int ROWS = 2500;
+
+    /**
+     * Main test object.
+     */
+    @Autowired
+    private DirectoryContactPhoneMigration migration;
+
+    /**
+     * {@link DirectoryRepository} used to populate test data.
+     */
+    @Autowired
+    private DirectoryRepository repository;
+
+    /**
+     * {@link DirectoryContactRepository} used to look the migrated rows up.
+     */
+    @Autowired
+    private DirectoryContactRepository contacts;
+
+    /**
+     * {@link DataSource} the migration runs against.
+     */
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * {@link JdbcTemplate} used to store and check the rows.
+     */
+    private JdbcTemplate jdbc;
+
+    /**
+     * Stored {@link Directory}, whose rows have no canonical phone.
+     */
+    private Directory directory;
+
+    /**
+     * Sets up the test data, stored as it was before the canonical phone was added.
+     */
+    @Before
+    public void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        directory = repository.save(new Directory("migrated", ImmutableList.of()));
+        final List<Object[]> rows = Lists.newArrayListWithCapacity(ROWS + 1);
+        for (int index = 0; index < ROWS; index++) {
+            rows.add(new Object[] {
+                directory.getId().toString(), "Contact " + index, String.format("(03) 8685 %04d", index)});
+        }
+        rows.add(new Object[] {directory.getId().toString(), "Invalid", "not a phone"});
+        jdbc.batchUpdate("insert into directory_contact (directory_id, \"name\", phone) values (?, ?, ?)", rows);
+    }
+
+    /**
+     * Ensures every block of rows gets its canonical phone, so they can be looked up by it.
+     */
+    @Test
+    public void shouldFillInCanonicalPhone() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            migration.migrate(context(connection));
+        }
+
+        assertEquals(Integer.valueOf(0), jdbc.queryForObject("select count(*) from directory_contact"
+                + " where directory_id = ? and canonical_phone is null", Integer.class, directory.getId().toString()));
+        final Map<String, Object> last = jdbc.queryForMap("select phone, canonical_phone from directory_contact"
+                + " where directory_id = ? and \"name\" = ?", directory.getId().toString(), "Contact " + (ROWS - 1));
+        assertEquals(String.format("+6138685%04d", ROWS - 1), last.get("canonical_phone"));
+        assertEquals(String.format("(03) 8685 %04d", ROWS - 1), last.get("phone"));
+        assertEquals("not a phone", jdbc.queryForObject("select canonical_phone from directory_contact"
+                + " where directory_id = ? and \"name\" = ?", String.class, directory.getId().toString(), "Invalid"));
+
+        final List<UUID> found = contacts.findDirectoriesByPhone("+61 3 8685 1234", null, 1000).getDirectories();
+        assertTrue(found.contains(directory.getId()));
+    }
+
+    /**
+     * @param connection is the {@link Connection} the migration runs on.
+     * @return the {@link Context} of the migration.
+     */
+    private static Context context(Connection connection) {
+        return new Context() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public Configuration getConfiguration() {
+                return null;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public Connection getConnection() {
+                return connection;
+            }
+        };
+    }
+}
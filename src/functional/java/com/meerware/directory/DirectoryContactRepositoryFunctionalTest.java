@@ -0,0 +1,261 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.meerware.Application;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Functional tests for the {@link DirectoryContactRepository}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes =  Application.class
+)
+public class DirectoryContactRepositoryFunctionalTest {
+
+    /**
+     * Main test object.
+     */
+    @Autowired
+    private DirectoryContactRepository contacts;
+
+    /**
+     * {@link DirectoryRepository} used to populate test data.
+     */
+    @Autowired
+    private DirectoryRepository repository;
+
+    /**
+     * Stored {@link Directory}.
+     */
+    private Directory directory;
+
+    /**
+     * Sets up the test data.
+     */
+    @Before
+    public void setUp() {
+        // Address
+        Address address = new Address();
+        address.setCountry(Country.AUSTRALIA);
+        address.setState(State.VICTORIA);
+        address.setLocality("Melbourne");
+        address.setPostcode("3000");
+        address.setLines(newArrayList("100 Collins Street"));
+
+        directory = repository.save(new Directory("global", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Les Claypool", "les@primus.com", null, null),
+                new Contact("Les Claypool"),
+                new Contact("H P Lovecraft", "hp@lovecraft.com", "1800-757-888", address),
+                new Contact("Frank Zappa"))));
+    }
+
+    /**
+     * Ensures searching by the start of each searched field, ignoring case.
+     */
+    @Test
+    public void shouldSearchByPrefix() {
+        assertEquals(ImmutableList.of("Les Claypool", "Les Claypool"), names(contacts.search(directory.getId(), "LES", 10)));
+        assertEquals(ImmutableList.of("H P Lovecraft"), names(contacts.search(directory.getId(), "hp@", 10)));
+        assertEquals(ImmutableList.of("H P Lovecraft"), names(contacts.search(directory.getId(), "1800 757", 10)));
+        assertEquals(ImmutableList.of("H P Lovecraft"), names(contacts.search(directory.getId(), "melb", 10)));
+        assertEquals(ImmutableList.of("H P Lovecraft"), names(contacts.search(directory.getId(), "300", 10)));
+        assertEquals(ImmutableList.of(), contacts.search(directory.getId(), "%", 10));
+    }
+
+    /**
+     * Ensures the digits of a prefix which is not a phone number are not searched as a phone.
+     */
+    @Test
+    public void shouldNotSearchPhoneDigitsOfOtherPrefix() {
+        assertEquals(ImmutableList.of(), contacts.search(directory.getId(), "SW1A", 10));
+        assertEquals(ImmutableList.of(), contacts.search(directory.getId(), "Unit 1", 10));
+        assertEquals(ImmutableList.of("H P Lovecraft"), names(contacts.search(directory.getId(), "(1800) 757", 10)));
+    }
+
+    /**
+     * Ensures the number of searched {@link Contact} entities is limited.
+     */
+    @Test
+    public void shouldLimitSearch() {
+        assertEquals(ImmutableList.of("Frank Zappa"), names(contacts.search(directory.getId(), "f", 1)));
+    }
+
+    /**
+     * Ensures paging through all the {@link Contact} entities in order.
+     */
+    @Test
+    public void shouldFindAllPagesInOrder() {
+        List<Contact> found = newArrayList();
+        ContactKey after = null;
+        int pages = 0;
+        do {
+            ContactPage page = contacts.findPage(directory.getId(), after, 2);
+            found.addAll(page.getContacts());
+            after = null;
+            if (page.getNext() != null) {
+                after = ContactKey.decode(page.getNext());
+            }
+            pages++;
+        } while (after != null);
+
+        assertEquals(3, pages);
+        assertEquals(directory.getContacts(), found);
+    }
+
+    /**
+     * Ensures the stored {@link Address} is read back.
+     */
+    @Test
+    public void shouldFindAddress() {
+        ContactPage page = contacts.findPage(directory.getId(), null, 5);
+        Contact contact = page.getContacts().get(1);
+        assertEquals("H P Lovecraft", contact.getName());
+        assertEquals(State.VICTORIA, contact.getAddress().getState());
+        assertEquals(Country.AUSTRALIA, contact.getAddress().getCountry());
+        assertEquals("100 Collins Street", contact.getAddress().getLines().get(0));
+        assertNull(page.getNext());
+    }
+
+    /**
+     * Ensures the last page has no cursor.
+     */
+    @Test
+    public void shouldFindSinglePage() {
+        ContactPage page = contacts.findPage(directory.getId(), null, 4);
+        assertEquals(4, page.getContacts().size());
+        assertNotNull(page.getNext());
+    }
+
+    /**
+     * Ensures the union is computed by the database without duplicates and in order.
+     */
+    @Test
+    public void shouldStreamUnion() {
+        Directory other = repository.save(new Directory("other", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Ginger Baker"))));
+        List<Contact> found = newArrayList();
+        contacts.union(directory.getId(), other.getId(), found::add);
+        assertEquals(directory.union(other).getContacts(), found);
+        assertEquals(6, found.size());
+    }
+
+    /**
+     * Ensures the intersection is computed by the database, matching missing values.
+     */
+    @Test
+    public void shouldStreamIntersection() {
+        Directory other = repository.save(new Directory("other", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Les Claypool"),
+                new Contact("Ginger Baker"))));
+        List<Contact> found = newArrayList();
+        contacts.intersection(directory.getId(), other.getId(), found::add);
+        assertEquals(ImmutableList.of(new Contact("Jack Bruce"), new Contact("Les Claypool")), found);
+    }
+
+    /**
+     * Ensures the intersection matches phone numbers written differently, keeping one of them as given.
+     */
+    @Test
+    public void shouldStreamIntersectionOfCanonicalPhones() {
+        Directory first = repository.save(new Directory("first", ImmutableList.of(
+                new Contact("Frank Zappa", null, "(03) 8685 1462", null))));
+        Directory second = repository.save(new Directory("second", ImmutableList.of(
+                new Contact("Frank Zappa", null, "+61 3 8685 1462", null))));
+        List<Contact> found = newArrayList();
+        contacts.intersection(first.getId(), second.getId(), found::add);
+        assertEquals(1, found.size());
+        assertEquals("+61386851462", found.get(0).getCanonicalPhone());
+        assertTrue(ImmutableSet.of("(03) 8685 1462", "+61 3 8685 1462").contains(found.get(0).getPhone()));
+    }
+
+    /**
+     * Ensures a {@link SetOperation} over three {@link Directory} entities is merged in order.
+     */
+    @Test
+    public void shouldCombineDirectories() {
+        Directory second = repository.save(new Directory("second", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Les Claypool"),
+                new Contact("Ginger Baker"))));
+        Directory third = repository.save(new Directory("third", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Eric Clapton"))));
+        List<UUID> directories = ImmutableList.of(directory.getId(), second.getId(), third.getId());
+
+        List<Contact> union = newArrayList();
+        contacts.combine(directories, SetOperation.UNION, union::add);
+        assertEquals(7, union.size());
+        assertEquals(directory.union(second).union(third).getContacts(), union);
+
+        List<Contact> intersection = newArrayList();
+        contacts.combine(directories, SetOperation.INTERSECTION, intersection::add);
+        assertEquals(ImmutableList.of(new Contact("Jack Bruce")), intersection);
+
+        List<Contact> difference = newArrayList();
+        contacts.combine(directories, SetOperation.DIFFERENCE, difference::add);
+        assertEquals(3, difference.size());
+    }
+
+    /**
+     * Ensures paging through the {@link Directory} entities holding an email, ignoring case, or a phone.
+     */
+    @Test
+    public void shouldFindDirectoriesByEmailAndPhone() {
+        String email = "lookup-" + UUID.randomUUID() + "@meerware.com";
+        Directory first = repository.save(new Directory("first", ImmutableList.of(
+                new Contact("First", email, "+61 3 8685 1462", null))));
+        Directory second = repository.save(new Directory("second", ImmutableList.of(
+                new Contact("Second", email.toUpperCase(Locale.ROOT), null, null))));
+        Directory third = repository.save(new Directory("third", ImmutableList.of(
+                new Contact("Third", email, null, null))));
+        Set<UUID> expected = ImmutableSet.of(first.getId(), second.getId(), third.getId());
+
+        Set<UUID> found = newHashSet();
+        UUID after = null;
+        int pages = 0;
+        do {
+            DirectoryPage page = contacts.findDirectoriesByEmail(email, after, 2);
+            found.addAll(page.getDirectories());
+            after = page.getNext();
+            pages++;
+        } while (after != null);
+
+        assertEquals(2, pages);
+        assertEquals(expected, found);
+        assertTrue(contacts.findDirectoriesByPhone("+61 (3) 8685-1462", null, 1000).getDirectories().contains(first.getId()));
+        assertTrue(contacts.findDirectoriesByPhone("(03) 8685 1462", null, 1000).getDirectories().contains(first.getId()));
+        assertEquals(ImmutableList.of(), contacts.findDirectoriesByEmail("missing-" + email, null, 10).getDirectories());
+    }
+
+    /**
+     * @param found is the {@link List} of {@link Contact} entities.
+     * @return the names of the {@link Contact} entities.
+     */
+    private static List<String> names(List<Contact> found) {
+        return found.stream().map(Contact::getName).collect(Collectors.toList());
+    }
+}
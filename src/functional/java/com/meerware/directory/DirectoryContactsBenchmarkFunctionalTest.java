@@ -0,0 +1,104 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.collect.ImmutableList;
+import com.meerware.Application;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Benchmark of incremental {@link Contact} changes against a whole {@link Directory} update. The
+ * number of statements sent to the database by an incremental change should not depend on the size
+ * of the {@link Directory}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = { Application.class, StatementCounter.class }
+)
+public class DirectoryContactsBenchmarkFunctionalTest {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryContactsBenchmarkFunctionalTest.class);
+
+    /**
+     * Main test object.
+     */
+    @Autowired
+    private DirectoryService service;
+
+    /**
+     * {@link DirectoryRepository} used to populate test data.
+     */
+    @Autowired
+    private DirectoryRepository repository;
+
+    /**
+     * {@link StatementCounter} wrapping the data source.
+     */
+    @Autowired
+    private StatementCounter counter;
+
+    /**
+     * Ensures the number of statements of an incremental change is the same for a small
+     * and a large {@link Directory}.
+     */
+    @Test
+    public void shouldChangeContactsWithStatementsProportionalToChanges() {
+        long small = change(100);
+        long large = change(5000);
+        assertEquals(small, large);
+        assertTrue(large < 10);
+    }
+
+    /**
+     * Adds and removes a single {@link Contact} to a new {@link Directory}, followed by the same
+     * change through a whole {@link Directory} update for comparison.
+     *
+     * @param size is the number of {@link Contact} entities in the {@link Directory}.
+     * @return the number of statements of the incremental change.
+     */
+    private long change(int size) {
+        final List<Contact> contacts = IntStream.range(0, size)
+                .mapToObj(index -> new Contact("Contact " + index, "contact" + index + "@meerware.com", null, null))
+                .collect(Collectors.toList());
+        final Directory directory = repository.save(new Directory("benchmark", contacts));
+
+        final Contact added = new Contact("Added");
+        final Contact removed = contacts.get(0);
+
+        counter.reset();
+        long start = System.nanoTime();
+        service.change(directory.getId(), new ContactChanges(ImmutableList.of(added), ImmutableList.of(removed)));
+        final long incremental = counter.getStatements();
+        LOG.info("Incremental change: contacts={}, statements={}, time={}ms",
+                size, incremental, (System.nanoTime() - start) / 1000000);
+
+        final List<Contact> updated = ImmutableList.<Contact>builder()
+                .addAll(contacts.subList(1, size))
+                .add(added)
+                .build();
+        counter.reset();
+        start = System.nanoTime();
+        service.update(new Directory(directory.getId(), "benchmark", updated));
+        LOG.info("Whole update: contacts={}, statements={}, time={}ms",
+                size, counter.getStatements(), (System.nanoTime() - start) / 1000000);
+        // Only the rows of the changed contacts are written, the rest are just read
+        assertTrue(counter.getStatements() < 10);
+
+        return incremental;
+    }
+}
@@ -4,10 +4,22 @@ import static com.google.common.collect.Lists.newArrayList;
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.port;
 import static java.util.UUID.randomUUID;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_CREATED;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
 import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.DEFINED_PORT;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.VARY;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import com.google.common.collect.ImmutableList;
@@ -94,6 +106,352 @@ public class DirectoryControllerFunctionalTest {
             .body("data.name", equalTo("global"));
     }
 
+    /**
+     * Ensures a {@link Directory} is not sent again while it is unchanged.
+     */
+    @Test
+    public void shouldNotGetUnmodifiedDirectory() {
+        final String tag = given()
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .header(ETAG, notNullValue())
+            .extract().header(ETAG);
+
+        given()
+            .header(IF_NONE_MATCH, tag)
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_NOT_MODIFIED)
+            .header(ETAG, equalTo(tag));
+
+        repository.save(new Directory(directory.getId(), "renamed", directory.getContacts()));
+
+        given()
+            .header(IF_NONE_MATCH, tag)
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .header(ETAG, not(equalTo(tag)))
+            .body("data.name", equalTo("renamed"));
+    }
+
+    /**
+     * Ensures updating only the {@link Contact} entities responds with the modified timestamp as stored.
+     */
+    @Test
+    public void shouldUpdateContactsWithStoredModified() {
+        final Object modified = given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"data\": {\"name\": \"global\", \"contacts\": [{\"name\": \"Frank Zappa\"}]}}")
+            .put("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .extract().path("data.modified");
+
+        given()
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .body("data.modified", equalTo(modified));
+    }
+
+    /**
+     * Ensures the {@code JSON API} document has its own entity tag, and changes of the {@link Contact} entities
+     * change the entity tag.
+     */
+    @Test
+    public void shouldTagEachDocumentType() {
+        final String tag = given()
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .header(VARY, equalTo(CONTENT_TYPE))
+            .extract().header(ETAG);
+
+        given()
+            .contentType("application/vnd.api+json")
+            .header(IF_NONE_MATCH, tag)
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .contentType("application/vnd.api+json")
+            .header(ETAG, not(equalTo(tag)));
+
+        given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"add\": [{\"name\": \"Frank Zappa\"}]}")
+            .patch("/directories/" + directory.getId() + "/contacts")
+       .then()
+            .statusCode(SC_OK);
+
+        given()
+            .header(IF_NONE_MATCH, tag)
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .header(ETAG, not(equalTo(tag)));
+    }
+
+    /**
+     * Ensures creating a {@link Directory} from a plain {@code JSON} document.
+     */
+    @Test
+    public void shouldCreateDirectory() {
+        given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"data\": {\"name\": \"created\", \"contacts\": [{\"name\": \"Frank Zappa\"}]}}")
+            .post("/directories")
+       .then()
+            .statusCode(SC_CREATED)
+            .body("data.name", equalTo("created"))
+            .body("data.contacts[0].name", equalTo("Frank Zappa"));
+    }
+
+    /**
+     * Ensures failing to create a {@link Directory} with an invalid {@link Contact}, pointing to it.
+     */
+    @Test
+    public void shouldFailCreatingDirectoryWithInvalidContact() {
+        given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"data\": {\"name\": \"invalid\", \"contacts\": "
+                    + "[{\"name\": \"Frank Zappa\"}, {\"name\": \"Jack Bruce\", \"phone\": \"not a phone\"}]}}")
+            .post("/directories")
+       .then()
+            .statusCode(SC_BAD_REQUEST)
+            .body("errors[0].status", equalTo("400"))
+            .body("errors[0].source.pointer", equalTo("/data/contacts/1/phone"));
+    }
+
+    /**
+     * Ensures the invalid {@link Contact} is pointed to by its position in the request, not in name order.
+     */
+    @Test
+    public void shouldFailUpdatingDirectoryWithUnsortedInvalidContact() {
+        given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"data\": {\"name\": \"invalid\", \"contacts\": [{\"name\": \"Jack Bruce\", "
+                    + "\"phone\": \"not a phone\"}, {\"name\": \"Frank Zappa\"}, {\"name\": \"Eric Clapton\"}]}}")
+            .put("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_BAD_REQUEST)
+            .body("errors[0].source.pointer", equalTo("/data/contacts/0/phone"));
+    }
+
+    /**
+     * Ensures creating a {@link Directory} from a {@code JSON API} document.
+     */
+    @Test
+    public void shouldCreateDirectoryFromJsonApi() {
+        given()
+            .contentType("application/vnd.api+json")
+            .body("{\"data\": {\"type\": \"directory\", \"attributes\": "
+                    + "{\"name\": \"created\", \"contacts\": [{\"name\": \"Frank Zappa\"}]}}}")
+            .post("/directories")
+       .then()
+            .statusCode(SC_CREATED)
+            .body("data.type", equalTo("directory"))
+            .body("data.attributes.name", equalTo("created"))
+            .body("data.attributes.contacts[0].name", equalTo("Frank Zappa"));
+    }
+
+    /**
+     * Ensures looking up the {@link Directory} entities holding an email.
+     */
+    @Test
+    public void shouldLookUpDirectories() {
+        given()
+            .queryParam("email", "HP@Lovecraft.com")
+            .queryParam("size", 1000)
+            .get("/directories/lookup")
+       .then()
+            .statusCode(SC_OK)
+            .body("data.directories", hasItem(directory.getId().toString()));
+
+        given()
+            .get("/directories/lookup")
+       .then()
+            .statusCode(SC_BAD_REQUEST);
+    }
+
+    /**
+     * Ensures searching the {@link Contact} entities of a {@link Directory}.
+     */
+    @Test
+    public void shouldSearchContacts() {
+        given()
+            .queryParam("q", "Love")
+            .get("/directories/" + directory.getId() + "/contacts/search")
+       .then()
+            .statusCode(SC_OK)
+            .body("data.size()", equalTo(0));
+
+        given()
+            .queryParam("q", "h p")
+            .get("/directories/" + directory.getId() + "/contacts/search")
+       .then()
+            .statusCode(SC_OK)
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("data[0].name", equalTo("H P Lovecraft"));
+    }
+
+    /**
+     * Ensures typeahead over the {@link Contact} entities of a {@link Directory}, kept current by changes.
+     */
+    @Test
+    public void shouldTypeaheadContacts() {
+        given()
+            .queryParam("q", "h p love")
+            .get("/directories/" + directory.getId() + "/contacts/typeahead")
+       .then()
+            .statusCode(SC_OK)
+            .body("data[0].name", equalTo("H P Lovecraft"));
+
+        given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"add\": [{\"name\": \"Frank Zappa\"}]}")
+            .patch("/directories/" + directory.getId() + "/contacts")
+       .then()
+            .statusCode(SC_OK);
+
+        given()
+            .queryParam("q", "zap")
+            .get("/directories/" + directory.getId() + "/contacts/typeahead")
+       .then()
+            .statusCode(SC_OK)
+            .body("data[0].name", equalTo("Frank Zappa"));
+    }
+
+    /**
+     * Ensures exporting a {@link Directory} as newline delimited {@code JSON}.
+     */
+    @Test
+    public void shouldExportLines() {
+        given()
+            .accept(ContactWriter.NDJSON_VALUE)
+            .get("/directories/" + directory.getId() + "/export")
+       .then()
+            .statusCode(SC_OK)
+            .contentType(ContactWriter.NDJSON_VALUE)
+            .body(startsWith("{\"name\":\"H P Lovecraft\""));
+    }
+
+    /**
+     * Ensures exporting a {@link Directory} as {@code CSV}.
+     */
+    @Test
+    public void shouldExportCsv() {
+        given()
+            .accept(ContactWriter.CSV_VALUE)
+            .get("/directories/" + directory.getId() + "/export")
+       .then()
+            .statusCode(SC_OK)
+            .body(equalTo("name,email,phone,lines,locality,state,postcode,country\r\n"
+                    + "H P Lovecraft,hp@lovecraft.com,1800-757-888,100 Collins Street,Melbourne,VIC,3000,AU\r\n"));
+    }
+
+    /**
+     * Ensures a state code shared by more than one country is kept as the state of the country of the address
+     * through creating, exporting and removing the {@link Contact}.
+     */
+    @Test
+    public void shouldRoundTripStateOfCountry() {
+        final String contact = "{\"name\": \"Kurt Cobain\", \"address\": {\"lines\": [\"1 Pike Street\"], "
+                + "\"locality\": \"Seattle\", \"state\": \"WA\", \"postcode\": \"98101\", \"country\": \"US\"}}";
+        final String id = given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"data\": {\"name\": \"seattle\", \"contacts\": [" + contact + "]}}")
+            .post("/directories")
+       .then()
+            .statusCode(SC_CREATED)
+            .body("data.contacts[0].address.state", equalTo("Washington"))
+            .extract().path("data.id");
+
+        given()
+            .accept(ContactWriter.NDJSON_VALUE)
+            .get("/directories/" + id + "/export")
+       .then()
+            .statusCode(SC_OK)
+            .body(containsString("\"state\":\"Washington\""));
+
+        given()
+            .accept(ContactWriter.CSV_VALUE)
+            .get("/directories/" + id + "/export")
+       .then()
+            .statusCode(SC_OK)
+            .body(containsString("1 Pike Street,Seattle,WA,98101,US"));
+
+        given()
+            .contentType(APPLICATION_JSON_VALUE)
+            .body("{\"remove\": [" + contact + "]}")
+            .patch("/directories/" + id + "/contacts")
+       .then()
+            .statusCode(SC_OK)
+            .body("data.remove.size()", equalTo(1))
+            .body("data.remove[0].address.state", equalTo("Washington"));
+    }
+
+    /**
+     * Ensures importing newline delimited {@link Contact} entities into a {@link Directory}.
+     */
+    @Test
+    public void shouldImportContacts() {
+        given()
+            .contentType(ContactWriter.NDJSON_VALUE)
+            .body("{\"name\": \"Jack Bruce\"}\n{\"name\": \"Ginger Baker\", \"email\": \"ginger@cream.com\"}\n")
+            .post("/directories/" + directory.getId() + "/import")
+       .then()
+            .statusCode(SC_OK)
+            .body("data.status", equalTo("completed"))
+            .body("data.contacts", equalTo(2));
+
+        given()
+            .get("/directories/" + directory.getId() + "/import")
+       .then()
+            .statusCode(SC_OK)
+            .body("data.directory", equalTo(directory.getId().toString()))
+            .body("data.contacts", equalTo(2));
+    }
+
+    /**
+     * Ensures importing skips {@link Contact} entities already in the {@link Directory} and repeated lines.
+     */
+    @Test
+    public void shouldSkipImportingPresentContacts() {
+        given()
+            .contentType(ContactWriter.NDJSON_VALUE)
+            .body("{\"name\": \"H P Lovecraft\", \"email\": \"hp@lovecraft.com\", \"phone\": \"1800-757-888\", "
+                    + "\"address\": {\"lines\": [\"100 Collins Street\"], \"locality\": \"Melbourne\", "
+                    + "\"state\": \"Victoria\", \"postcode\": \"3000\", \"country\": \"Australia\"}}\n"
+                    + "{\"name\": \"Jack Bruce\"}\n{\"name\": \"Jack Bruce\"}\n")
+            .post("/directories/" + directory.getId() + "/import")
+       .then()
+            .statusCode(SC_OK)
+            .body("data.status", equalTo("completed"))
+            .body("data.contacts", equalTo(1));
+
+        given()
+            .get("/directories/" + directory.getId())
+       .then()
+            .statusCode(SC_OK)
+            .body("data.contacts.name", equalTo(ImmutableList.of("H P Lovecraft", "Jack Bruce")));
+    }
+
+    /**
+     * Ensures an invalid line fails the import with the line number.
+     */
+    @Test
+    public void shouldFailImportingInvalidContact() {
+        given()
+            .contentType(ContactWriter.NDJSON_VALUE)
+            .body("{\"name\": \"Jack Bruce\"}\n{\"email\": \"ginger@cream.com\"}\n")
+            .post("/directories/" + directory.getId() + "/import")
+       .then()
+            .statusCode(SC_BAD_REQUEST)
+            .body("errors[0].status", equalTo("400"));
+    }
+
     /**
      * Ensures failure to get a non existing {@link Directory}.
      */
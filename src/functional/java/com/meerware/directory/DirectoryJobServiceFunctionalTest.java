@@ -0,0 +1,75 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import com.meerware.Application;
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Functional tests for the {@link DirectoryJobService}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes =  Application.class
+)
+public class DirectoryJobServiceFunctionalTest {
+
+    /**
+     * Main test object.
+     */
+    @Autowired
+    private DirectoryJobService service;
+
+    /**
+     * {@link DirectoryRepository} used to populate and test data.
+     */
+    @Autowired
+    private DirectoryRepository repository;
+
+    /**
+     * Ensures the result of a {@link DirectoryJob} is saved as a new {@link Directory}.
+     */
+    @Test
+    public void shouldSaveJobResult() throws Exception {
+        Directory first = repository.save(new Directory("first", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Eric Clapton"))));
+        Directory second = repository.save(new Directory("second", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Ginger Baker"))));
+
+        DirectoryJob job = service.submit(new DirectoryOperation(
+                SetOperation.UNION, ImmutableList.of(first.getId(), second.getId()), "cream"));
+        DirectoryJob result = await(job.getId());
+
+        assertEquals(DirectoryJobStatus.COMPLETED, result.getStatus());
+        assertEquals(3, result.getContacts());
+        Directory saved = repository.findById(result.getDirectory()).get();
+        assertEquals("cream", saved.getName());
+        assertEquals(first.union(second).getContacts(), saved.getContacts());
+    }
+
+    /**
+     * @param id is the identifier of the {@link DirectoryJob}.
+     * @return the finished {@link DirectoryJob}.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private DirectoryJob await(UUID id) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            DirectoryJob job = service.get(id);
+            if (job.getFinished() != null) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Directory job did not finish");
+    }
+}
@@ -0,0 +1,149 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.collect.ImmutableList;
+import com.meerware.Application;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of creating and updating a {@link Directory} with and without {@code JDBC} batching. Each size is
+ * run once with a batch size of {@code 1}, as before any tuning, and once with the configured batch size.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = { Application.class, StatementCounter.class }
+)
+public class DirectoryPersistenceBenchmarkFunctionalTest {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryPersistenceBenchmarkFunctionalTest.class);
+
+    /**
+     * Main test object.
+     */
+    @Autowired
+    private DirectoryService service;
+
+    /**
+     * {@link StatementCounter} wrapping the data source.
+     */
+    @Autowired
+    private StatementCounter counter;
+
+    /**
+     * {@link PlatformTransactionManager} used to run each save with a given batch size.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Shared {@link EntityManager} of the current transaction.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Ensures batching sends fewer round trips to the database for 1k, 10k and 100k {@link Contact} entities.
+     */
+    @Test
+    public void shouldSaveContactsInBatches() {
+        for (int size : new int[] {1000, 10000, 100000}) {
+            final long unbatched = save(size, 1);
+            final long batched = save(size, null);
+            assertTrue(batched * 10 < unbatched);
+        }
+    }
+
+    /**
+     * Creates a {@link Directory} and then updates a tenth of its {@link Contact} entities.
+     *
+     * @param size is the number of {@link Contact} entities.
+     * @param batchSize is the {@code JDBC} batch size of the session, {@code null} for the configured one.
+     * @return the number of round trips to create the {@link Directory}.
+     */
+    private long save(int size, Integer batchSize) {
+        final List<Contact> contacts = contacts("Contact", 0, size);
+        final String mode;
+        if (batchSize == null) {
+            mode = "batched";
+        } else {
+            mode = "unbatched";
+        }
+
+        counter.reset();
+        long start = System.nanoTime();
+        final Directory created = run(batchSize, () -> service.create(new Directory("benchmark", contacts)));
+        final long executions = counter.getExecutions();
+        log("Create", mode, size, start);
+
+        final int changed = size / 10;
+        final List<Contact> updated = ImmutableList.<Contact>builder()
+                .addAll(contacts.subList(changed, size))
+                .addAll(contacts("Updated", 0, changed))
+                .build();
+        counter.reset();
+        start = System.nanoTime();
+        run(batchSize, () -> service.update(new Directory(created.getId(), "benchmark", updated)));
+        log("Update", mode, size, start);
+
+        return executions;
+    }
+
+    /**
+     * @param batchSize is the {@code JDBC} batch size of the session, {@code null} for the configured one.
+     * @param action is the {@link Supplier} saving the {@link Directory}.
+     * @return the saved {@link Directory}.
+     */
+    private Directory run(Integer batchSize, Supplier<Directory> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            return action.get();
+        });
+    }
+
+    /**
+     * @param operation is the name of the operation.
+     * @param mode is whether batching was used.
+     * @param size is the number of {@link Contact} entities.
+     * @param start is the start time in nanoseconds.
+     */
+    private void log(String operation, String mode, int size, long start) {
+        final long time = (System.nanoTime() - start) / 1000000;
+        LOG.info("{} directory {}: contacts={}, statements={}, executions={}, time={}ms, throughput={}/s",
+                operation, mode, size, counter.getStatements(), counter.getExecutions(), time,
+                size * 1000L / Math.max(1, time));
+    }
+
+    /**
+     * @param prefix is the prefix of the names.
+     * @param from is the first index.
+     * @param to is the index after the last.
+     * @return the {@link List} of {@link Contact} entities.
+     */
+    private static List<Contact> contacts(String prefix, int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(index -> new Contact(prefix + " " + index, "contact" + index + "@meerware.com", null, null))
+                .collect(Collectors.toList());
+    }
+}
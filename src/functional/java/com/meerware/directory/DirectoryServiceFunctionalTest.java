@@ -2,12 +2,19 @@ package com.meerware.directory;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 import com.google.common.collect.ImmutableList;
 import com.meerware.Application;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -106,6 +113,30 @@ public class DirectoryServiceFunctionalTest {
                 new Directory(randomUUID(), "update", ImmutableList.of()));
     }
 
+    /**
+     * Ensures concurrent changes adding the same {@link Contact} only add it once.
+     */
+    @Test
+    public void shouldAddContactOnceWhenChangedConcurrently() throws Exception {
+        final Contact contact = new Contact("Frank Zappa");
+        final List<Callable<ContactChanges>> changes = newArrayList();
+        for (int index = 0; index < 4; index++) {
+            changes.add(() -> service.change(directory.getId(), new ContactChanges(ImmutableList.of(contact), null)));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(changes.size());
+        int added = 0;
+        try {
+            for (Future<ContactChanges> future : executor.invokeAll(changes)) {
+                added += future.get().getAdd().size();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, added);
+        assertEquals(2, service.get(directory.getId()).getContacts().size());
+    }
+
     /**
      * Ensures deleting an existing {@link Directory}.
      */
@@ -0,0 +1,122 @@
+package com.meerware.directory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * {@link BeanPostProcessor} which wraps the {@link DataSource} so the number of
+ * {@code SQL} statements sent to the database can be counted. Each statement executed, and each
+ * statement added to a batch, counts as one.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    /**
+     * Number of statements.
+     */
+    private final AtomicLong statements = new AtomicLong();
+
+    /**
+     * Number of round trips, a batch counts as one.
+     */
+    private final AtomicLong executions = new AtomicLong();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof DataSource) {
+            return proxy(DataSource.class, bean);
+        }
+        return bean;
+    }
+
+    /**
+     * Resets the counts.
+     */
+    public void reset() {
+        statements.set(0);
+        executions.set(0);
+    }
+
+    /**
+     * @return the number of statements since the last {@link #reset()}.
+     */
+    public long getStatements() {
+        return statements.get();
+    }
+
+    /**
+     * @return the number of round trips since the last {@link #reset()}.
+     */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * @param type is the interface to proxy.
+     * @param target is the proxied instance.
+     * @return the proxy.
+     */
+    private Object proxy(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, (proxy, method, arguments) -> {
+            final Object result = invoke(target, method, arguments);
+            count(target, method);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, result);
+            } else if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, result);
+            } else if (result instanceof Statement) {
+                return proxy(Statement.class, result);
+            } else if (result instanceof Connection) {
+                return proxy(Connection.class, result);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @param target is the proxied instance.
+     * @param method is the invoked {@link Method}.
+     */
+    private void count(Object target, Method method) {
+        if (!(target instanceof Statement)) {
+            return;
+        }
+        final String name = method.getName();
+        if ("addBatch".equals(name)) {
+            statements.incrementAndGet();
+        } else if ("executeBatch".equals(name) || "executeLargeBatch".equals(name)) {
+            executions.incrementAndGet();
+        } else if (name.startsWith("execute")) {
+            statements.incrementAndGet();
+            executions.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param target is the proxied instance.
+     * @param method is the {@link Method} to invoke.
+     * @param arguments are the arguments.
+     * @return the result.
+     * @throws Throwable if the underlying call fails.
+     */
+    private static Object invoke(Object target, Method method, Object[] arguments) throws Throwable {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Sets;
+
+/**
+ * Compares the {@link Contact} ordering and hash code against the previous {@link ComparisonChain} ordering
+ * and {@link Objects#hash(Object...)} hash code, for sorting and for {@link Sets#union(Set, Set)} and
+ * {@link Sets#intersection(Set, Set)} over tree and hash sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactComparisonBenchmark {
+
+    /**
+     * Ordering as it was before, allocating a {@link ComparisonChain} step and blank strings per comparison.
+     */
+    private static final Comparator<Contact> CHAINED = (left, right) -> ComparisonChain.start()
+            .compare(defaultString(left.getName()), defaultString(right.getName()))
+            .compare(defaultString(left.getEmail()), defaultString(right.getEmail()))
+            .compare(defaultString(left.getPhone()), defaultString(right.getPhone()))
+            .compare(left.getAddress(), right.getAddress())
+            .result();
+
+    /**
+     * Number of {@link Contact} entities in each set, half are shared.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /**
+     * Unsorted {@link Contact} entities.
+     */
+    private List<Contact> contacts;
+
+    /**
+     * First set ordered by the previous ordering.
+     */
+    private Set<Contact> firstChained;
+
+    /**
+     * Second set ordered by the previous ordering.
+     */
+    private Set<Contact> secondChained;
+
+    /**
+     * First set with the natural ordering.
+     */
+    private Set<Contact> firstNatural;
+
+    /**
+     * Second set with the natural ordering.
+     */
+    private Set<Contact> secondNatural;
+
+    /**
+     * First hash set of the previous hash code.
+     */
+    private Set<LegacyHash> firstLegacyHash;
+
+    /**
+     * Second hash set of the previous hash code.
+     */
+    private Set<LegacyHash> secondLegacyHash;
+
+    /**
+     * First hash set.
+     */
+    private Set<Contact> firstHash;
+
+    /**
+     * Second hash set.
+     */
+    private Set<Contact> secondHash;
+
+    /**
+     * Builds the sets.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Contact> first = ContactSetBenchmark.contacts(0, size);
+        final List<Contact> second = ContactSetBenchmark.contacts(size / 2, size + size / 2);
+        contacts = first;
+        firstChained = new TreeSet<>(CHAINED);
+        firstChained.addAll(first);
+        secondChained = new TreeSet<>(CHAINED);
+        secondChained.addAll(second);
+        firstNatural = new TreeSet<>(first);
+        secondNatural = new TreeSet<>(second);
+        firstHash = newHashSet(first);
+        secondHash = newHashSet(second);
+        firstLegacyHash = newHashSet();
+        first.forEach(contact -> firstLegacyHash.add(new LegacyHash(contact)));
+        secondLegacyHash = newHashSet();
+        second.forEach(contact -> secondLegacyHash.add(new LegacyHash(contact)));
+    }
+
+    /**
+     * @return the sorted {@link List}.
+     */
+    @Benchmark
+    public List<Contact> sortChained() {
+        final List<Contact> sorted = new ArrayList<>(contacts);
+        sorted.sort(CHAINED);
+        return sorted;
+    }
+
+    /**
+     * @return the sorted {@link List}.
+     */
+    @Benchmark
+    public List<Contact> sortNatural() {
+        final List<Contact> sorted = new ArrayList<>(contacts);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void unionChained(Blackhole hole) {
+        Sets.union(firstChained, secondChained).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void unionNatural(Blackhole hole) {
+        Sets.union(firstNatural, secondNatural).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void intersectionChained(Blackhole hole) {
+        Sets.intersection(firstChained, secondChained).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void intersectionNatural(Blackhole hole) {
+        Sets.intersection(firstNatural, secondNatural).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void hashUnionLegacy(Blackhole hole) {
+        Sets.union(firstLegacyHash, secondLegacyHash).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void hashUnionCached(Blackhole hole) {
+        Sets.union(firstHash, secondHash).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void hashIntersectionLegacy(Blackhole hole) {
+        Sets.intersection(firstLegacyHash, secondLegacyHash).forEach(hole::consume);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void hashIntersectionCached(Blackhole hole) {
+        Sets.intersection(firstHash, secondHash).forEach(hole::consume);
+    }
+
+    /**
+     * {@link Contact} wrapper with the hash code computed as it was before, on every call.
+     */
+    private static final class LegacyHash {
+
+        /**
+         * Wrapped {@link Contact}.
+         */
+        private final Contact contact;
+
+        /**
+         * @param contact is the wrapped {@link Contact}.
+         */
+        LegacyHash(Contact contact) {
+            this.contact = contact;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            final Address address = contact.getAddress();
+            return Objects.hash(contact.getName(), contact.getEmail(), contact.getPhone(), Objects.hash(
+                    address.getStoredLines(), address.getLocality(), address.getState(), address.getPostcode(),
+                    address.getCountry()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof LegacyHash && contact.equals(((LegacyHash) object).contact);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Measures building and looking up the {@link ContactIndex} used for typeahead, against a scan of every
+ * {@link Contact}. The queries go from selective, a single {@link Contact}, to broad, every {@link Contact}
+ * sharing a locality, and include one with several tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactIndexBenchmark {
+
+    /**
+     * Number of {@link Contact} entities found by a lookup, as returned to a typeahead.
+     */
+    private static final int FOUND = 20;
+
+    /**
+     * Number of {@link Contact} entities indexed.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /**
+     * Typed query.
+     */
+    @Param({"contact123", "mel", "contact 12 coll"})
+    private String query;
+
+    /**
+     * Indexed {@link Contact} entities.
+     */
+    private List<Contact> contacts;
+
+    /**
+     * Built {@link ContactIndex}.
+     */
+    private ContactIndex index;
+
+    /**
+     * Builds the {@link ContactIndex}.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        contacts = ContactSetBenchmark.contacts(0, size);
+        index = ContactIndex.of(contacts);
+    }
+
+    /**
+     * @return the {@link ContactIndex} built from scratch.
+     */
+    @Benchmark
+    public ContactIndex build() {
+        return ContactIndex.of(contacts);
+    }
+
+    /**
+     * @return the {@link ContactIndex} with a single {@link Contact} added.
+     */
+    @Benchmark
+    public ContactIndex change() {
+        return index.change(ImmutableList.of(new Contact("Frank Zappa")), ImmutableList.of());
+    }
+
+    /**
+     * @return the found {@link Contact} entities.
+     */
+    @Benchmark
+    public List<Contact> lookup() {
+        return index.find(query, FOUND);
+    }
+
+    /**
+     * @return the found {@link Contact} entities, matching the query against every {@link Contact}.
+     */
+    @Benchmark
+    public List<Contact> scan() {
+        final String[] prefixes = lowerCase(query, Locale.ROOT).split(" ");
+        return contacts.stream()
+                .filter(contact -> {
+                    final String text = lowerCase(contact.getName() + " " + contact.getEmail() + " "
+                            + contact.getAddress().toDisplay(), Locale.ROOT);
+                    for (String prefix : prefixes) {
+                        if (!text.startsWith(prefix) && !text.contains(" " + prefix)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .sorted()
+                .limit(FOUND)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,175 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Sets.newTreeSet;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+/**
+ * Compares union and intersection of {@link Contact} sets using ordered sets, through {@link Sets#union(Set, Set)} and
+ * {@link Sets#intersection(Set, Set)} as {@link Directory} used to, against the {@link ContactFingerprintSet}, both on
+ * its own and through {@link Directory#union(Directory)} and {@link Directory#intersection(Directory)}, which build it
+ * from their {@link Contact} entities. Half of the {@link Contact} entities are shared between the two sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactSetBenchmark {
+
+    /**
+     * Number of {@link Contact} entities in each set.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /**
+     * First ordered set.
+     */
+    private Set<Contact> firstTree;
+
+    /**
+     * Second ordered set.
+     */
+    private Set<Contact> secondTree;
+
+    /**
+     * First {@link ContactFingerprintSet}.
+     */
+    private ContactFingerprintSet firstFingerprints;
+
+    /**
+     * Second {@link ContactFingerprintSet}.
+     */
+    private ContactFingerprintSet secondFingerprints;
+
+    /**
+     * First {@link Directory}.
+     */
+    private Directory firstDirectory;
+
+    /**
+     * Second {@link Directory}.
+     */
+    private Directory secondDirectory;
+
+    /**
+     * Builds the sets.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Contact> first = contacts(0, size);
+        final List<Contact> second = contacts(size / 2, size + size / 2);
+        firstTree = newTreeSet(first);
+        secondTree = newTreeSet(second);
+        firstFingerprints = ContactFingerprintSet.of(first);
+        secondFingerprints = ContactFingerprintSet.of(second);
+        firstDirectory = new Directory(first);
+        secondDirectory = new Directory(second);
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void treeSetUnion(Blackhole hole) {
+        for (Contact contact : Sets.union(firstTree, secondTree)) {
+            hole.consume(contact);
+        }
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void treeSetIntersection(Blackhole hole) {
+        for (Contact contact : Sets.intersection(firstTree, secondTree)) {
+            hole.consume(contact);
+        }
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void fingerprintUnion(Blackhole hole) {
+        for (Contact contact : firstFingerprints.union(secondFingerprints)) {
+            hole.consume(contact);
+        }
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void fingerprintIntersection(Blackhole hole) {
+        for (Contact contact : firstFingerprints.intersection(secondFingerprints)) {
+            hole.consume(contact);
+        }
+    }
+
+    /**
+     * @return the union of the {@link Directory} entities, including building the sets and the result.
+     */
+    @Benchmark
+    public Directory directoryUnion() {
+        return firstDirectory.union(secondDirectory);
+    }
+
+    /**
+     * @return the intersection of the {@link Directory} entities, including building the sets and the result.
+     */
+    @Benchmark
+    public Directory directoryIntersection() {
+        return firstDirectory.intersection(secondDirectory);
+    }
+
+    /**
+     * @return the {@link ContactFingerprintSet} built from scratch, including fingerprinting.
+     */
+    @Benchmark
+    public ContactFingerprintSet fingerprintBuild() {
+        return ContactFingerprintSet.of(firstTree);
+    }
+
+    /**
+     * @param from is the first index, inclusive.
+     * @param to is the last index, exclusive.
+     * @return the generated {@link Contact} entities, each with an {@link Address}.
+     */
+    static List<Contact> contacts(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(index -> {
+                    final Address address = new Address();
+                    address.setLocality("Melbourne");
+                    address.setState(State.VICTORIA);
+                    address.setPostcode(String.valueOf(3000 + index % 200));
+                    address.setCountry(Country.AUSTRALIA);
+                    address.setLines(ImmutableList.of(index + " Collins Street"));
+                    return new Contact("Contact " + index, "contact" + index + "@meerware.com", null, address);
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Lists;
+
+/**
+ * Compares inserting {@link Contact} entities into a {@link TreeSet}, as a {@link Directory} does, with the
+ * {@link Address} display computed on every comparison against the cached display. New {@link Contact}
+ * entities are created for each invocation so the cost of first computing the display is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactTreeSetBenchmark {
+
+    /**
+     * Ordering as it was before the display was cached, computing the {@link Address} display on every
+     * comparison.
+     */
+    private static final Comparator<Contact> UNCACHED = (left, right) -> ComparisonChain.start()
+            .compare(defaultString(left.getName()), defaultString(right.getName()))
+            .compare(defaultString(left.getEmail()), defaultString(right.getEmail()))
+            .compare(defaultString(left.getPhone()), defaultString(right.getPhone()))
+            .compare(display(left.getAddress()), display(right.getAddress()))
+            .result();
+
+    /**
+     * Number of {@link Contact} entities inserted.
+     */
+    @Param({"100000"})
+    private int size;
+
+    /**
+     * {@link Contact} entities to insert, in random order.
+     */
+    private List<Contact> contacts;
+
+    /**
+     * Creates new {@link Contact} entities, sharing the names so most comparisons reach the {@link Address}.
+     */
+    @Setup(Level.Invocation)
+    public void setUp() {
+        contacts = ContactSetBenchmark.contacts(0, size);
+        for (int index = 0; index < contacts.size(); index++) {
+            final Contact contact = contacts.get(index);
+            contacts.set(index, new Contact("Contact " + index % 100, null, null, contact.getAddress()));
+        }
+        Collections.shuffle(contacts, new Random(size));
+    }
+
+    /**
+     * @return the {@link Set} built with the display computed on every comparison.
+     */
+    @Benchmark
+    public Set<Contact> uncached() {
+        final Set<Contact> set = new TreeSet<>(UNCACHED);
+        set.addAll(contacts);
+        return set;
+    }
+
+    /**
+     * @return the {@link Set} built with the natural, cached ordering.
+     */
+    @Benchmark
+    public Set<Contact> cached() {
+        final Set<Contact> set = new TreeSet<>();
+        set.addAll(contacts);
+        return set;
+    }
+
+    /**
+     * @param address is the {@link Address}.
+     * @return the display computed the way {@link Address#toDisplay()} did before caching.
+     */
+    private static String display(Address address) {
+        final List<Object> components = Lists.newArrayList(address.getStoredLines());
+        components.add(address.getLocality());
+        if (StringUtils.isNotBlank(address.getPostcode()) && address.getState() != null) {
+            components.add(address.getState() + " " + address.getPostcode());
+        } else {
+            components.add(address.getState());
+            components.add(address.getPostcode());
+        }
+        components.add(address.getCountry());
+        return Joiner.on(", ").skipNulls().join(components);
+    }
+}
@@ -0,0 +1,74 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.upperCase;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Country#parse(String)} against the previous linear scan over every {@link Country}, for a code,
+ * an alias of a {@link Country} declared last and a value that does not match.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountryParseBenchmark {
+
+    /**
+     * Value to parse.
+     */
+    @Param({"AU", "ZIM", "Atlantis"})
+    private String value;
+
+    /**
+     * @return the parsed {@link Country}.
+     */
+    @Benchmark
+    public Country parseScan() {
+        try {
+            return scan(value);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the parsed {@link Country}.
+     */
+    @Benchmark
+    public Country parseIndexed() {
+        try {
+            return Country.parse(value);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Parsing as it was before, comparing against the code, name and aliases of every {@link Country} in turn.
+     *
+     * @param value is the value to parse.
+     * @return the matching {@link Country}.
+     */
+    private static Country scan(String value) {
+        final String search = value.trim();
+        return Stream.of(Country.values()).filter(candidate -> search.equalsIgnoreCase(candidate.getCode())
+                || search.equalsIgnoreCase(candidate.getName())
+                || candidate.getAliases().stream().anyMatch(alias -> search.equalsIgnoreCase(alias))).findFirst()
+                .orElseGet(() -> Country.valueOf(upperCase(search).replace(' ', '_')));
+    }
+}
@@ -0,0 +1,141 @@
+package com.meerware.directory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compares validating the phones of a 100k {@link Contact} {@link Directory} by parsing every phone, as the
+ * {@link PhoneValidator} used to, against the {@link PhoneNumbers} memo. The memo is emptied before each
+ * invocation, so it only gains from the numbers repeated within the {@link Directory}, such as switchboards and
+ * help lines. A share of the {@link Contact} entities reuse one of a small pool of popular numbers, the rest have
+ * their own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhoneValidationBenchmark {
+
+    /**
+     * Number of {@link Contact} entities in the {@link Directory}.
+     */
+    private static final int SIZE = 100_000;
+
+    /**
+     * Number of popular numbers shared between {@link Contact} entities.
+     */
+    private static final int POPULAR = 500;
+
+    /**
+     * Share of {@link Contact} entities with a popular number.
+     */
+    @Param({"0.1", "0.5", "0.9"})
+    private double duplicates;
+
+    /**
+     * Phones of the {@link Contact} entities.
+     */
+    private List<String> phones;
+
+    /**
+     * {@link Directory} holding the {@link Contact} entities.
+     */
+    private Directory directory;
+
+    /**
+     * {@link Validator} of the {@link Directory}.
+     */
+    private Validator validator;
+
+    /**
+     * Builds the {@link Directory}.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(SIZE);
+        phones = Lists.newArrayListWithCapacity(SIZE);
+        final List<Contact> contacts = Lists.newArrayListWithCapacity(SIZE);
+        for (int index = 0; index < SIZE; index++) {
+            String phone;
+            if (random.nextDouble() < duplicates) {
+                phone = number(SIZE + random.nextInt(POPULAR));
+            } else {
+                phone = number(index);
+            }
+            phones.add(phone);
+            contacts.add(new Contact("Contact " + index, null, phone, null));
+        }
+        directory = new Directory("benchmark", contacts);
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    /**
+     * Empties the {@link PhoneNumbers} memo.
+     */
+    @Setup(Level.Invocation)
+    public void forget() {
+        PhoneNumbers.cache().invalidateAll();
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void parse(Blackhole hole) {
+        for (String phone : phones) {
+            hole.consume(PhoneNumbers.parse(phone));
+        }
+    }
+
+    /**
+     * @param hole is the {@link Blackhole}.
+     */
+    @Benchmark
+    public void normalize(Blackhole hole) {
+        for (String phone : phones) {
+            hole.consume(PhoneNumbers.normalize(phone));
+        }
+    }
+
+    /**
+     * @return the constraint violations of the whole {@link Directory}, through the {@link PhoneValidator}.
+     */
+    @Benchmark
+    public Object validate() {
+        return validator.validate(directory);
+    }
+
+    /**
+     * @param index is the index of the number.
+     * @return a Melbourne number, written in one of the formats people use.
+     */
+    private static String number(int index) {
+        final String local = String.format("9%03d %04d", index / 10_000 % 1000, index % 10_000);
+        if (index % 2 == 0) {
+            return "03 " + local;
+        }
+        return "+61 3 " + local;
+    }
+}
@@ -0,0 +1,239 @@
+package com.meerware.web;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Streams;
+
+/**
+ * Compares reading a request document through the streaming {@link DocumentBodyAdvice} and
+ * {@link DocumentHttpMessageConverter} against the previous tree based unwrapping, which read the body into
+ * memory, parsed it into a tree, wrote it back out and parsed it again. Run with {@code -Pprofilers=gc} to
+ * compare the memory allocated per read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentReadBenchmark {
+
+    /**
+     * {@code JSON API} {@link MediaType}.
+     */
+    private static final MediaType JSON_API = MediaType.parseMediaType("application/vnd.api+json");
+
+    /**
+     * Number of entries in the document.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /**
+     * Content type of the document, either {@code application/json} or {@code application/vnd.api+json}.
+     */
+    @Param({"application/json", "application/vnd.api+json"})
+    private String type;
+
+    /**
+     * Request body.
+     */
+    private byte[] body;
+
+    /**
+     * {@link ObjectMapper} used by all the readers.
+     */
+    private ObjectMapper mapper;
+
+    /**
+     * Main {@link DocumentBodyAdvice}.
+     */
+    private DocumentBodyAdvice advice;
+
+    /**
+     * Main {@link DocumentHttpMessageConverter}.
+     */
+    private DocumentHttpMessageConverter converter;
+
+    /**
+     * Builds the request body.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = new ObjectMapper();
+        advice = new DocumentBodyAdvice(mapper);
+        converter = new DocumentHttpMessageConverter(mapper);
+
+        final StringBuilder builder = new StringBuilder("{\"name\": \"benchmark\", \"contacts\": [");
+        for (int index = 0; index < size; index++) {
+            if (index > 0) {
+                builder.append(", ");
+            }
+            builder.append("{\"name\": \"Contact ").append(index)
+                   .append("\", \"email\": \"contact").append(index)
+                   .append("@meerware.com\", \"phone\": \"+61 3 8685 1462\"}");
+        }
+        builder.append("]}");
+        String document = builder.toString();
+        if (JSON_API.isCompatibleWith(MediaType.parseMediaType(type))) {
+            document = "{\"id\": \"1\", \"type\": \"book\", \"attributes\": " + document + "}";
+        }
+        body = ("{\"data\": " + document + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the read {@link Book}.
+     * @throws IOException if the document cannot be read.
+     */
+    @Benchmark
+    public Object readStreaming() throws IOException {
+        final HttpInputMessage message = advice.beforeBodyRead(message(), null, Book.class, DocumentHttpMessageConverter.class);
+        return converter.read(Book.class, null, message);
+    }
+
+    /**
+     * @return the read {@link Book}.
+     * @throws IOException if the document cannot be read.
+     */
+    @Benchmark
+    public Object readTree() throws IOException {
+        return mapper.readValue(legacy(message()), Book.class);
+    }
+
+    /**
+     * @return a new {@link HttpInputMessage} of the request body.
+     */
+    private HttpInputMessage message() {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(type));
+        return new HttpInputMessage() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+        };
+    }
+
+    /**
+     * Unwrapping as it was before.
+     *
+     * @param message is the {@link HttpInputMessage}.
+     * @return the {@link InputStream} of the unwrapped document.
+     * @throws IOException if the document cannot be read.
+     */
+    private InputStream legacy(HttpInputMessage message) throws IOException {
+        final HttpHeaders headers = message.getHeaders();
+        final byte[] bytes = toByteArray(message.getBody());
+        final JsonNode root = mapper.readTree(bytes);
+        final JsonNode data;
+        if (root.isObject() && root.has("data")) {
+            data = root.get("data");
+        } else {
+            data = root;
+        }
+        if (!JSON_API.isCompatibleWith(headers.getContentType())) {
+            return new ByteArrayInputStream(mapper.writeValueAsBytes(data));
+        }
+        final Function<JsonNode, ObjectNode> transform = node -> {
+            final ObjectNode output = new ObjectNode(mapper.getNodeFactory());
+            if (node.has("attributes") && node.get("attributes").isObject()) {
+                output.setAll((ObjectNode) node.get("attributes"));
+            }
+            if (node.has("id")) {
+                output.set("id", node.get("id"));
+            }
+            return output;
+        };
+        final JsonNode output;
+        if (data.isArray()) {
+            output = new ArrayNode(mapper.getNodeFactory(),
+                    Streams.stream((ArrayNode) data).map(transform).collect(Collectors.toList()));
+        } else {
+            output = transform.apply(data);
+        }
+        return new ByteArrayInputStream(mapper.writeValueAsBytes(output));
+    }
+
+    /**
+     * Target of the read, shaped like a directory.
+     */
+    public static class Book {
+
+        /**
+         * Identifier.
+         */
+        public String id;
+
+        /**
+         * Name.
+         */
+        public String name;
+
+        /**
+         * Entries.
+         */
+        public List<Entry> contacts;
+    }
+
+    /**
+     * Entry of a {@link Book}, shaped like a contact.
+     */
+    public static class Entry {
+
+        /**
+         * Name.
+         */
+        public String name;
+
+        /**
+         * Email.
+         */
+        public String email;
+
+        /**
+         * Phone.
+         */
+        public String phone;
+    }
+}
@@ -0,0 +1,148 @@
+package com.meerware.web;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.meerware.web.DocumentReadBenchmark.Book;
+import com.meerware.web.DocumentReadBenchmark.Entry;
+
+/**
+ * Compares writing a {@code JSON API} document through the {@link Resource} written by {@link DocumentBodyAdvice}
+ * against the previous wrapping, which converted the value into a {@link LinkedHashMap} before moving its
+ * members into the resource object. Run with {@code -Pprofilers=gc} to compare the memory allocated per write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentWriteBenchmark {
+
+    /**
+     * {@code JSON API} {@link MediaType}.
+     */
+    private static final MediaType JSON_API = MediaType.parseMediaType("application/vnd.api+json");
+
+    /**
+     * {@link OutputStream} discarding everything written to it.
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(int value) {
+            // Discarded
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(byte[] value, int offset, int length) {
+            // Discarded
+        }
+    };
+
+    /**
+     * Number of entries in the document.
+     */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /**
+     * Value written.
+     */
+    private Book book;
+
+    /**
+     * {@link ObjectMapper} used by all the writers.
+     */
+    private ObjectMapper mapper;
+
+    /**
+     * Main {@link DocumentBodyAdvice}.
+     */
+    private DocumentBodyAdvice advice;
+
+    /**
+     * Builds the value written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = new ObjectMapper();
+        advice = new DocumentBodyAdvice(mapper);
+
+        book = new Book();
+        book.id = "1";
+        book.name = "benchmark";
+        book.contacts = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            final Entry entry = new Entry();
+            entry.name = "Contact " + index;
+            entry.email = "contact" + index + "@meerware.com";
+            entry.phone = "+61 3 8685 1462";
+            book.contacts.add(entry);
+        }
+    }
+
+    /**
+     * @throws IOException if the document cannot be written.
+     */
+    @Benchmark
+    public void writeStreaming() throws IOException {
+        mapper.writeValue(DISCARD, advice.wrap(book, JSON_API));
+    }
+
+    /**
+     * @throws IOException if the document cannot be written.
+     */
+    @Benchmark
+    public void writeConverted() throws IOException {
+        mapper.writeValue(DISCARD, ImmutableMap.of("data", legacy(book)));
+    }
+
+    /**
+     * Wrapping as it was before.
+     *
+     * @param value is the value to wrap.
+     * @return the resource object of the value.
+     */
+    private Map<String, Object> legacy(Object value) {
+        final Map<String, Object> attributes = mapper.convertValue(value, new TypeReference<LinkedHashMap<String, Object>>() {
+        });
+        final Map<String, Object> resource = new LinkedHashMap<>();
+        if (attributes.containsKey("id")) {
+            resource.put("id", attributes.remove("id"));
+        }
+        resource.put("type", lowerCase(value.getClass().getSimpleName()));
+        resource.put("attributes", attributes);
+        return resource;
+    }
+}
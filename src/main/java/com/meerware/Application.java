@@ -74,6 +74,7 @@ public class Application extends SpringBootServletInitializer  {
                 .put("spring.jpa.generate-ddl", "false")
                 .put("spring.jpa.hibernate.ddl-auto", "none")
                 .put("spring.flyway.enabled", "true")
+                .put("directory.cache.enabled", "false")
                 .put("management.endpoints.web.base", "path=/admin")
                 .put("management.endpoints.web.exposure.include", "*")
                 .put("management.endpoint.health.show-details", "always")
@@ -163,6 +163,14 @@ public abstract class AbstractEntity implements Serializable, Auditable, Identif
         return new Date(modified.getTime());
     }
 
+    /**
+     * Marks the entity as modified now, for changes which do not otherwise dirty the entity itself, such as those of
+     * an element collection, so the modified timestamp is written along with them.
+     */
+    protected void markModified() {
+        this.modified = new Date();
+    }
+
     /**
      * {@inheritDoc}
      */
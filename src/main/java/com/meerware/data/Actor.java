@@ -2,6 +2,8 @@ package com.meerware.data;
 
 import static java.util.Optional.ofNullable;
 import static javax.persistence.InheritanceType.JOINED;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
+
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -12,6 +14,8 @@ import javax.persistence.Entity;
 import javax.persistence.Inheritance;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+
 /**
  * Base class representing an {@link Actor} in the system.
  */
@@ -20,8 +24,14 @@ import javax.persistence.Table;
 @DiscriminatorColumn(name = "type", length = 16)
 @DiscriminatorValue(Actor.TYPE)
 @Table(name = "actor")
+@Cache(usage = READ_WRITE, region = Actor.CACHE_REGION)
 public class Actor extends AbstractEntity {
 
+    /**
+     * Name of the second level cache region holding {@link Actor} entities.
+     */
+    public static final String CACHE_REGION = "actor";
+
     /**
      * Type given to the base {@link Actor}.
      */
@@ -1,8 +1,11 @@
 package com.meerware.data;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
@@ -13,6 +16,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @EnableJpaAuditing
 class DataAutoConfiguration {
 
+    /**
+     * Default number of statements sent to the database in a single {@code JDBC} batch.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
     /**
      * @param provider is the {@link ObjectProvider}.
      * @return the newly created {@link ActorAuditorAwareBeanPostProcessor}.
@@ -21,4 +29,26 @@ class DataAutoConfiguration {
     ActorAuditorAwareBeanPostProcessor actorAuditorAwareBeanPostProcessor(ObjectProvider<AuditorAware<Actor>> provider) {
         return new ActorAuditorAwareBeanPostProcessor(new CompositeActorAuditorAware(provider));
     }
+
+    /**
+     * Tunes how {@code Hibernate} writes to the database. Inserts and updates are grouped into {@code JDBC}
+     * batches, ordered by table so a flush of mixed entities and collections still fills each batch, and
+     * versioned data is batched as well. Settings given directly as {@code spring.jpa.properties} take
+     * precedence.
+     *
+     * @param environment is the {@link Environment} holding the settings.
+     * @return the {@link HibernatePropertiesCustomizer} of the persistence tuning settings.
+     */
+    @Bean
+    HibernatePropertiesCustomizer persistenceHibernatePropertiesCustomizer(Environment environment) {
+        final int batchSize = environment.getProperty("data.jdbc.batch-size", Integer.class, DEFAULT_BATCH_SIZE);
+        final boolean ordered = environment.getProperty("data.jdbc.ordered", Boolean.class, true);
+        final boolean versioned = environment.getProperty("data.jdbc.batch-versioned-data", Boolean.class, true);
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, ordered);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, ordered);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, versioned);
+        };
+    }
 }
@@ -14,10 +14,13 @@ import java.util.Objects;
 import javax.annotation.Nullable;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
+import javax.persistence.Transient;
 import javax.validation.Valid;
 import javax.validation.constraints.Size;
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -71,6 +74,11 @@ class Address implements Comparable<Address>, Serializable {
      */
     private static final int MAXIMUM_STATE_LENGTH = 128;
 
+    /**
+     * Multiplier used to combine attribute hash codes.
+     */
+    private static final int HASH_MULTIPLIER = 31;
+
     /**
      * Maximum length of the country.
      */
@@ -122,6 +130,18 @@ class Address implements Comparable<Address>, Serializable {
     @Column(length = MAXIMUM_COUNTRY_LENGTH)
     private Country country;
 
+    /**
+     * Lazily computed {@link #toDisplay()} value, also used as the sort key. This is cleared by the setters.
+     */
+    @Transient
+    private transient String display;
+
+    /**
+     * Lazily computed {@link #hashCode()}, {@code 0} until computed. This is cleared by the setters.
+     */
+    @Transient
+    private transient int hash;
+
     /**
      * Default, package private constructor.
      */
@@ -129,6 +149,52 @@ class Address implements Comparable<Address>, Serializable {
         super();
     }
 
+    /**
+     * Package private constructor used when reading stored column values.
+     *
+     * @param lines is the delimited lines, as stored.
+     * @param locality is the locality.
+     * @param postcode is the postcode.
+     * @param state is the {@link State}.
+     * @param country is the {@link Country}.
+     */
+    Address(
+            @Nullable String lines,
+            @Nullable String locality,
+            @Nullable String postcode,
+            @Nullable State state,
+            @Nullable Country country) {
+        this.lines = lines;
+        this.locality = locality;
+        this.postcode = postcode;
+        this.state = state;
+        this.country = country;
+    }
+
+    /**
+     * Creates an {@link Address} from its {@code JSON} form. Every deserialized {@link Address} goes through this, so
+     * the {@link State} is parsed once as a subdivision of the {@link Country}, whatever order they are given in, and
+     * {@code WA} in the United States is Washington on every path.
+     *
+     * @param lines is the lines.
+     * @param locality is the locality.
+     * @param postcode is the postcode.
+     * @param state is the {@link String} form of the {@link State}.
+     * @param country is the {@link Country}.
+     * @return the {@link Address}.
+     */
+    @JsonCreator
+    static Address of(
+            @JsonProperty("lines") @Nullable List<String> lines,
+            @JsonProperty("locality") @Nullable String locality,
+            @JsonProperty("postcode") @Nullable String postcode,
+            @JsonProperty("state") @Nullable String state,
+            @JsonProperty("country") @Nullable Country country) {
+        final Address address = new Address(null, locality, postcode, State.parse(state, country), country);
+        address.setLines(lines);
+        return address;
+    }
+
     /**
      * @return an immutable {@link List} of the {@link Address} lines.
      */
@@ -144,6 +210,8 @@ class Address implements Comparable<Address>, Serializable {
      * @param lines is the {@link Iterable} of lines.
      */
     void setLines(Iterable<String> lines) {
+        this.display = null;
+        this.hash = 0;
         if (lines == null) {
             this.lines = null;
             return;
@@ -152,6 +220,15 @@ class Address implements Comparable<Address>, Serializable {
         this.lines = Joiner.on(", ").skipNulls().join(lines);
     }
 
+    /**
+     * @return the lines delimited into a single {@link String}, as they are stored. This can return {@code null}.
+     */
+    @Nullable
+    @JsonIgnore
+    String getStoredLines() {
+        return lines;
+    }
+
     /**
      * @return the locality which is the suburb or town name.
      */
@@ -164,6 +241,8 @@ class Address implements Comparable<Address>, Serializable {
      */
     void setLocality(String locality) {
         this.locality = locality;
+        this.display = null;
+        this.hash = 0;
     }
 
     /**
@@ -179,6 +258,8 @@ class Address implements Comparable<Address>, Serializable {
      */
     void setPostcode(String postcode) {
         this.postcode = postcode;
+        this.display = null;
+        this.hash = 0;
     }
 
     /**
@@ -194,6 +275,8 @@ class Address implements Comparable<Address>, Serializable {
      */
     void setState(State state) {
         this.state = state;
+        this.display = null;
+        this.hash = 0;
     }
 
     /**
@@ -208,6 +291,8 @@ class Address implements Comparable<Address>, Serializable {
      */
     void setCountry(@Nullable Country country) {
         this.country = country;
+        this.display = null;
+        this.hash = 0;
     }
 
 
@@ -216,6 +301,19 @@ class Address implements Comparable<Address>, Serializable {
      */
     @JsonProperty(access = Access.READ_ONLY, value = "display")
     String toDisplay() {
+        // Racy single check, computing the same immutable value twice is harmless
+        String result = display;
+        if (result == null) {
+            result = computeDisplay();
+            display = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the newly computed {@link #toDisplay()} value.
+     */
+    private String computeDisplay() {
         final List<Object> components = Lists.newArrayList(lines);
         components.add(getLocality());
         if (StringUtils.isNotBlank(getPostcode()) && getState() != null) {
@@ -233,7 +331,16 @@ class Address implements Comparable<Address>, Serializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(lines, getLocality(), getState(), getPostcode(), getCountry());
+        int result = hash;
+        if (result == 0) {
+            result = Objects.hashCode(lines);
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getLocality());
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getState());
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getPostcode());
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getCountry());
+            hash = result;
+        }
+        return result;
     }
 
     /**
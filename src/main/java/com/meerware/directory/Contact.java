@@ -1,15 +1,14 @@
 package com.meerware.directory;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
-import static com.google.common.collect.ComparisonChain.start;
 import static java.util.Optional.ofNullable;
-import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.StringUtils.overlay;
 import static org.apache.commons.lang3.StringUtils.repeat;
 import static org.apache.commons.lang3.StringUtils.wrap;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -23,6 +22,7 @@ import javax.annotation.Nullable;
 import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import javax.persistence.Embedded;
+import javax.persistence.Transient;
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -34,7 +34,8 @@ import javax.validation.constraints.Size;
  * into first and last name and would be one to many for emails, addresses and phone numbers.
  * This also would not be an {@link Embeddable} but rather a standalone entity.</p>
  *
- * <p>Equals and comparsion methods are defined on all attributes, not just name.</p>
+ * <p>Equals and comparsion methods are defined on all attributes, not just name. Phone numbers are compared
+ * in their canonical form.</p>
  *
  * <p>Instances are immutable.</p>
  */
@@ -61,7 +62,12 @@ class Contact implements Comparable<Contact>, Serializable {
     /**
      * Maximum phone length.
      */
-    private static final int MAXIMUM_PHONE_LENGTH = 32;
+    static final int MAXIMUM_PHONE_LENGTH = 32;
+
+    /**
+     * Multiplier used to combine attribute hash codes.
+     */
+    private static final int HASH_MULTIPLIER = 31;
 
     /**
      * Masking character for attributes for logging.
@@ -99,6 +105,17 @@ class Contact implements Comparable<Contact>, Serializable {
     @Size(max = MAXIMUM_PHONE_LENGTH)
     private final String phone;
 
+    /**
+     * Canonical form of the phone number, {@code E.164} such as {@code +61386851462} when the number is valid or
+     * the phone as given otherwise. This is worked out once when the {@link Contact} is created and stored next to
+     * the phone, so reading it back does not parse the number again. It is used for equality, ordering and lookups,
+     * so the same number written in different ways is the same {@link Contact}.
+     */
+    @JsonIgnore
+    @Nullable
+    @Column(name = "canonical_phone", length = MAXIMUM_PHONE_LENGTH)
+    private final String canonicalPhone;
+
     /**
      * Physical {@link Address}. This can be {@link Address#EMPTY}.
      */
@@ -106,6 +123,12 @@ class Contact implements Comparable<Contact>, Serializable {
     @Valid
     private final Address address;
 
+    /**
+     * Lazily computed {@link #hashCode()}, {@code 0} until computed.
+     */
+    @Transient
+    private transient int hash;
+
     /**
      * Default package private constructor.
      */
@@ -131,12 +154,45 @@ class Contact implements Comparable<Contact>, Serializable {
             @JsonProperty("email") String email,
             @JsonProperty("phone") String phone,
             @JsonProperty("address") Address address) {
+        this(name, email, phone, canonical(phone), address);
+    }
+
+    /**
+     * Package private constructor used when reading stored column values, which already hold the
+     * canonical phone.
+     *
+     * @param name is the name.
+     * @param email is the email address.
+     * @param phone is the phone number.
+     * @param canonicalPhone is the canonical form of the phone number.
+     * @param address is the {@link Address}.
+     */
+    Contact(String name, String email, String phone, String canonicalPhone, Address address) {
         this.name = name;
         this.email = email;
         this.phone = phone;
+        this.canonicalPhone = canonicalPhone;
         this.address = ofNullable(address).orElse(Address.EMPTY);
     }
 
+    /**
+     * @param phone is the phone number, which may be {@code null}.
+     * @return the canonical form of the phone number, {@code E.164} when it is valid or the phone number as is
+     *         otherwise.
+     */
+    @Nullable
+    static String canonical(@Nullable String phone) {
+        if (phone == null) {
+            return null;
+        }
+        // Remembered, so this is the same parse the validator then looks up
+        final NormalizedPhone normalized = PhoneNumbers.normalize(phone);
+        if (normalized.isValid()) {
+            return normalized.getE164();
+        }
+        return phone;
+    }
+
     /**
      * @return the name of the contact. This should not return {@code null}.
      */
@@ -162,6 +218,15 @@ class Contact implements Comparable<Contact>, Serializable {
         return phone;
     }
 
+    /**
+     * @return the canonical form of the phone number, {@code E.164} when it is valid. This might return
+     *         {@code null} if no number has been set.
+     */
+    @Nullable
+    String getCanonicalPhone() {
+        return canonicalPhone;
+    }
+
     /**
      * @return the {@link Address} if set, {@code null} otherwise.
      */
@@ -176,12 +241,51 @@ class Contact implements Comparable<Contact>, Serializable {
      */
     @Override
     public int compareTo(Contact contact) {
-        return start()
-                .compare(defaultString(getName()), defaultString(contact.getName()))
-                .compare(defaultString(getEmail()), defaultString(contact.getEmail()))
-                .compare(defaultString(getPhone()), defaultString(contact.getPhone()))
-                .compare(getAddress(), contact.getAddress())
-                .result();
+        // Compared field by field without allocating, this is called for every tree set operation
+        int result = compare(getName(), contact.getName());
+        if (result != 0) {
+            return result;
+        }
+        result = compare(getEmail(), contact.getEmail());
+        if (result != 0) {
+            return result;
+        }
+        result = compare(getCanonicalPhone(), contact.getCanonicalPhone());
+        if (result != 0) {
+            return result;
+        }
+        final Address left = getAddress();
+        final Address right = contact.getAddress();
+        if (left == right) {
+            return 0;
+        }
+        if (left == null || right == null) {
+            return Boolean.compare(left != null, right != null);
+        }
+        return left.compareTo(right);
+    }
+
+    /**
+     * Compares two values treating {@code null} the same as a blank value.
+     *
+     * @param left is the left value.
+     * @param right is the right value.
+     * @return the comparison result.
+     */
+    private static int compare(@Nullable String left, @Nullable String right) {
+        if (left == null) {
+            if (right == null || right.isEmpty()) {
+                return 0;
+            }
+            return -1;
+        }
+        if (right == null) {
+            if (left.isEmpty()) {
+                return 0;
+            }
+            return 1;
+        }
+        return left.compareTo(right);
     }
 
     /**
@@ -198,7 +302,7 @@ class Contact implements Comparable<Contact>, Serializable {
         final Contact contact = (Contact) object;
         return Objects.equals(getName(), contact.getName())
                 && Objects.equals(getEmail(), contact.getEmail())
-                && Objects.equals(getPhone(), contact.getPhone())
+                && Objects.equals(getCanonicalPhone(), contact.getCanonicalPhone())
                 && Objects.equals(getAddress(), contact.getAddress());
     }
 
@@ -207,7 +311,16 @@ class Contact implements Comparable<Contact>, Serializable {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(getName(), getEmail(), getPhone(), getAddress());
+        // Racy single check, computing the same value twice is harmless
+        int result = hash;
+        if (result == 0) {
+            result = Objects.hashCode(getName());
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getEmail());
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getCanonicalPhone());
+            result = HASH_MULTIPLIER * result + Objects.hashCode(getAddress());
+            hash = result;
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,187 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Joiner;
+
+/**
+ * Canonical form of a {@link Contact}, used to find near duplicates which {@link Contact#equals(Object)} keeps apart.
+ * Names, emails, address lines and localities are trimmed, have their inner whitespace collapsed and are case folded,
+ * phone numbers are in their canonical form, postcodes lose their whitespace, the {@link State} is reduced to what
+ * {@link State#parse(String)} resolves it to, so a code and a name match, and the {@link Country} to its code.
+ * Blank values are the same as missing ones.
+ *
+ * <p>The 64 bit fingerprint is computed once, so keys can be partitioned and hashed without looking at the values
+ * again. Instances are immutable.</p>
+ */
+final class ContactCanonicalKey {
+
+    /**
+     * Matches characters kept in a phone number which is not valid, so only its punctuation is dropped.
+     */
+    private static final CharMatcher PHONE = CharMatcher.is('+').or(CharMatcher.inRange('0', '9'));
+
+    /**
+     * Joins the canonical address lines.
+     */
+    private static final Joiner LINES = Joiner.on('\n').skipNulls();
+
+    /**
+     * Canonical values, in {@link Contact} order.
+     */
+    private final String[] values;
+
+    /**
+     * 64 bit fingerprint of the {@link #values}.
+     */
+    private final long fingerprint;
+
+    /**
+     * @param values is the canonical values.
+     */
+    private ContactCanonicalKey(String[] values) {
+        this.values = values;
+        this.fingerprint = ContactFingerprints.fingerprint(values);
+    }
+
+    /**
+     * @param contact is the {@link Contact}.
+     * @return the {@link ContactCanonicalKey} of the {@link Contact}.
+     */
+    static ContactCanonicalKey of(Contact contact) {
+        final Address address = contact.getAddress();
+        String lines = null;
+        String locality = null;
+        String postcode = null;
+        String state = null;
+        String country = null;
+        if (address != null) {
+            lines = fold(LINES.join(address.getLines().stream().map(ContactCanonicalKey::fold).iterator()));
+            locality = fold(address.getLocality());
+            postcode = postcode(address.getPostcode());
+            state = state(address.getState(), address.getCountry());
+            country = country(address.getCountry());
+        }
+        return new ContactCanonicalKey(new String[] {
+            fold(contact.getName()),
+            fold(contact.getEmail()),
+            phone(contact.getCanonicalPhone()),
+            lines,
+            locality,
+            postcode,
+            state,
+            country
+        });
+    }
+
+    /**
+     * @param value is the value, which may be {@code null}.
+     * @return the trimmed, whitespace collapsed and lower case value, {@code null} if it is blank.
+     */
+    @Nullable
+    static String fold(@Nullable String value) {
+        if (isBlank(value)) {
+            return null;
+        }
+        return lowerCase(CharMatcher.whitespace().trimAndCollapseFrom(value, ' '), Locale.ROOT);
+    }
+
+    /**
+     * @param phone is the canonical phone number, which may be {@code null}.
+     * @return the phone number, without punctuation when it is not valid.
+     */
+    @Nullable
+    private static String phone(@Nullable String phone) {
+        if (phone == null) {
+            return null;
+        }
+        return fold(PHONE.retainFrom(phone));
+    }
+
+    /**
+     * @param postcode is the postcode, which may be {@code null}.
+     * @return the lower case postcode without whitespace, {@code null} if it is blank.
+     */
+    @Nullable
+    private static String postcode(@Nullable String postcode) {
+        final String folded = fold(postcode);
+        if (folded == null) {
+            return null;
+        }
+        return CharMatcher.whitespace().removeFrom(folded);
+    }
+
+    /**
+     * @param state is the {@link State}, which may be {@code null}.
+     * @param country is the {@link Country} of the address, which may be {@code null}.
+     * @return the folded name of the {@link State} it resolves to in the {@link Country}.
+     */
+    @Nullable
+    private static String state(@Nullable State state, @Nullable Country country) {
+        if (state == null) {
+            return null;
+        }
+        final State parsed = State.parse(state.getName(), country);
+        if (parsed == null) {
+            return null;
+        }
+        return fold(parsed.getName());
+    }
+
+    /**
+     * @param country is the {@link Country}, which may be {@code null}.
+     * @return the code of the {@link Country}, which is already resolved by {@link Country#parse(String)} when read.
+     */
+    @Nullable
+    private static String country(@Nullable Country country) {
+        if (country == null) {
+            return null;
+        }
+        return country.getCode();
+    }
+
+    /**
+     * @return the 64 bit fingerprint.
+     */
+    long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        final ContactCanonicalKey key = (ContactCanonicalKey) object;
+        return fingerprint == key.fingerprint && Arrays.equals(values, key.values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ContactCanonicalKey" + Arrays.toString(values);
+    }
+}
@@ -0,0 +1,97 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.validation.Valid;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Incremental changes to the {@link Contact} entities of a {@link Directory}: the {@link Contact}
+ * entities to add and the ones to remove. Removals are applied before additions.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(NON_EMPTY)
+final class ContactChanges {
+
+    /**
+     * {@link Contact} entities to add.
+     */
+    @Valid
+    private final Set<Contact> add;
+
+    /**
+     * {@link Contact} entities to remove. These are not validated so invalid stored
+     * {@link Contact} entities can still be removed.
+     */
+    private final Set<Contact> remove;
+
+    /**
+     * @param add is the {@link Iterable} of {@link Contact} entities to add, can be {@code null}.
+     * @param remove is the {@link Iterable} of {@link Contact} entities to remove, can be {@code null}.
+     */
+    @JsonCreator
+    ContactChanges(
+            @JsonProperty("add") @Nullable Iterable<Contact> add,
+            @JsonProperty("remove") @Nullable Iterable<Contact> remove) {
+        this.add = copyOf(add);
+        this.remove = copyOf(remove);
+    }
+
+    /**
+     * @param contacts is the {@link Iterable} to copy, can be {@code null}.
+     * @return an immutable {@link Set} copy.
+     */
+    private static Set<Contact> copyOf(@Nullable Iterable<Contact> contacts) {
+        if (contacts == null) {
+            return ImmutableSet.of();
+        }
+        return ImmutableSet.copyOf(contacts);
+    }
+
+    /**
+     * @return an immutable {@link Set} of {@link Contact} entities to add.
+     */
+    @JsonGetter
+    Set<Contact> getAdd() {
+        return add;
+    }
+
+    /**
+     * @return an immutable {@link Set} of {@link Contact} entities to remove.
+     */
+    @JsonGetter
+    Set<Contact> getRemove() {
+        return remove;
+    }
+
+    /**
+     * @return {@code true} if there are no changes.
+     */
+    boolean isEmpty() {
+        return add.isEmpty() && remove.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("add=");
+        builder.append(add.size());
+        builder.append(", remove=");
+        builder.append(remove.size());
+        return builder.toString();
+    }
+}
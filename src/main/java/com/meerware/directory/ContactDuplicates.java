@@ -0,0 +1,171 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Finds groups of duplicate {@link Contact} entities, those sharing a {@link ContactCanonicalKey}, in passes over a
+ * {@link ContactStream}. Each {@link Contact} is placed in a partition by the top bits of its fingerprint as it is
+ * read, then each partition is grouped on its own with a hash table. Duplicates always share a partition, so the work
+ * is linear in the number of {@link Contact} entities read.
+ *
+ * <p>A pass only holds a range of partitions. Once it holds more {@link Contact} entities than the limit, the last
+ * partitions of its range are dropped and left to the next pass, which runs the query again. A {@link ContactStream}
+ * which fits within the limit is read once, a larger one is read about once for each limit's worth of
+ * {@link Contact} entities, so memory is bounded by the limit or by the largest partition, whichever is more.</p>
+ */
+final class ContactDuplicates {
+
+    /**
+     * Utility class.
+     */
+    private ContactDuplicates() {
+    }
+
+    /**
+     * Finds the groups of duplicate {@link Contact} entities.
+     *
+     * @param contacts is the {@link ContactStream} of the {@link Contact} entities, in any order, which is read again
+     *        for each pass.
+     * @param partitions is the number of partitions, rounded up to a power of two.
+     * @param limit is the number of {@link Contact} entities held by each pass, unless a single partition holds more.
+     * @param action is the {@link Consumer} of each group of at least two duplicates, in {@link Contact} order.
+     *        Groups are given partition by partition, once the pass holding them is read.
+     * @return the number of {@link Contact} entities read by the first pass.
+     */
+    static long find(ContactStream contacts, int partitions, long limit, Consumer<? super List<Contact>> action) {
+        final int bits = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, partitions) - 1);
+        final List<List<Map.Entry<ContactCanonicalKey, Contact>>> buckets = newArrayList();
+        for (int index = 0; index < 1 << bits; index++) {
+            buckets.add(newArrayList());
+        }
+
+        long count = -1;
+        int from = 0;
+        while (from < buckets.size()) {
+            final Pass pass = new Pass(buckets, bits, from, Math.max(1, limit));
+            contacts.forEach(pass);
+            if (count < 0) {
+                count = pass.count;
+            }
+            for (int index = from; index < pass.to; index++) {
+                group(buckets.get(index), action);
+                buckets.set(index, newArrayList());
+            }
+            from = pass.to;
+        }
+        return count;
+    }
+
+    /**
+     * @param fingerprint is the 64 bit fingerprint.
+     * @param bits is the number of bits of the partition.
+     * @return the partition, taken from the top bits as the table of each partition uses the bottom ones.
+     */
+    private static int partition(long fingerprint, int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        return (int) (fingerprint >>> (Long.SIZE - bits));
+    }
+
+    /**
+     * @param bucket is the {@link List} of {@link Contact} entities of a partition with their keys.
+     * @param action is the {@link Consumer} of each group of at least two duplicates.
+     */
+    private static void group(List<Map.Entry<ContactCanonicalKey, Contact>> bucket, Consumer<? super List<Contact>> action) {
+        final Map<ContactCanonicalKey, List<Contact>> groups = Maps.newHashMapWithExpectedSize(bucket.size());
+        for (Map.Entry<ContactCanonicalKey, Contact> entry : bucket) {
+            groups.computeIfAbsent(entry.getKey(), key -> newArrayList()).add(entry.getValue());
+        }
+        for (List<Contact> group : groups.values()) {
+            if (group.size() > 1) {
+                Collections.sort(group);
+                action.accept(group);
+            }
+        }
+    }
+
+    /**
+     * Single pass over a {@link ContactStream}, holding the {@link Contact} entities of a range of partitions which
+     * shrinks whenever more than the limit are held.
+     */
+    private static final class Pass implements Consumer<Contact> {
+
+        /**
+         * Buckets of each partition.
+         */
+        private final List<List<Map.Entry<ContactCanonicalKey, Contact>>> buckets;
+
+        /**
+         * Number of bits of the partition.
+         */
+        private final int bits;
+
+        /**
+         * First partition held, inclusive.
+         */
+        private final int from;
+
+        /**
+         * Number of {@link Contact} entities held before the range shrinks.
+         */
+        private final long limit;
+
+        /**
+         * Last partition held, exclusive.
+         */
+        private int to;
+
+        /**
+         * Number of {@link Contact} entities held.
+         */
+        private long held;
+
+        /**
+         * Number of {@link Contact} entities read.
+         */
+        private long count;
+
+        /**
+         * @param buckets is the buckets of each partition, those from the first partition empty.
+         * @param bits is the number of bits of the partition.
+         * @param from is the first partition held.
+         * @param limit is the number of {@link Contact} entities held before the range shrinks.
+         */
+        Pass(List<List<Map.Entry<ContactCanonicalKey, Contact>>> buckets, int bits, int from, long limit) {
+            this.buckets = buckets;
+            this.bits = bits;
+            this.from = from;
+            this.limit = limit;
+            this.to = buckets.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void accept(Contact contact) {
+            count++;
+            final ContactCanonicalKey key = ContactCanonicalKey.of(contact);
+            final int partition = partition(key.getFingerprint(), bits);
+            if (partition < from || partition >= to) {
+                return;
+            }
+            buckets.get(partition).add(Maps.immutableEntry(key, contact));
+            held++;
+            // Left to the next pass, which reads them again
+            while (held > limit && to - from > 1) {
+                to--;
+                held -= buckets.get(to).size();
+                buckets.set(to, newArrayList());
+            }
+        }
+    }
+}
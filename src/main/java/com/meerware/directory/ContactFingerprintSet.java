@@ -0,0 +1,237 @@
+package com.meerware.directory;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.ToLongFunction;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+
+/**
+ * Hash set of {@link Contact} entities keyed by a 64 bit fingerprint, used for set algebra over large
+ * {@link Contact} collections. Each {@link Contact} is fingerprinted once when added and lookups compare the
+ * primitive fingerprints, only falling back to {@link Contact#equals(Object)} when fingerprints match. Unlike
+ * the {@link Contact} ordered sets of a {@link Directory}, no comparisons or display values are needed.
+ *
+ * <p>Iteration is in insertion order. Instances are not thread safe.</p>
+ */
+final class ContactFingerprintSet implements Iterable<Contact> {
+
+    /**
+     * Smallest number of slots.
+     */
+    private static final int MINIMUM_SLOTS = 16;
+
+    /**
+     * Function computing the fingerprint of a {@link Contact}.
+     */
+    private final ToLongFunction<Contact> function;
+
+    /**
+     * Fingerprints, in insertion order.
+     */
+    private long[] fingerprints;
+
+    /**
+     * {@link Contact} entities, in insertion order.
+     */
+    private Contact[] contacts;
+
+    /**
+     * Number of {@link Contact} entities.
+     */
+    private int size;
+
+    /**
+     * Open addressing table holding the index of an entry plus one, zero marks an empty slot.
+     * The table is kept at most half full.
+     */
+    private int[] slots;
+
+    /**
+     * @param expected is the expected number of {@link Contact} entities.
+     */
+    ContactFingerprintSet(int expected) {
+        this(expected, ContactFingerprints::of);
+    }
+
+    /**
+     * @param expected is the expected number of {@link Contact} entities.
+     * @param function is the function computing the fingerprint of a {@link Contact}.
+     */
+    ContactFingerprintSet(int expected, ToLongFunction<Contact> function) {
+        this.function = function;
+        final int capacity = Math.max(expected, 1);
+        this.fingerprints = new long[capacity];
+        this.contacts = new Contact[capacity];
+        this.slots = new int[slotsFor(capacity)];
+    }
+
+    /**
+     * @param contacts is the {@link Iterable} of {@link Contact} entities.
+     * @return a new {@link ContactFingerprintSet} holding the distinct {@link Contact} entities.
+     */
+    static ContactFingerprintSet of(Iterable<Contact> contacts) {
+        final ContactFingerprintSet set = new ContactFingerprintSet(Iterables.size(contacts));
+        for (Contact contact : contacts) {
+            set.add(contact);
+        }
+        return set;
+    }
+
+    /**
+     * @param contact is the {@link Contact} to add.
+     * @return {@code true} if the {@link Contact} was not already present.
+     */
+    boolean add(Contact contact) {
+        return add(function.applyAsLong(contact), contact);
+    }
+
+    /**
+     * @param contact is the {@link Contact}.
+     * @return {@code true} if the {@link Contact} is present.
+     */
+    boolean contains(Contact contact) {
+        return find(function.applyAsLong(contact), contact) >= 0;
+    }
+
+    /**
+     * @return the number of {@link Contact} entities.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param other is the other {@link ContactFingerprintSet}, using the same fingerprint function.
+     * @return a new {@link ContactFingerprintSet} with the {@link Contact} entities of either set.
+     */
+    ContactFingerprintSet union(ContactFingerprintSet other) {
+        final ContactFingerprintSet result = new ContactFingerprintSet(size + other.size, function);
+        for (int index = 0; index < size; index++) {
+            result.append(fingerprints[index], contacts[index]);
+        }
+        for (int index = 0; index < other.size; index++) {
+            result.add(other.fingerprints[index], other.contacts[index]);
+        }
+        return result;
+    }
+
+    /**
+     * @param other is the other {@link ContactFingerprintSet}, using the same fingerprint function.
+     * @return a new {@link ContactFingerprintSet} with the {@link Contact} entities of both sets.
+     */
+    ContactFingerprintSet intersection(ContactFingerprintSet other) {
+        final ContactFingerprintSet result = new ContactFingerprintSet(Math.min(size, other.size), function);
+        for (int index = 0; index < size; index++) {
+            if (other.find(fingerprints[index], contacts[index]) >= 0) {
+                result.append(fingerprints[index], contacts[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other is the other {@link ContactFingerprintSet}, using the same fingerprint function.
+     * @return a new {@link ContactFingerprintSet} with the {@link Contact} entities of this set which are not
+     *         in the other set.
+     */
+    ContactFingerprintSet difference(ContactFingerprintSet other) {
+        final ContactFingerprintSet result = new ContactFingerprintSet(size, function);
+        for (int index = 0; index < size; index++) {
+            if (other.find(fingerprints[index], contacts[index]) < 0) {
+                result.append(fingerprints[index], contacts[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<Contact> iterator() {
+        return Iterators.limit(Iterators.forArray(contacts), size);
+    }
+
+    /**
+     * @param fingerprint is the fingerprint of the {@link Contact}.
+     * @param contact is the {@link Contact} to add.
+     * @return {@code true} if the {@link Contact} was not already present.
+     */
+    private boolean add(long fingerprint, Contact contact) {
+        if (find(fingerprint, contact) >= 0) {
+            return false;
+        }
+        append(fingerprint, contact);
+        return true;
+    }
+
+    /**
+     * Adds a {@link Contact} known not to be present.
+     *
+     * @param fingerprint is the fingerprint of the {@link Contact}.
+     * @param contact is the {@link Contact} to add.
+     */
+    private void append(long fingerprint, Contact contact) {
+        if (size == contacts.length) {
+            final int capacity = size * 2;
+            fingerprints = Arrays.copyOf(fingerprints, capacity);
+            contacts = Arrays.copyOf(contacts, capacity);
+            slots = new int[slotsFor(capacity)];
+            for (int index = 0; index < size; index++) {
+                slots[free(fingerprints[index])] = index + 1;
+            }
+        }
+        fingerprints[size] = fingerprint;
+        contacts[size] = contact;
+        slots[free(fingerprint)] = size + 1;
+        size++;
+    }
+
+    /**
+     * @param fingerprint is the fingerprint of the {@link Contact}.
+     * @param contact is the {@link Contact} to find.
+     * @return the index of the {@link Contact}, or {@code -1} if it is not present.
+     */
+    private int find(long fingerprint, Contact contact) {
+        final int mask = slots.length - 1;
+        for (int slot = start(fingerprint); slots[slot] != 0; slot = (slot + 1) & mask) {
+            final int index = slots[slot] - 1;
+            // Fingerprints can collide, so equal fingerprints are confirmed with equality
+            if (fingerprints[index] == fingerprint && contacts[index].equals(contact)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param fingerprint is the fingerprint.
+     * @return the first empty slot for the fingerprint.
+     */
+    private int free(long fingerprint) {
+        final int mask = slots.length - 1;
+        int slot = start(fingerprint);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @param fingerprint is the fingerprint.
+     * @return the slot to start probing from.
+     */
+    private int start(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> Integer.SIZE)) & (slots.length - 1);
+    }
+
+    /**
+     * @param capacity is the number of entries.
+     * @return the number of slots, a power of two at least twice the capacity.
+     */
+    private static int slotsFor(int capacity) {
+        return Math.max(MINIMUM_SLOTS, Integer.highestOneBit(capacity * 2 - 1) * 2);
+    }
+}
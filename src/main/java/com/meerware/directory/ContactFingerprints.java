@@ -0,0 +1,51 @@
+package com.meerware.directory;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Computes 64 bit fingerprints of {@link Contact} entities from their stored column values. Equal
+ * {@link Contact} entities always have equal fingerprints, different {@link Contact} entities are very
+ * unlikely to, but can, share a fingerprint.
+ */
+final class ContactFingerprints {
+
+    /**
+     * Fingerprint {@link HashFunction}, this is stable across runs.
+     */
+    private static final HashFunction FUNCTION = Hashing.farmHashFingerprint64();
+
+    /**
+     * Utility class.
+     */
+    private ContactFingerprints() {
+    }
+
+    /**
+     * @param contact is the {@link Contact}.
+     * @return the 64 bit fingerprint.
+     */
+    static long of(Contact contact) {
+        return fingerprint(DirectoryContactRepository.values(contact));
+    }
+
+    /**
+     * @param values is the values, any of which may be {@code null}.
+     * @return the 64 bit fingerprint of the values, in order.
+     */
+    static long fingerprint(String[] values) {
+        final Hasher hasher = FUNCTION.newHasher();
+        for (String value : values) {
+            // The presence flag and length keep null, empty and shifted values apart
+            if (value == null) {
+                hasher.putBoolean(false);
+            } else {
+                hasher.putBoolean(true);
+                hasher.putInt(value.length());
+                hasher.putUnencodedChars(value);
+            }
+        }
+        return hasher.hash().asLong();
+    }
+}
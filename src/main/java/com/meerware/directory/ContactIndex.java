@@ -0,0 +1,369 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Immutable in memory prefix index over the {@link Contact} entities of a {@link Directory}, used for typeahead.
+ * The name, email and {@link Address} display of each {@link Contact} are split into lower case tokens, which are
+ * kept as a sorted array next to the ascending positions of the {@link Contact} entities holding them. A prefix is
+ * found by a binary search followed by a scan of the tokens starting with it, so no {@link Contact} is looked at
+ * unless it matches. Changes build a new index, so readers never need to lock, and only tokenise the changed
+ * {@link Contact} entities.
+ */
+final class ContactIndex {
+
+    /**
+     * Splits text into tokens on anything which is not a letter or digit.
+     */
+    private static final Splitter TOKENS = Splitter
+            .on(CharMatcher.forPredicate(character -> !Character.isLetterOrDigit(character)))
+            .omitEmptyStrings();
+
+    /**
+     * {@link Contact} entities in {@link Contact} order, the positions held by {@link #postings} point into this.
+     */
+    private final Contact[] contacts;
+
+    /**
+     * Distinct tokens in ascending order.
+     */
+    private final String[] tokens;
+
+    /**
+     * Ascending positions of the {@link Contact} entities holding each token, in the same order as {@link #tokens}.
+     */
+    private final int[][] postings;
+
+    /**
+     * @param contacts is the {@link Contact} entities in {@link Contact} order.
+     * @param tokens is the distinct tokens in ascending order.
+     * @param postings is the positions of the {@link Contact} entities holding each token.
+     */
+    private ContactIndex(Contact[] contacts, String[] tokens, int[][] postings) {
+        this.contacts = contacts;
+        this.tokens = tokens;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds a {@link ContactIndex}.
+     *
+     * @param contacts is the {@link Collection} of {@link Contact} entities, duplicates are only indexed once.
+     * @return the new {@link ContactIndex}.
+     */
+    static ContactIndex of(Collection<Contact> contacts) {
+        final SortedSet<Contact> sorted = Sets.newTreeSet(contacts);
+        final Contact[] ordered = sorted.toArray(new Contact[0]);
+        final Map<String, Postings> tokens = Maps.newHashMap();
+        for (int position = 0; position < ordered.length; position++) {
+            index(tokens, ordered[position], position);
+        }
+
+        final String[] keys = tokens.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        final int[][] postings = new int[keys.length][];
+        for (int index = 0; index < keys.length; index++) {
+            postings[index] = tokens.get(keys[index]).toArray();
+        }
+        return new ContactIndex(ordered, keys, postings);
+    }
+
+    /**
+     * @param tokens is the {@link Map} of {@link Postings} by token being built.
+     * @param contact is the indexed {@link Contact}.
+     * @param position is the position of the {@link Contact}.
+     */
+    private static void index(Map<String, Postings> tokens, Contact contact, int position) {
+        index(tokens, contact.getName(), position);
+        index(tokens, contact.getEmail(), position);
+        if (contact.getAddress() != null) {
+            index(tokens, contact.getAddress().toDisplay(), position);
+        }
+    }
+
+    /**
+     * @param tokens is the {@link Map} of {@link Postings} by token being built.
+     * @param text is the indexed text, which may be {@code null}.
+     * @param position is the position of the {@link Contact} holding the text.
+     */
+    private static void index(Map<String, Postings> tokens, @Nullable String text, int position) {
+        if (text == null) {
+            return;
+        }
+        for (String token : TOKENS.split(lowerCase(text, Locale.ROOT))) {
+            tokens.computeIfAbsent(token, key -> new Postings()).add(position);
+        }
+    }
+
+    /**
+     * Builds a new {@link ContactIndex} with {@link Contact} entities added and removed. This one is left as is.
+     * Only the added {@link Contact} entities are split into tokens, their postings are merged into the existing
+     * ones, which are shifted to the new positions in a single pass.
+     *
+     * @param added is the {@link Collection} of added {@link Contact} entities.
+     * @param removed is the {@link Collection} of removed {@link Contact} entities.
+     * @return the new {@link ContactIndex}, this one when nothing changes.
+     */
+    ContactIndex change(Collection<Contact> added, Collection<Contact> removed) {
+        final BitSet gone = positions(removed);
+        final NavigableSet<Contact> fresh = absent(added, gone);
+        if (gone.isEmpty() && fresh.isEmpty()) {
+            return this;
+        }
+
+        // Both are in Contact order, so merging them gives the new order and where each old position moves to
+        final Contact[] ordered = new Contact[contacts.length - gone.cardinality() + fresh.size()];
+        final int[] moved = new int[contacts.length];
+        final Map<String, Postings> indexed = Maps.newHashMap();
+        int position = 0;
+        for (int old = 0; old < contacts.length; old++) {
+            while (!fresh.isEmpty() && fresh.first().compareTo(contacts[old]) < 0) {
+                index(indexed, fresh.first(), position);
+                ordered[position++] = fresh.pollFirst();
+            }
+            moved[old] = -1;
+            if (!gone.get(old)) {
+                moved[old] = position;
+                ordered[position++] = contacts[old];
+            }
+        }
+        for (Contact contact : fresh) {
+            index(indexed, contact, position);
+            ordered[position++] = contact;
+        }
+        return merge(ordered, moved, indexed);
+    }
+
+    /**
+     * @param removed is the {@link Collection} of removed {@link Contact} entities.
+     * @return the {@link BitSet} of the positions of the removed {@link Contact} entities which are indexed.
+     */
+    private BitSet positions(Collection<Contact> removed) {
+        final BitSet gone = new BitSet(contacts.length);
+        for (Contact contact : removed) {
+            final int position = Arrays.binarySearch(contacts, contact);
+            if (position >= 0) {
+                gone.set(position);
+            }
+        }
+        return gone;
+    }
+
+    /**
+     * @param added is the {@link Collection} of added {@link Contact} entities.
+     * @param gone is the {@link BitSet} of the removed positions, those added back are kept.
+     * @return the added {@link Contact} entities which are not indexed, in {@link Contact} order.
+     */
+    private NavigableSet<Contact> absent(Collection<Contact> added, BitSet gone) {
+        final NavigableSet<Contact> fresh = Sets.newTreeSet();
+        for (Contact contact : added) {
+            final int position = Arrays.binarySearch(contacts, contact);
+            if (position >= 0) {
+                gone.clear(position);
+            } else {
+                fresh.add(contact);
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * @param ordered is the new {@link Contact} entities in {@link Contact} order.
+     * @param moved is the new position of each old position, {@code -1} when removed.
+     * @param indexed is the {@link Postings} of the added {@link Contact} entities by token, at their new positions.
+     * @return the new {@link ContactIndex}, holding the shifted postings merged with the added ones. Tokens no
+     *         longer held by any {@link Contact} are dropped.
+     */
+    private ContactIndex merge(Contact[] ordered, int[] moved, Map<String, Postings> indexed) {
+        final String[] fresh = indexed.keySet().toArray(new String[0]);
+        Arrays.sort(fresh);
+        final List<String> keys = Lists.newArrayListWithExpectedSize(tokens.length + fresh.length);
+        final List<int[]> lists = Lists.newArrayListWithExpectedSize(tokens.length + fresh.length);
+        int next = 0;
+        for (int index = 0; index < tokens.length; index++) {
+            while (next < fresh.length && fresh[next].compareTo(tokens[index]) < 0) {
+                keys.add(fresh[next]);
+                lists.add(indexed.get(fresh[next]).toArray());
+                next++;
+            }
+            int[] positions = move(postings[index], moved);
+            if (next < fresh.length && fresh[next].equals(tokens[index])) {
+                positions = union(positions, indexed.get(fresh[next]).toArray());
+                next++;
+            }
+            if (positions.length > 0) {
+                keys.add(tokens[index]);
+                lists.add(positions);
+            }
+        }
+        for (; next < fresh.length; next++) {
+            keys.add(fresh[next]);
+            lists.add(indexed.get(fresh[next]).toArray());
+        }
+        return new ContactIndex(ordered, keys.toArray(new String[0]), lists.toArray(new int[0][]));
+    }
+
+    /**
+     * @param positions is the ascending old positions.
+     * @param moved is the new position of each old position, {@code -1} when removed.
+     * @return the ascending new positions, without the removed ones.
+     */
+    private static int[] move(int[] positions, int[] moved) {
+        final int[] result = new int[positions.length];
+        int size = 0;
+        for (int position : positions) {
+            if (moved[position] >= 0) {
+                result[size++] = moved[position];
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @param left is ascending positions.
+     * @param right is other ascending positions, none of which are in the left.
+     * @return the ascending positions of both.
+     */
+    private static int[] union(int[] left, int[] right) {
+        final int[] result = new int[left.length + right.length];
+        int first = 0;
+        int second = 0;
+        for (int index = 0; index < result.length; index++) {
+            if (second == right.length || first < left.length && left[first] < right[second]) {
+                result[index] = left[first++];
+            } else {
+                result[index] = right[second++];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the {@link Contact} entities holding a token starting with each of the tokens of a query, ignoring case.
+     * So {@code "h p love"} finds {@code H P Lovecraft}.
+     *
+     * @param query is the query.
+     * @param size is the maximum number of {@link Contact} entities found.
+     * @return the {@link List} of found {@link Contact} entities in {@link Contact} order, empty when the query has
+     *         no tokens.
+     */
+    List<Contact> find(String query, int size) {
+        BitSet matches = null;
+        for (String prefix : TOKENS.split(lowerCase(query, Locale.ROOT))) {
+            final BitSet match = match(prefix);
+            if (matches == null) {
+                matches = match;
+            } else {
+                matches.and(match);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        if (matches == null) {
+            return ImmutableList.of();
+        }
+
+        final ImmutableList.Builder<Contact> found = ImmutableList.builder();
+        int count = 0;
+        for (int position = matches.nextSetBit(0); position >= 0 && count < size; position = matches.nextSetBit(position + 1)) {
+            found.add(contacts[position]);
+            count++;
+        }
+        return found.build();
+    }
+
+    /**
+     * @param prefix is the lower case prefix of a token.
+     * @return the {@link BitSet} of the positions of the {@link Contact} entities holding a token starting with it.
+     */
+    private BitSet match(String prefix) {
+        final BitSet match = new BitSet(contacts.length);
+        int index = Arrays.binarySearch(tokens, prefix);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        for (; index < tokens.length && tokens[index].startsWith(prefix); index++) {
+            for (int position : postings[index]) {
+                match.set(position);
+            }
+        }
+        return match;
+    }
+
+    /**
+     * @return the number of indexed {@link Contact} entities.
+     */
+    int size() {
+        return contacts.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ContactIndex[contacts=" + contacts.length + ", tokens=" + tokens.length + "]";
+    }
+
+    /**
+     * Growable array of ascending positions of {@link Contact} entities holding a token.
+     */
+    private static final class Postings {
+
+        /**
+         * Initial capacity, most tokens are held by few {@link Contact} entities.
+         */
+        private static final int CAPACITY = 2;
+
+        /**
+         * Positions, only the first {@link #size} are used.
+         */
+        private int[] positions = new int[CAPACITY];
+
+        /**
+         * Number of positions.
+         */
+        private int size;
+
+        /**
+         * Adds a position, ignoring it when it is the same as the last one, as positions are added in order.
+         *
+         * @param position is the position.
+         */
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * @return the positions as an array of the exact size.
+         */
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
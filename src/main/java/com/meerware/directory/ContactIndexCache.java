@@ -0,0 +1,120 @@
+package com.meerware.directory;
+
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Holds the {@link ContactIndex} of each {@link Directory} used for typeahead. An index is loaded the first time a
+ * {@link Directory} is looked up, then kept current by the writes made through the {@link DirectoryService}. Changes
+ * are applied once their transaction commits, so a rolled back write is never seen. The number of indexes is bounded,
+ * the least recently used one being evicted first.
+ */
+@Component
+class ContactIndexCache {
+
+    /**
+     * Default number of {@link Directory} entities with a cached {@link ContactIndex}.
+     */
+    private static final int DEFAULT_DIRECTORIES = 1000;
+
+    /**
+     * {@link ContactIndex} by {@link Directory} identifier.
+     */
+    private final Cache<UUID, ContactIndex> indexes;
+
+    /**
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    ContactIndexCache(Environment environment) {
+        this.indexes = CacheBuilder.newBuilder()
+                .maximumSize(environment.getProperty("directory.typeahead.directories", Integer.class, DEFAULT_DIRECTORIES))
+                .build();
+    }
+
+    /**
+     * Gets the {@link ContactIndex} of a {@link Directory}, loading it when it is not cached. Concurrent lookups of the
+     * same {@link Directory} wait for a single load, and changes made meanwhile are applied after it.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     * @param loader is the {@link Supplier} building the {@link ContactIndex} from storage.
+     * @return the {@link ContactIndex}.
+     */
+    ContactIndex get(UUID id, Supplier<ContactIndex> loader) {
+        try {
+            return indexes.get(id, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException exception) {
+            // The loader only throws unchecked exceptions, such as a DirectoryException, which are given back as is
+            Throwables.throwIfUnchecked(exception.getCause());
+            throw new UncheckedExecutionException(exception.getCause());
+        }
+    }
+
+    /**
+     * Replaces the {@link ContactIndex} of a {@link Directory} once the transaction commits.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     * @param contacts is the {@link Collection} of all the {@link Contact} entities of the {@link Directory}.
+     */
+    void put(UUID id, Collection<Contact> contacts) {
+        afterCommit(() -> indexes.put(id, ContactIndex.of(contacts)));
+    }
+
+    /**
+     * Adds and removes {@link Contact} entities from the {@link ContactIndex} of a {@link Directory}, if it is cached,
+     * once the transaction commits.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     * @param added is the {@link Collection} of added {@link Contact} entities.
+     * @param removed is the {@link Collection} of removed {@link Contact} entities.
+     */
+    void change(UUID id, Collection<Contact> added, Collection<Contact> removed) {
+        afterCommit(() -> indexes.asMap().computeIfPresent(id, (key, index) -> index.change(added, removed)));
+    }
+
+    /**
+     * Drops the {@link ContactIndex} of a {@link Directory} once the transaction commits, it is loaded again
+     * on the next lookup.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     */
+    void invalidate(UUID id) {
+        afterCommit(() -> indexes.invalidate(id));
+    }
+
+    /**
+     * @param action is the {@link Runnable} run once the current transaction commits, or straight away when there
+     *        is no transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.meerware.directory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keyset (seek) key of a {@link Contact} row in the {@code directory_contact} table. This holds the
+ * stored column values of the last {@link Contact} on a page, in the order the page is sorted, and is
+ * handed to clients as an opaque cursor.
+ *
+ * <p>The natural ordering matches the database sort order of the {@code directory_contact} rows: column by
+ * column, with {@code null} first.</p>
+ *
+ * <p>Instances are immutable.</p>
+ */
+final class ContactKey implements Comparable<ContactKey> {
+
+    /**
+     * Number of columns making up the key.
+     */
+    static final int SIZE = 8;
+
+    /**
+     * Encoder for the cursor form, safe to be used as a query parameter.
+     */
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Decoder for the cursor form.
+     */
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Column values, entries can be {@code null}.
+     */
+    private final List<String> values;
+
+    /**
+     * @param values is the array of column values.
+     */
+    private ContactKey(String... values) {
+        this.values = Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * @param values are the column values in key order. There must be {@link #SIZE} values.
+     * @return the new {@link ContactKey}.
+     */
+    static ContactKey of(String... values) {
+        if (values.length != SIZE) {
+            throw new IllegalArgumentException("Expected " + SIZE + " key values but was " + values.length);
+        }
+        return new ContactKey(values.clone());
+    }
+
+    /**
+     * Reads the key from the current row of a {@link ResultSet}.
+     *
+     * @param result is the {@link ResultSet} positioned on a row.
+     * @param offset is the {@code 1} based index of the first key column.
+     * @return the {@link ContactKey} of the row.
+     * @throws SQLException if the columns cannot be read.
+     */
+    static ContactKey read(ResultSet result, int offset) throws SQLException {
+        final String[] values = new String[SIZE];
+        for (int index = 0; index < SIZE; index++) {
+            values[index] = result.getString(offset + index);
+        }
+        return new ContactKey(values);
+    }
+
+    /**
+     * Decodes a cursor previously created by {@link #encode()}.
+     *
+     * @param cursor is the cursor.
+     * @return the decoded {@link ContactKey}.
+     * @throws DirectoryCursorException if the cursor is not valid.
+     */
+    static ContactKey decode(String cursor) throws DirectoryCursorException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(DECODER.decode(cursor)))) {
+            if (input.readInt() != SIZE) {
+                throw new DirectoryCursorException(cursor);
+            }
+            final String[] values = new String[SIZE];
+            for (int index = 0; index < SIZE; index++) {
+                if (input.readBoolean()) {
+                    values[index] = input.readUTF();
+                }
+            }
+            if (input.read() != -1) {
+                throw new DirectoryCursorException(cursor);
+            }
+            return new ContactKey(values);
+        } catch (IOException | IllegalArgumentException exception) {
+            throw new DirectoryCursorException(cursor);
+        }
+    }
+
+    /**
+     * @return the opaque cursor form of the key.
+     */
+    String encode() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(SIZE);
+            for (String value : values) {
+                output.writeBoolean(value != null);
+                if (value != null) {
+                    output.writeUTF(value);
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return ENCODER.encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @param index is the column index.
+     * @return the column value, this can be {@code null}.
+     */
+    @Nullable
+    String get(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(ContactKey key) {
+        for (int index = 0; index < SIZE; index++) {
+            final String left = values.get(index);
+            final String right = key.values.get(index);
+            if (left == null || right == null) {
+                if (left != right) {
+                    return Boolean.compare(left != null, right != null);
+                }
+            } else {
+                final int result = left.compareTo(right);
+                if (result != 0) {
+                    return result;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (object == null || object.getClass() != this.getClass()) {
+            return false;
+        }
+        return values.equals(((ContactKey) object).values);
+    }
+}
@@ -0,0 +1,100 @@
+package com.meerware.directory;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * K-way merge of sorted sources applying a {@link SetOperation} in a single pass. Only the head of each
+ * source is held at any time, so the cost is {@code O(n log k)} for {@code n} values across {@code k}
+ * sources and the memory is {@code O(k)}.
+ */
+final class ContactMerge {
+
+    /**
+     * Utility class.
+     */
+    private ContactMerge() {
+    }
+
+    /**
+     * Merges the sources. Each source must be sorted by the given {@link Comparator}; values comparing equal
+     * are treated as the same value, including repeats within a single source.
+     *
+     * @param <T> is the value type.
+     * @param sources is the {@link List} of sorted {@link Iterator} sources, by position.
+     * @param order is the {@link Comparator} the sources are sorted by.
+     * @param operation is the {@link SetOperation} to apply.
+     * @param action is the {@link Consumer} of each value in the result, in order.
+     */
+    static <T> void merge(
+            List<? extends Iterator<T>> sources,
+            Comparator<? super T> order,
+            SetOperation operation,
+            Consumer<? super T> action) {
+        final PriorityQueue<Source<T>> queue = new PriorityQueue<>(Math.max(1, sources.size()), (left, right) -> {
+            final int result = order.compare(left.iterator.peek(), right.iterator.peek());
+            if (result != 0) {
+                return result;
+            }
+            return Integer.compare(left.index, right.index);
+        });
+        for (int index = 0; index < sources.size(); index++) {
+            final Iterator<T> iterator = sources.get(index);
+            if (iterator.hasNext()) {
+                queue.add(new Source<>(index, Iterators.peekingIterator(iterator)));
+            }
+        }
+
+        final BitSet present = new BitSet(sources.size());
+        while (!queue.isEmpty()) {
+            final T current = queue.peek().iterator.peek();
+            present.clear();
+            // Take the value from every source holding it
+            while (!queue.isEmpty() && order.compare(queue.peek().iterator.peek(), current) == 0) {
+                final Source<T> source = queue.poll();
+                present.set(source.index);
+                source.iterator.next();
+                if (source.iterator.hasNext()) {
+                    queue.add(source);
+                }
+            }
+            if (operation.includes(present, sources.size())) {
+                action.accept(current);
+            }
+        }
+    }
+
+    /**
+     * Source in the merge.
+     *
+     * @param <T> is the value type.
+     */
+    private static final class Source<T> {
+
+        /**
+         * Position of the source.
+         */
+        private final int index;
+
+        /**
+         * {@link PeekingIterator} over the source values.
+         */
+        private final PeekingIterator<T> iterator;
+
+        /**
+         * @param index is the position of the source.
+         * @param iterator is the {@link PeekingIterator} over the source values.
+         */
+        Source(int index, PeekingIterator<T> iterator) {
+            this.index = index;
+            this.iterator = iterator;
+        }
+    }
+}
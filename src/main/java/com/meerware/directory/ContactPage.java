@@ -0,0 +1,74 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A single page of {@link Contact} entities from a {@link Directory}, with the cursor
+ * used to request the page after it.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonInclude(NON_EMPTY)
+final class ContactPage {
+
+    /**
+     * {@link Contact} entities on the page, in {@link Contact} order.
+     */
+    private final List<Contact> contacts;
+
+    /**
+     * {@link ContactKey} of the last {@link Contact}, {@code null} if this is the last page.
+     */
+    @Nullable
+    private final ContactKey next;
+
+    /**
+     * @param contacts is the {@link Iterable} of {@link Contact} entities on the page.
+     * @param next is the {@link ContactKey} to continue from, {@code null} if there are no more pages.
+     */
+    ContactPage(Iterable<Contact> contacts, @Nullable ContactKey next) {
+        this.contacts = ImmutableList.copyOf(contacts);
+        this.next = next;
+    }
+
+    /**
+     * @return an immutable {@link List} of the {@link Contact} entities on the page.
+     */
+    @JsonGetter
+    List<Contact> getContacts() {
+        return contacts;
+    }
+
+    /**
+     * @return the cursor of the next page or {@code null} if this is the last page.
+     */
+    @Nullable
+    @JsonGetter
+    String getNext() {
+        if (next == null) {
+            return null;
+        }
+        return next.encode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("contacts=");
+        builder.append(contacts.size());
+        builder.append(", last=");
+        builder.append(next == null);
+        return builder.toString();
+    }
+}
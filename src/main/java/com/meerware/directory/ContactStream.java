@@ -0,0 +1,17 @@
+package com.meerware.directory;
+
+import java.util.function.Consumer;
+
+/**
+ * Deferred source of {@link Contact} entities which are passed on one at a time rather than
+ * collected, so large results can be written out without being held in memory. The underlying
+ * query runs each time {@link #forEach(Consumer)} is called.
+ */
+@FunctionalInterface
+interface ContactStream {
+
+    /**
+     * @param action is the {@link Consumer} of each {@link Contact}, in {@link Contact} order.
+     */
+    void forEach(Consumer<? super Contact> action);
+}
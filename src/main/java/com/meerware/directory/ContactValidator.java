@@ -0,0 +1,213 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MessageCodesResolver;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Validates the {@link Contact} entities of a {@link Directory}. The {@link Directory} itself does not cascade
+ * validation to its {@link Contact} entities, as checking phone numbers and emails one after the other on the request
+ * thread takes seconds for large uploads. Instead the {@link Contact} entities are split into chunks which are
+ * validated in parallel on a bounded {@link ForkJoinPool}, then the violations are merged back in {@link Contact}
+ * order as {@link FieldError} entries such as {@code contacts[12].phone}, where the position is that of the
+ * {@link Contact} as it was received rather than in name order.
+ *
+ * <p>Small {@link Directory} entities, of a single chunk, are validated on the calling thread.</p>
+ */
+@Component
+class ContactValidator {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(ContactValidator.class);
+
+    /**
+     * Default number of {@link Contact} entities validated by each task.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Name of the validated object, as used for the {@link BindingResult}.
+     */
+    private static final String OBJECT_NAME = "directory";
+
+    /**
+     * {@link MessageCodesResolver} giving the message codes of each {@link FieldError}. This is stateless.
+     */
+    private static final MessageCodesResolver CODES = new DefaultMessageCodesResolver();
+
+    /**
+     * Orders the violations of a single {@link Contact} by property, so the errors are the same on every run.
+     */
+    private static final Comparator<ConstraintViolation<Contact>> BY_PATH =
+            Comparator.comparing(violation -> violation.getPropertyPath().toString());
+
+    /**
+     * Underlying {@link Validator}.
+     */
+    private final Validator validator;
+
+    /**
+     * Whether chunks are validated in parallel, otherwise they are all validated on the calling thread.
+     */
+    private final boolean parallel;
+
+    /**
+     * Number of {@link Contact} entities validated by each task.
+     */
+    private final int chunkSize;
+
+    /**
+     * Bounded {@link ForkJoinPool} running the tasks, separate from the common pool so uploads do not starve
+     * parallel streams.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * @param validator is the {@link Validator}.
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    ContactValidator(Validator validator, Environment environment) {
+        this.validator = validator;
+        this.parallel = environment.getProperty("directory.validation.parallel", Boolean.class, true);
+        this.chunkSize = Math.max(1, environment.getProperty(
+                "directory.validation.chunk-size", Integer.class, DEFAULT_CHUNK_SIZE));
+        this.pool = new ForkJoinPool(environment.getProperty(
+                "directory.validation.parallelism", Integer.class, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Validates the {@link Contact} entities of a {@link Directory}.
+     *
+     * @param directory is the {@link Directory}.
+     * @throws DirectoryValidationException if any {@link Contact} is not valid, holding a {@link BindingResult} with
+     *         the violations in {@link Contact} order.
+     */
+    void validate(Directory directory) throws DirectoryValidationException {
+        // Positions are those of the request, not of the sorted contacts
+        final List<Contact> contacts = directory.getReceivedContacts();
+        LOG.info("Attempting to validate contacts: size={}", contacts.size());
+        final List<FieldError> errors;
+        if (!parallel || contacts.size() <= chunkSize) {
+            errors = validate(contacts, 0, contacts.size());
+        } else {
+            errors = validateInParallel(contacts);
+        }
+        if (!errors.isEmpty()) {
+            LOG.info("Contacts not valid: errors={}", errors.size());
+            final BindingResult result = new BeanPropertyBindingResult(directory, OBJECT_NAME);
+            errors.forEach(result::addError);
+            throw new DirectoryValidationException(result);
+        }
+        LOG.info("Successfully validated contacts: size={}", contacts.size());
+    }
+
+    /**
+     * @param contacts is the {@link List} of {@link Contact} entities.
+     * @return the {@link List} of {@link FieldError} entries of all the chunks, in {@link Contact} order.
+     */
+    private List<FieldError> validateInParallel(List<Contact> contacts) {
+        final List<Callable<List<FieldError>>> tasks = newArrayList();
+        for (int from = 0; from < contacts.size(); from += chunkSize) {
+            final int start = from;
+            final int end = Math.min(contacts.size(), from + chunkSize);
+            tasks.add(() -> validate(contacts, start, end));
+        }
+        final List<FieldError> errors = newArrayList();
+        for (Future<List<FieldError>> future : pool.invokeAll(tasks)) {
+            try {
+                errors.addAll(future.get());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(exception);
+            } catch (ExecutionException exception) {
+                Throwables.throwIfUnchecked(exception.getCause());
+                throw new IllegalStateException(exception.getCause());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * @param contacts is the {@link List} of {@link Contact} entities.
+     * @param from is the position of the first validated {@link Contact}, inclusive.
+     * @param to is the position of the last validated {@link Contact}, exclusive.
+     * @return the {@link List} of {@link FieldError} entries, in {@link Contact} order then by property.
+     */
+    private List<FieldError> validate(List<Contact> contacts, int from, int to) {
+        final List<FieldError> errors = newArrayList();
+        for (int index = from; index < to; index++) {
+            final Set<ConstraintViolation<Contact>> violations = validator.validate(contacts.get(index));
+            final int position = index;
+            violations.stream()
+                    .sorted(BY_PATH)
+                    .map(violation -> error(position, violation))
+                    .forEach(errors::add);
+        }
+        return errors;
+    }
+
+    /**
+     * @param index is the position of the {@link Contact}.
+     * @param violation is the {@link ConstraintViolation}.
+     * @return the {@link FieldError}, with the message codes of the constraint so messages can be overridden.
+     */
+    private static FieldError error(int index, ConstraintViolation<Contact> violation) {
+        final String path = violation.getPropertyPath().toString();
+        final StringBuilder field = new StringBuilder("contacts[").append(index).append(']');
+        if (!path.isEmpty()) {
+            field.append('.').append(path);
+        }
+        return error(field.toString(), violation);
+    }
+
+    /**
+     * @param field is the path of the field, from the {@link Directory}.
+     * @param violation is the {@link ConstraintViolation}.
+     * @return the {@link FieldError}, with the message codes of the constraint so messages can be overridden.
+     */
+    private static FieldError error(String field, ConstraintViolation<Contact> violation) {
+        final String constraint = violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
+        return new FieldError(
+                OBJECT_NAME,
+                field,
+                violation.getInvalidValue(),
+                false,
+                CODES.resolveMessageCodes(constraint, OBJECT_NAME, field, null),
+                null,
+                violation.getMessage());
+    }
+
+    /**
+     * Stops the {@link ForkJoinPool} on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
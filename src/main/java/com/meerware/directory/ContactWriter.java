@@ -0,0 +1,187 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.containsAny;
+import static org.apache.commons.lang3.StringUtils.replace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link Component} which writes a {@link ContactStream} as a {@code JSON} document, one
+ * {@link Contact} at a time. The document has the same shape as a {@link Directory} wrapped by
+ * {@link com.meerware.web.DocumentBodyAdvice}, {@code {"data":{"contacts":[...]}}}. Exports are
+ * written as newline delimited {@code JSON} or {@code CSV} instead.
+ */
+@Component
+class ContactWriter {
+
+    /**
+     * Newline delimited {@code JSON} media type, one {@link Contact} per line.
+     */
+    static final String NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * {@code CSV} media type, one {@link Contact} per row after a header row.
+     */
+    static final String CSV_VALUE = "text/csv";
+
+    /**
+     * Data component.
+     */
+    private static final String DATA = "data";
+
+    /**
+     * Contacts component.
+     */
+    private static final String CONTACTS = "contacts";
+
+    /**
+     * Header row of the {@code CSV} output, in the order of the stored column values.
+     */
+    private static final String CSV_HEADER = "name,email,phone,lines,locality,state,postcode,country";
+
+    /**
+     * Characters which need a {@code CSV} value to be quoted.
+     */
+    private static final String CSV_SPECIAL = ",\"\r\n";
+
+    /**
+     * JSON {@link ObjectMapper}.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * @param mapper is the {@link ObjectMapper}.
+     */
+    @Autowired
+    ContactWriter(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param contacts is the {@link ContactStream} to write.
+     * @param output is the {@link OutputStream} to write to. This is not closed.
+     * @throws IOException if writing fails.
+     */
+    void write(ContactStream contacts, OutputStream output) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeObjectFieldStart(DATA);
+            generator.writeArrayFieldStart(CONTACTS);
+            forEach(contacts, generator::writeObject);
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes a {@link ContactStream} as newline delimited {@code JSON}, one {@link Contact} per line.
+     *
+     * @param contacts is the {@link ContactStream} to write.
+     * @param output is the {@link OutputStream} to write to. This is not closed.
+     * @throws IOException if writing fails.
+     */
+    void writeLines(ContactStream contacts, OutputStream output) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            forEach(contacts, contact -> {
+                generator.writeObject(contact);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    /**
+     * Writes a {@link ContactStream} as {@code CSV} with a header row. The values are written as stored, so
+     * the address lines are a single delimited value, but with the phone as given rather than its canonical form.
+     *
+     * @param contacts is the {@link ContactStream} to write.
+     * @param output is the {@link OutputStream} to write to. This is not closed.
+     * @throws IOException if writing fails.
+     */
+    void writeCsv(ContactStream contacts, OutputStream output) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        forEach(contacts, contact -> {
+            final String[] values = DirectoryContactRepository.exported(contact);
+            for (int index = 0; index < values.length; index++) {
+                if (index > 0) {
+                    writer.write(',');
+                }
+                writeCsv(values[index], writer);
+            }
+            writer.write("\r\n");
+        });
+        writer.flush();
+    }
+
+    /**
+     * Writes a single {@code CSV} value, quoted only when needed.
+     *
+     * @param value is the value, {@code null} is written as empty.
+     * @param writer is the {@link Writer} to write to.
+     * @throws IOException if writing fails.
+     */
+    private static void writeCsv(@Nullable String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (containsAny(value, CSV_SPECIAL)) {
+            writer.write('"');
+            writer.write(replace(value, "\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    /**
+     * Passes each {@link Contact} of a {@link ContactStream} to an action which can fail writing.
+     *
+     * @param contacts is the {@link ContactStream}.
+     * @param action is the {@link ContactAction} writing each {@link Contact}.
+     * @throws IOException if writing fails.
+     */
+    private static void forEach(ContactStream contacts, ContactAction action) throws IOException {
+        try {
+            contacts.forEach(contact -> {
+                try {
+                    action.accept(contact);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Action writing a single {@link Contact}.
+     */
+    @FunctionalInterface
+    private interface ContactAction {
+
+        /**
+         * @param contact is the {@link Contact} to write.
+         * @throws IOException if writing fails.
+         */
+        void accept(Contact contact) throws IOException;
+    }
+}
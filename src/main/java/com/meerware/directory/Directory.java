@@ -2,19 +2,24 @@ package com.meerware.directory;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 import static com.google.common.collect.Sets.newTreeSet;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 import static org.flywaydb.core.internal.util.StringUtils.wrap;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.meerware.data.AbstractEntity;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -27,22 +32,46 @@ import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.OrderBy;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CollectionId;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.Type;
+
 /**
  * A {@link Directory} of {@link Contact} entities.
  */
 @Entity
 @Table(name = "directory")
+@Cache(usage = READ_WRITE, region = Directory.CACHE_REGION)
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(NON_EMPTY)
 class Directory extends AbstractEntity {
 
+    /**
+     * Name of the second level cache region holding {@link Directory} entities.
+     */
+    static final String CACHE_REGION = "directory";
+
+    /**
+     * Name of the second level cache region holding the {@link Contact} collection of {@link Directory} entities.
+     */
+    static final String CONTACTS_CACHE_REGION = "directory.contacts";
+
     /**
      * Serial version UID.
      */
     private static final long serialVersionUID = -4042833720838924902L;
 
+    /**
+     * Name of the generator of {@link Contact} row identifiers.
+     */
+    private static final String CONTACT_ID_GENERATOR = "directory_contact_id";
+
     /**
      * Maximum length of the name.
      */
@@ -57,15 +86,49 @@ class Directory extends AbstractEntity {
     private String name;
 
     /**
-     * {@link Set} holding the {@link Contact}.
+     * {@link Collection} holding the {@link Contact}. This is a {@link Set} until saved, after which each row
+     * has its own surrogate key, so adding or removing a single {@link Contact} only touches its own row.
      */
     @ElementCollection
     @JoinTable(
                 name = "directory_contact",
                 joinColumns = @JoinColumn(name = "directory_id")
             )
+    @CollectionId(
+                columns = @Column(name = "id"),
+                type = @Type(type = "long"),
+                generator = CONTACT_ID_GENERATOR
+            )
+    @GenericGenerator(
+                name = CONTACT_ID_GENERATOR,
+                strategy = "enhanced-sequence",
+                parameters = {
+                    @Parameter(name = "sequence_name", value = "directory_contact_sequence"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+                }
+            )
     @OrderBy("name ASC")
-    private Set<Contact> contacts = newTreeSet();
+    @Cache(usage = READ_WRITE, region = CONTACTS_CACHE_REGION)
+    private Collection<Contact> contacts = newTreeSet();
+
+    /**
+     * Version, bumped by every write of the {@link Directory} or of its {@link Contact} rows, so it makes the entity
+     * tag rather than the modified timestamp, which two writes in the same millisecond share.
+     */
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * {@link List} of the {@link Contact} entities in the order they were given, before being sorted and without
+     * duplicates removed, so validation errors point at the position in the request. This is {@code null} once
+     * loaded.
+     */
+    @Nullable
+    @Transient
+    private transient List<Contact> received;
 
     /**
      * Default constructor.
@@ -104,7 +167,8 @@ class Directory extends AbstractEntity {
      */
     Directory(UUID id, @Nullable String name, Iterable<Contact> contacts) {
         super(id);
-        Iterables.addAll(this.contacts, contacts);
+        this.received = Collections.unmodifiableList(Lists.newArrayList(contacts));
+        this.contacts.addAll(received);
         this.name = name;
     }
 
@@ -118,7 +182,7 @@ class Directory extends AbstractEntity {
      *         {@link Contact} entities.
      */
     Directory union(Directory directory) {
-        return new Directory(Sets.union(contacts, directory.contacts));
+        return new Directory(fingerprints().union(directory.fingerprints()));
     }
 
     /**
@@ -129,7 +193,27 @@ class Directory extends AbstractEntity {
      * @return a new {@link Directory} with only the intersected {@link Contact} entities.
      */
     Directory intersection(Directory directory) {
-        return new Directory(Sets.intersection(contacts, directory.contacts));
+        return new Directory(fingerprints().intersection(directory.fingerprints()));
+    }
+
+    /**
+     * Replaces the name and {@link Contact} entities with those of another {@link Directory}. Only the
+     * {@link Contact} entities which differ are removed or added, so once saved only their rows are written, along
+     * with the modified timestamp.
+     *
+     * @param directory is the {@link Directory} holding the new values.
+     * @return {@code true} if any {@link Contact} was removed or added.
+     */
+    boolean replace(Directory directory) {
+        name = directory.name;
+        final Set<Contact> replacement = directory.set();
+        final Set<Contact> current = set();
+        final boolean removed = contacts.removeIf(contact -> !replacement.contains(contact));
+        final boolean added = Iterables.addAll(contacts, Sets.difference(replacement, current));
+        if (removed || added) {
+            markModified();
+        }
+        return removed || added;
     }
 
     /**
@@ -142,11 +226,39 @@ class Directory extends AbstractEntity {
     }
 
     /**
-     * @return an immutable {@link List} of {@link Contact} entities attached.
+     * @return an immutable {@link List} of {@link Contact} entities attached, without duplicates.
      */
     @JsonGetter
     List<Contact> getContacts() {
-        return ImmutableList.copyOf(contacts);
+        return ImmutableSet.copyOf(contacts).asList();
+    }
+
+    /**
+     * @return an immutable {@link List} of {@link Contact} entities in the order they were given, including duplicates,
+     *         or as {@link #getContacts()} once loaded.
+     */
+    @JsonIgnore
+    List<Contact> getReceivedContacts() {
+        if (received == null) {
+            return getContacts();
+        }
+        return received;
+    }
+
+    /**
+     * @return the {@link Contact} entities as a {@link ContactFingerprintSet}, so set algebra compares fingerprints
+     *         rather than ordering {@link Contact} entities. Rows inserted directly with the same values count once.
+     */
+    private ContactFingerprintSet fingerprints() {
+        return ContactFingerprintSet.of(contacts);
+    }
+
+    /**
+     * @return the {@link Contact} entities as a sorted {@link Set}, rows inserted directly with the same values
+     *         count once.
+     */
+    private Set<Contact> set() {
+        return newTreeSet(contacts);
     }
 
     /**
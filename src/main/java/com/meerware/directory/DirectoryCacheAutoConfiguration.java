@@ -0,0 +1,130 @@
+package com.meerware.directory;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.meerware.data.Actor;
+
+/**
+ * Auto {@link Configuration} of the {@code Hibernate} second level cache for {@link Directory} entities, their
+ * {@link Contact} collections and {@link Actor} entities. This is only used when {@code directory.cache.enabled}
+ * is {@code true}.
+ *
+ * <p>Each region is an in process cache bounded by a number of entries and a time to live. Cache statistics are
+ * turned on with the cache, so region hits and misses are available as {@code hibernate.second.level.cache.requests}
+ * on the metrics end point.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "directory.cache.enabled", havingValue = "true")
+class DirectoryCacheAutoConfiguration {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryCacheAutoConfiguration.class);
+
+    /**
+     * Default maximum number of {@link Directory} and {@link Actor} entities cached.
+     */
+    private static final long DEFAULT_SIZE = 1000;
+
+    /**
+     * Default maximum number of {@link Contact} collections cached. These can be large, so far less are kept.
+     */
+    private static final long DEFAULT_CONTACTS_SIZE = 100;
+
+    /**
+     * Default time to live of cached entries.
+     */
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    /**
+     * {@link Environment} holding the settings.
+     */
+    private final Environment environment;
+
+    /**
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    DirectoryCacheAutoConfiguration(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Creates a {@link CacheManager} with a cache for each region. The {@link CacheManager} is only used by
+     * {@code Hibernate} and is given a unique {@link URI}, so each application context has its own.
+     *
+     * @return the {@link CacheManager} of the second level cache.
+     */
+    @Bean(destroyMethod = "close")
+    CacheManager directoryCacheManager() {
+        final long size = environment.getProperty("directory.cache.size", Long.class, DEFAULT_SIZE);
+        final long contacts = environment.getProperty("directory.cache.contacts-size", Long.class, DEFAULT_CONTACTS_SIZE);
+        final Duration ttl = environment.getProperty("directory.cache.time-to-live", Duration.class, DEFAULT_TIME_TO_LIVE);
+        LOG.info("Attempting to create second level cache, size={}, contacts size={}, time to live={}", size, contacts, ttl);
+
+        final EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        final CacheManager manager = provider.getCacheManager(
+                URI.create("urn:meerware:directory-cache:" + UUID.randomUUID()),
+                ConfigurationBuilder.newConfigurationBuilder()
+                        .addCache(Directory.CACHE_REGION, region(size, ttl))
+                        .addCache(Directory.CONTACTS_CACHE_REGION, region(contacts, ttl))
+                        .addCache(Actor.CACHE_REGION, region(size, ttl))
+                        .build());
+
+        LOG.info("Successfully created second level cache");
+        return manager;
+    }
+
+    /**
+     * @param manager is the {@link CacheManager} holding the regions.
+     * @return the {@link HibernatePropertiesCustomizer} turning on the second level cache and its statistics.
+     */
+    @Bean
+    HibernatePropertiesCustomizer directoryCacheCustomizer(CacheManager manager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, Boolean.TRUE.toString());
+            properties.put(AvailableSettings.USE_QUERY_CACHE, Boolean.FALSE.toString());
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, Boolean.TRUE.toString());
+            properties.put(ConfigSettings.CACHE_MANAGER, manager);
+            // Every region is created above with its bounds, an unknown one is a mistake
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * @param size is the maximum number of entries.
+     * @param ttl is the time to live of an entry.
+     * @return the {@link CacheConfiguration} of a region.
+     */
+    private static CacheConfiguration<Object, Object> region(long size, Duration ttl) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(size))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.meerware.directory;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration filling in the canonical phone of the {@link Contact} entities stored before it was added. The
+ * canonical form is worked out by {@code libphonenumber}, so this cannot be done in {@code SQL}. Rows are read
+ * in blocks by identifier, so only a block is held in memory at a time.
+ *
+ * <p>This is picked up by {@code Flyway} as a bean. It implements {@link JavaMigration} directly as the class
+ * name does not follow the {@code Flyway} naming convention.</p>
+ */
+@Component
+class DirectoryContactPhoneMigration implements JavaMigration {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryContactPhoneMigration.class);
+
+    /**
+     * Number of rows read and updated at a time.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Selects the next block of rows without a canonical phone.
+     */
+    private static final String SELECT = "select id, phone from directory_contact"
+            + " where id > ? and phone is not null and canonical_phone is null order by id limit " + BATCH_SIZE;
+
+    /**
+     * Updates the canonical phone of a row.
+     */
+    private static final String UPDATE = "update directory_contact set canonical_phone = ? where id = ?";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("1.6");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getDescription() {
+        return "directory contact canonical phone";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        LOG.info("Attempting to fill in the canonical phone of stored contacts");
+        final Connection connection = context.getConnection();
+        long after = 0;
+        long count = 0;
+        try (PreparedStatement select = connection.prepareStatement(SELECT);
+                PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            int read;
+            do {
+                read = 0;
+                select.setLong(1, after);
+                try (ResultSet result = select.executeQuery()) {
+                    while (result.next()) {
+                        after = result.getLong(1);
+                        update.setString(1, Contact.canonical(result.getString(2)));
+                        update.setLong(2, after);
+                        update.addBatch();
+                        read++;
+                    }
+                }
+                if (read > 0) {
+                    update.executeBatch();
+                }
+                count += read;
+            } while (read == BATCH_SIZE);
+        }
+        LOG.info("Successfully filled in the canonical phone of {} stored contacts", count);
+    }
+}
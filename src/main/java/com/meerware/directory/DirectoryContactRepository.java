@@ -0,0 +1,750 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Joiner;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * {@link Repository} working directly against the {@code directory_contact} table which backs
+ * {@link Directory} {@link Contact} entities. This is used where going through the {@link Directory}
+ * entity would load the whole {@link Contact} collection.
+ */
+@Repository
+class DirectoryContactRepository {
+
+    /**
+     * Sort and key columns, in {@link Contact} order. The phone is compared in its canonical form and
+     * the address columns are compared as stored rather than by display form.
+     */
+    private static final List<String> KEY = ImmutableList.of(
+            "\"name\"", "email", "canonical_phone", "\"lines\"", "locality", "state", "postcode", "country");
+
+    /**
+     * Position of the name in {@link #KEY}.
+     */
+    private static final int NAME = 0;
+
+    /**
+     * Position of the email in {@link #KEY}.
+     */
+    private static final int EMAIL = 1;
+
+    /**
+     * Position of the canonical phone in {@link #KEY}.
+     */
+    private static final int PHONE = 2;
+
+    /**
+     * Position of the address lines in {@link #KEY}.
+     */
+    private static final int LINES = 3;
+
+    /**
+     * Position of the locality in {@link #KEY}.
+     */
+    private static final int LOCALITY = 4;
+
+    /**
+     * Position of the state in {@link #KEY}.
+     */
+    private static final int STATE = 5;
+
+    /**
+     * Position of the postcode in {@link #KEY}.
+     */
+    private static final int POSTCODE = 6;
+
+    /**
+     * Position of the country in {@link #KEY}.
+     */
+    private static final int COUNTRY = 7;
+
+    /**
+     * Key columns, as selected.
+     */
+    private static final String KEY_COLUMNS = Joiner.on(", ").join(KEY);
+
+    /**
+     * Phone column, holding the phone as given. This is selected after the {@link #KEY} columns.
+     */
+    private static final String PHONE_COLUMN = "phone";
+
+    /**
+     * Selected columns, starting with {@link #KEY} so {@link ContactKey#read(ResultSet, int)} can be used.
+     */
+    private static final String COLUMNS = KEY_COLUMNS + ", " + PHONE_COLUMN;
+
+    /**
+     * Sort order, {@code null} is sorted first in the same way as a blank value.
+     */
+    private static final String ORDER = Joiner.on(" nulls first, ").join(KEY) + " nulls first";
+
+    /**
+     * Inserted columns.
+     */
+    private static final String INSERT = "insert into directory_contact (directory_id, " + COLUMNS + ") values (:directory, "
+            + Joiner.on(", ").join(KEY.stream().map(column -> ":" + parameter(column)).iterator()) + ", :" + PHONE_COLUMN + ")";
+
+    /**
+     * Searched columns holding lower case text, each with its own index.
+     */
+    private static final List<String> FOLDED = ImmutableList.of(
+            "folded_name", "folded_email", "folded_locality", "folded_postcode");
+
+    /**
+     * Searched column holding only the digits of the phone, with its own index.
+     */
+    private static final String PHONE_DIGITS = "phone_digits";
+
+    /**
+     * Matches the characters of a searched prefix which looks like a phone number, so the digits of a prefix such as
+     * a postcode or an address are not searched as a phone.
+     */
+    private static final CharMatcher PHONE_CHARACTERS = CharMatcher.inRange('0', '9').or(CharMatcher.anyOf(" +()-."));
+
+    /**
+     * Escape character of {@code like} patterns.
+     */
+    private static final char ESCAPE = '\\';
+
+    /**
+     * Default number of rows fetched at a time by an export cursor.
+     */
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * {@link StateConverter} used to store a {@link State} the same way as the {@link Directory} entity.
+     */
+    private static final StateConverter STATES = new StateConverter();
+
+    /**
+     * {@link CountryConverter} used to store a {@link Country} the same way as the {@link Directory} entity.
+     */
+    private static final CountryConverter COUNTRIES = new CountryConverter();
+
+    /**
+     * {@link NamedParameterJdbcTemplate} used to run the queries.
+     */
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * {@link EntityManagerFactory} holding the second level cache of {@link Directory} entities.
+     */
+    private final EntityManagerFactory factory;
+
+    /**
+     * Number of rows fetched at a time by an export cursor.
+     */
+    private final int fetchSize;
+
+    /**
+     * @param jdbc is the {@link NamedParameterJdbcTemplate}.
+     * @param factory is the {@link EntityManagerFactory}.
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    DirectoryContactRepository(NamedParameterJdbcTemplate jdbc, EntityManagerFactory factory, Environment environment) {
+        this.jdbc = jdbc;
+        this.factory = factory;
+        this.fetchSize = environment.getProperty("directory.exports.fetch-size", Integer.class, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Finds a page of {@link Contact} entities of a {@link Directory} using keyset pagination.
+     * Only the rows of the page are read.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param after is the {@link ContactKey} to start after, {@code null} for the first page.
+     * @param size is the maximum number of {@link Contact} entities on the page.
+     * @return the {@link ContactPage}.
+     */
+    ContactPage findPage(UUID directory, @Nullable ContactKey after, int size) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("directory", directory.toString())
+                .addValue("limit", size + 1);
+
+        final StringBuilder sql = new StringBuilder()
+                .append("select ").append(COLUMNS)
+                .append(" from directory_contact where directory_id = :directory");
+        if (after != null) {
+            sql.append(" and (").append(after(after, parameters)).append(')');
+        }
+        sql.append(" order by ").append(ORDER).append(" limit :limit");
+
+        return jdbc.query(sql.toString(), parameters, result -> {
+            final List<Contact> contacts = newArrayList();
+            ContactKey last = null;
+            while (result.next()) {
+                if (contacts.size() == size) {
+                    // There is at least one more row, so there is a next page
+                    return new ContactPage(contacts, last);
+                }
+                contacts.add(map(result));
+                last = ContactKey.read(result, 1);
+            }
+            return new ContactPage(contacts, null);
+        });
+    }
+
+    /**
+     * Streams all the {@link Contact} entities of a {@link Directory} in no particular order, so the rows are
+     * passed on as the database reads them without being sorted first. A forward only, read only cursor
+     * fetches {@link #fetchSize} rows at a time, so the {@link Contact} entities are never all held in memory.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param action is the {@link Consumer} of each {@link Contact}.
+     */
+    void export(UUID directory, Consumer<? super Contact> action) {
+        final String sql = "select " + COLUMNS + " from directory_contact where directory_id = ?";
+        jdbc.getJdbcTemplate().query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, directory.toString());
+            return statement;
+        }, (RowCallbackHandler) result -> action.accept(map(result)));
+    }
+
+    /**
+     * Searches the {@link Contact} entities of a {@link Directory} whose name, email, locality or postcode starts
+     * with a prefix, ignoring case, or, when the prefix looks like a phone number, whose phone digits start with the
+     * digits of the prefix. Each column is
+     * matched through its own index and contributes at most {@code size} rows, so the cost depends on the size
+     * rather than the number of {@link Contact} entities.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param prefix is the searched prefix, which is not blank.
+     * @param size is the maximum number of {@link Contact} entities found.
+     * @return the {@link List} of found {@link Contact} entities, in {@link Contact} order.
+     */
+    List<Contact> search(UUID directory, String prefix, int size) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("directory", directory.toString())
+                .addValue("folded", like(lowerCase(prefix, Locale.ROOT)))
+                .addValue("limit", size);
+        final List<String> branches = newArrayList();
+        for (String column : FOLDED) {
+            branches.add(branch(column, "folded"));
+        }
+        final String digits = digits(prefix);
+        if (!digits.isEmpty() && PHONE_CHARACTERS.matchesAllOf(prefix)) {
+            parameters.addValue("digits", like(digits));
+            branches.add(branch(PHONE_DIGITS, "digits"));
+        }
+        final String sql = "select " + COLUMNS + " from directory_contact where id in ("
+                + Joiner.on(" union ").join(branches)
+                + ") order by " + ORDER + " limit :limit";
+        return jdbc.query(sql, parameters, (row, index) -> map(row));
+    }
+
+    /**
+     * @param column is the searched column.
+     * @param parameter is the named parameter of the {@code like} pattern.
+     * @return the query of the identifiers of the first rows matching on the column, in index order.
+     */
+    private static String branch(String column, String parameter) {
+        return "(select id from directory_contact where directory_id = :directory and " + column
+                + " like :" + parameter + " escape '" + ESCAPE + "' order by " + column + " limit :limit)";
+    }
+
+    /**
+     * @param prefix is the prefix.
+     * @return the {@code like} pattern matching values starting with the prefix, taken literally.
+     */
+    private static String like(String prefix) {
+        final StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char character : prefix.toCharArray()) {
+            if (character == ESCAPE || character == '%' || character == '_') {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(character);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Finds the {@link Directory} entities holding a {@link Contact} with an email, ignoring case. The lookup is a
+     * range scan of an index led by the email, so its cost depends on the number of matches.
+     *
+     * @param email is the email.
+     * @param after is the {@link Directory} identifier to continue after, {@code null} for the first page.
+     * @param size is the maximum number of {@link Directory} identifiers on the page.
+     * @return the {@link DirectoryPage}.
+     */
+    DirectoryPage findDirectoriesByEmail(String email, @Nullable UUID after, int size) {
+        return findDirectories("folded_email", lowerCase(email, Locale.ROOT), after, size);
+    }
+
+    /**
+     * Finds the {@link Directory} entities holding a {@link Contact} with a phone, comparing canonical forms. The
+     * lookup is a range scan of an index led by the canonical phone, so its cost depends on the number of matches.
+     *
+     * @param phone is the phone.
+     * @param after is the {@link Directory} identifier to continue after, {@code null} for the first page.
+     * @param size is the maximum number of {@link Directory} identifiers on the page.
+     * @return the {@link DirectoryPage}.
+     */
+    DirectoryPage findDirectoriesByPhone(String phone, @Nullable UUID after, int size) {
+        return findDirectories("canonical_phone", Contact.canonical(phone), after, size);
+    }
+
+    /**
+     * @param phone is the phone.
+     * @return the digits of the phone, as held by the {@value #PHONE_DIGITS} column.
+     */
+    static String digits(String phone) {
+        return CharMatcher.inRange('0', '9').retainFrom(phone);
+    }
+
+    /**
+     * @param column is the looked up column, led by which there is an index.
+     * @param value is the looked up value.
+     * @param after is the {@link Directory} identifier to continue after, {@code null} for the first page.
+     * @param size is the maximum number of {@link Directory} identifiers on the page.
+     * @return the {@link DirectoryPage}.
+     */
+    private DirectoryPage findDirectories(String column, String value, @Nullable UUID after, int size) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("value", value)
+                .addValue("limit", size + 1);
+        final StringBuilder sql = new StringBuilder()
+                .append("select distinct directory_id from directory_contact where ").append(column).append(" = :value");
+        if (after != null) {
+            sql.append(" and directory_id > :after");
+            parameters.addValue("after", after.toString());
+        }
+        sql.append(" order by directory_id limit :limit");
+
+        final List<UUID> directories = jdbc.query(sql.toString(), parameters,
+                (row, index) -> UUID.fromString(row.getString(1)));
+        if (directories.size() <= size) {
+            return new DirectoryPage(directories, null);
+        }
+        // There is at least one more row, so there is a next page
+        final List<UUID> page = directories.subList(0, size);
+        return new DirectoryPage(page, page.get(size - 1));
+    }
+
+    /**
+     * Streams the union of the {@link Contact} entities of two {@link Directory} entities, in
+     * {@link Contact} order. The set operation is done by the database and rows are passed on one at a
+     * time, so the {@link Contact} entities are never all held in memory.
+     *
+     * @param first is the identifier of the first {@link Directory}.
+     * @param second is the identifier of the second {@link Directory}.
+     * @param action is the {@link Consumer} of each {@link Contact}.
+     */
+    void union(UUID first, UUID second, Consumer<? super Contact> action) {
+        combine(false, first, second, action);
+    }
+
+    /**
+     * Streams the intersection of the {@link Contact} entities of two {@link Directory} entities, in
+     * {@link Contact} order. The set operation is done by the database and rows are passed on one at a
+     * time, so the {@link Contact} entities are never all held in memory.
+     *
+     * @param first is the identifier of the first {@link Directory}.
+     * @param second is the identifier of the second {@link Directory}.
+     * @param action is the {@link Consumer} of each {@link Contact}.
+     */
+    void intersection(UUID first, UUID second, Consumer<? super Contact> action) {
+        combine(true, first, second, action);
+    }
+
+    /**
+     * Streams the result of a {@link SetOperation} over the {@link Contact} entities of any number of
+     * {@link Directory} entities, in {@link ContactKey} order. Each {@link Directory} is read through its own
+     * sorted cursor and the cursors are merged in a single pass, holding only one row per {@link Directory}.
+     *
+     * @param directories is the {@link List} of {@link Directory} identifiers, by position.
+     * @param operation is the {@link SetOperation}.
+     * @param action is the {@link Consumer} of each {@link Contact}.
+     */
+    void combine(List<UUID> directories, SetOperation operation, Consumer<? super Contact> action) {
+        final String sql = "select " + COLUMNS + " from directory_contact where directory_id = ? order by " + ORDER;
+        jdbc.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+            final List<PreparedStatement> statements = newArrayList();
+            try {
+                final List<Iterator<Map.Entry<ContactKey, Contact>>> sources = newArrayList();
+                for (UUID directory : directories) {
+                    final PreparedStatement statement = connection.prepareStatement(sql);
+                    statements.add(statement);
+                    statement.setString(1, directory.toString());
+                    sources.add(rows(sql, statement.executeQuery()));
+                }
+                ContactMerge.merge(sources, Map.Entry.<ContactKey, Contact>comparingByKey(), operation,
+                        row -> action.accept(row.getValue()));
+                return null;
+            } finally {
+                statements.forEach(JdbcUtils::closeStatement);
+            }
+        });
+    }
+
+    /**
+     * @param sql is the {@code SQL} of the query, used for errors.
+     * @param result is the {@link ResultSet} selected with {@link #COLUMNS}.
+     * @return an {@link Iterator} of the {@link ContactKey} and {@link Contact} of each row.
+     */
+    private static Iterator<Map.Entry<ContactKey, Contact>> rows(String sql, ResultSet result) {
+        return new AbstractIterator<Map.Entry<ContactKey, Contact>>() {
+            @Override
+            protected Map.Entry<ContactKey, Contact> computeNext() {
+                try {
+                    if (result.next()) {
+                        final ContactKey key = ContactKey.read(result, 1);
+                        return Maps.immutableEntry(key, map(key, result.getString(KEY.size() + 1)));
+                    }
+                    return endOfData();
+                } catch (SQLException exception) {
+                    throw new UncategorizedSQLException("Reading directory contacts", sql, exception);
+                }
+            }
+        };
+    }
+
+    /**
+     * Groups the rows of both {@link Directory} entities by {@link #KEY}, so {@link Contact} entities are
+     * matched by their canonical phone while one of the phones as given is kept.
+     *
+     * @param intersect is whether only {@link Contact} entities of both {@link Directory} entities are kept,
+     *        otherwise it is the union.
+     * @param first is the identifier of the first {@link Directory}.
+     * @param second is the identifier of the second {@link Directory}.
+     * @param action is the {@link Consumer} of each {@link Contact}.
+     */
+    private void combine(boolean intersect, UUID first, UUID second, Consumer<? super Contact> action) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("first", first.toString())
+                .addValue("second", second.toString());
+        // Grouping compares null values as equal, matching Contact equality
+        final StringBuilder sql = new StringBuilder()
+                .append("select ").append(KEY_COLUMNS).append(", min(").append(PHONE_COLUMN).append(')')
+                .append(" from directory_contact where directory_id in (:first, :second)")
+                .append(" group by ").append(KEY_COLUMNS);
+        if (intersect) {
+            sql.append(" having count(distinct directory_id) = :directories");
+            parameters.addValue("directories", ImmutableSet.of(first, second).size());
+        }
+        sql.append(" order by ").append(ORDER);
+        jdbc.query(sql.toString(), parameters, (RowCallbackHandler) result -> action.accept(map(result)));
+    }
+
+    /**
+     * Adds a single {@link Contact} to a {@link Directory} if it is not already present. This
+     * only touches the row being added.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param contact is the {@link Contact} to add.
+     * @return {@code true} if the {@link Contact} was added, {@code false} if it was already present.
+     */
+    boolean add(UUID directory, Contact contact) {
+        final MapSqlParameterSource parameters = parameters(directory, contact);
+        final Integer count = jdbc.queryForObject(
+                "select count(*) from directory_contact where " + matching(parameters), parameters, Integer.class);
+        if (count != null && count > 0) {
+            return false;
+        }
+        return jdbc.update(INSERT, parameters) > 0;
+    }
+
+    /**
+     * Inserts {@link Contact} entities known not to be present in a {@link Directory} as a single
+     * {@code JDBC} batch.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param contacts is the {@link List} of {@link Contact} entities to insert.
+     */
+    void insert(UUID directory, List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT, contacts.stream()
+                .map(contact -> parameters(directory, contact))
+                .toArray(SqlParameterSource[]::new));
+        evict(directory);
+    }
+
+    /**
+     * Inserts the {@link Contact} entities which are not already present in a {@link Directory} as a single
+     * {@code JDBC} batch, each one once. The present ones are found with one query of the
+     * {@code (directory_id, name)} index for the names of the {@link Contact} entities, so this suits chunks of
+     * a few thousand at most.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param contacts is the {@link Collection} of {@link Contact} entities to insert, which may repeat.
+     * @return an immutable {@link List} of the inserted {@link Contact} entities, in the order given.
+     */
+    List<Contact> insertAbsent(UUID directory, Collection<Contact> contacts) {
+        // Keyed by the stored column values, so contacts are matched the same way as rows are
+        final Map<List<String>, Contact> absent = new LinkedHashMap<>();
+        for (Contact contact : contacts) {
+            absent.putIfAbsent(Arrays.asList(values(contact)), contact);
+        }
+        if (absent.isEmpty()) {
+            return ImmutableList.of();
+        }
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("directory", directory.toString())
+                .addValue("names", absent.values().stream().map(Contact::getName).collect(toSet()));
+        jdbc.query("select " + KEY_COLUMNS + " from directory_contact where directory_id = :directory and "
+                + KEY.get(NAME) + " in (:names)", parameters, (RowCallbackHandler) result -> {
+                    final String[] values = new String[KEY.size()];
+                    for (int index = 0; index < values.length; index++) {
+                        values[index] = result.getString(index + 1);
+                    }
+                    absent.remove(Arrays.asList(values));
+                });
+        final List<Contact> inserted = ImmutableList.copyOf(absent.values());
+        insert(directory, inserted);
+        return inserted;
+    }
+
+    /**
+     * Removes a single {@link Contact} from a {@link Directory}. This only touches the rows
+     * of the {@link Contact}.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @param contact is the {@link Contact} to remove.
+     * @return {@code true} if the {@link Contact} was removed, {@code false} if it was not present.
+     */
+    boolean remove(UUID directory, Contact contact) {
+        final MapSqlParameterSource parameters = parameters(directory, contact);
+        return jdbc.update("delete from directory_contact where " + matching(parameters), parameters) > 0;
+    }
+
+    /**
+     * Locks the row of a {@link Directory} until the transaction completes, so concurrent changes of its
+     * {@link Contact} entities run one after the other rather than both inserting the same {@link Contact}.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     * @return {@code true} if the {@link Directory} exists and is locked, {@code false} if it does not exist.
+     */
+    boolean lock(UUID directory) {
+        return !jdbc.queryForList("select id from directory where id = :directory for update",
+                new MapSqlParameterSource("directory", directory.toString()), String.class).isEmpty();
+    }
+
+    /**
+     * Marks a {@link Directory} as modified after its {@link Contact} entities have been changed
+     * directly, bumping its version and evicting it from the second level cache.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     */
+    void touch(UUID directory) {
+        jdbc.update("update directory set modified = :modified, version = version + 1 where id = :directory",
+                new MapSqlParameterSource()
+                        .addValue("directory", directory.toString())
+                        .addValue("modified", new Timestamp(System.currentTimeMillis())));
+        evict(directory);
+    }
+
+    /**
+     * Evicts a {@link Directory} and its {@link Contact} collection from the second level cache, as
+     * they have been changed behind the back of {@code Hibernate}. This is done again once the
+     * transaction completes, so a read from another transaction in the meantime is not left cached.
+     *
+     * @param directory is the identifier of the {@link Directory}.
+     */
+    private void evict(UUID directory) {
+        evictNow(directory);
+        if (isSynchronizationActive()) {
+            registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(directory);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param directory is the identifier of the {@link Directory} to evict. This does nothing when the
+     *        second level cache is not enabled.
+     */
+    private void evictNow(UUID directory) {
+        final Cache cache = factory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Directory.class, directory);
+        cache.evictCollectionData(Directory.class.getName() + ".contacts", directory);
+    }
+
+    /**
+     * @param directory is the identifier of the {@link Directory}.
+     * @param contact is the {@link Contact}.
+     * @return the {@link MapSqlParameterSource} holding the identifier and the stored column values.
+     */
+    private static MapSqlParameterSource parameters(UUID directory, Contact contact) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("directory", directory.toString());
+        final String[] values = values(contact);
+        for (int index = 0; index < KEY.size(); index++) {
+            parameters.addValue(parameter(KEY.get(index)), values[index]);
+        }
+        parameters.addValue(PHONE_COLUMN, contact.getPhone());
+        return parameters;
+    }
+
+    /**
+     * @param parameters is the {@link MapSqlParameterSource} from {@link #parameters(UUID, Contact)}.
+     * @return the predicate matching the rows of the {@link Contact}, {@code null} values are
+     *         matched with {@code is null}.
+     */
+    private static String matching(MapSqlParameterSource parameters) {
+        final List<String> conjunction = newArrayList("directory_id = :directory");
+        for (String column : KEY) {
+            if (parameters.getValue(parameter(column)) == null) {
+                conjunction.add(column + " is null");
+            } else {
+                conjunction.add(column + " = :" + parameter(column));
+            }
+        }
+        return Joiner.on(" and ").join(conjunction);
+    }
+
+    /**
+     * @param column is the possibly quoted column name.
+     * @return the named parameter used for the column.
+     */
+    private static String parameter(String column) {
+        return column.replace("\"", "");
+    }
+
+    /**
+     * @param contact is the {@link Contact}.
+     * @return the stored column values of the {@link Contact}, in {@link #KEY} order.
+     */
+    static String[] values(Contact contact) {
+        final Address address = ofNullable(contact.getAddress()).orElse(Address.EMPTY);
+        return new String[] {
+            contact.getName(),
+            contact.getEmail(),
+            contact.getCanonicalPhone(),
+            address.getStoredLines(),
+            address.getLocality(),
+            STATES.convertToDatabaseColumn(address.getState()),
+            address.getPostcode(),
+            COUNTRIES.convertToDatabaseColumn(address.getCountry())
+        };
+    }
+
+    /**
+     * @param contact is the {@link Contact}.
+     * @return the stored column values of the {@link Contact}, in {@link #KEY} order, but with the phone as
+     *         given rather than its canonical form.
+     */
+    static String[] exported(Contact contact) {
+        final String[] values = values(contact);
+        values[PHONE] = contact.getPhone();
+        return values;
+    }
+
+    /**
+     * Builds the keyset predicate which selects the rows sorted after the given {@link ContactKey}.
+     *
+     * @param key is the {@link ContactKey}.
+     * @param parameters is the {@link MapSqlParameterSource} to add the key values to.
+     * @return the predicate.
+     */
+    private static String after(ContactKey key, MapSqlParameterSource parameters) {
+        final List<String> disjunction = newArrayList();
+        for (int index = 0; index < KEY.size(); index++) {
+            final List<String> conjunction = newArrayList();
+            for (int previous = 0; previous < index; previous++) {
+                if (key.get(previous) == null) {
+                    conjunction.add(KEY.get(previous) + " is null");
+                } else {
+                    conjunction.add(KEY.get(previous) + " = :key" + previous);
+                }
+            }
+            if (key.get(index) == null) {
+                conjunction.add(KEY.get(index) + " is not null");
+            } else {
+                conjunction.add(KEY.get(index) + " > :key" + index);
+            }
+            disjunction.add("(" + Joiner.on(" and ").join(conjunction) + ")");
+            parameters.addValue("key" + index, key.get(index));
+        }
+        return Joiner.on(" or ").join(disjunction);
+    }
+
+    /**
+     * Maps the current row, selected with {@link #COLUMNS}, to a {@link Contact}.
+     *
+     * @param result is the {@link ResultSet} positioned on a row.
+     * @return the {@link Contact}.
+     * @throws SQLException if the columns cannot be read.
+     */
+    static Contact map(ResultSet result) throws SQLException {
+        return map(ContactKey.read(result, 1), result.getString(KEY.size() + 1));
+    }
+
+    /**
+     * Maps the stored column values of a row to a {@link Contact}. The canonical phone is taken from the
+     * {@link ContactKey}, so the phone is not parsed again.
+     *
+     * @param key is the {@link ContactKey} of the row.
+     * @param phone is the phone as given.
+     * @return the {@link Contact}.
+     */
+    static Contact map(ContactKey key, @Nullable String phone) {
+        final Country country = Country.parse(key.get(COUNTRY));
+        final Address address = new Address(
+                key.get(LINES),
+                key.get(LOCALITY),
+                key.get(POSTCODE),
+                State.parse(key.get(STATE)),
+                country);
+        return new Contact(
+                key.get(NAME),
+                key.get(EMAIL),
+                phone,
+                key.get(PHONE),
+                address);
+    }
+}
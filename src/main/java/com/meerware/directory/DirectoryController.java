@@ -1,22 +1,43 @@
 package com.meerware.directory;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static org.apache.commons.lang3.StringUtils.removeStart;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
+import com.meerware.web.DocumentBodyAdvice;
+import com.meerware.web.DocumentCache;
+
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -27,17 +48,61 @@ import org.springframework.web.bind.annotation.RestController;
         path = "/directories")
 class DirectoryController {
 
+    /**
+     * Default number of {@link Contact} entities on a {@link ContactPage}.
+     */
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
+    /**
+     * Default number of {@link Contact} entities found by a search.
+     */
+    private static final String DEFAULT_SEARCH_SIZE = "20";
+
+    /**
+     * Newline delimited {@code JSON} {@link MediaType}.
+     */
+    private static final MediaType NDJSON = MediaType.parseMediaType(ContactWriter.NDJSON_VALUE);
+
+    /**
+     * {@code CSV} {@link MediaType}.
+     */
+    private static final MediaType CSV = MediaType.parseMediaType(ContactWriter.CSV_VALUE);
+
+    /**
+     * {@code If-None-Match} value matching any entity tag.
+     */
+    private static final String ANY_TAG = "*";
+
+    /**
+     * Prefix of a weak entity tag.
+     */
+    private static final String WEAK_TAG_PREFIX = "W/";
+
     /**
      * {@link DirectoryService} used to create, get, update and delete {@link Directory} entities.
      */
     private DirectoryService service;
 
+    /**
+     * {@link ContactWriter} used to stream {@link Contact} entities.
+     */
+    private ContactWriter writer;
+
+    /**
+     * {@link DocumentCache} holding serialized {@link Directory} documents by entity tag.
+     */
+    private DocumentCache documents;
+
     /**
      * @param service is the {@link DirectoryService}.
+     * @param writer is the {@link ContactWriter}.
+     * @param documents is the {@link DocumentCache}.
      */
     @Autowired
-    DirectoryController(DirectoryService service) {
+    DirectoryController(DirectoryService service, ContactWriter writer, DocumentCache documents) {
         this.service = service;
+        this.writer = writer;
+        this.documents = documents;
     }
 
     @PostMapping(produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
@@ -46,10 +111,103 @@ class DirectoryController {
         return service.create(directory);
     }
 
+    @GetMapping(path = "/lookup", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    DirectoryPage lookup(
+            @RequestParam(name = "email", required = false) @Nullable String email,
+            @RequestParam(name = "phone", required = false) @Nullable String phone,
+            @RequestParam(name = "after", required = false) @Nullable UUID after,
+            @RequestParam(name = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) throws DirectoryException {
+        return service.lookup(email, phone, after, size);
+    }
+
     @GetMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
+    ResponseEntity<byte[]> get(@PathVariable("id") UUID id, @RequestHeader HttpHeaders headers)
+            throws DirectoryException, IOException {
+        // Each document type is its own representation, so it has its own tag
+        final MediaType type = DocumentBodyAdvice.documentType(headers.getContentType());
+        final String tag = tag(service.tag(id), type);
+        if (matches(headers.getIfNoneMatch(), tag)) {
+            // The client already has this version, so the directory is not loaded at all
+            return ResponseEntity.status(NOT_MODIFIED).eTag(tag).varyBy(CONTENT_TYPE).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(tag)
+                .varyBy(CONTENT_TYPE)
+                .contentType(type)
+                .body(documents.get(tag, headers.getContentType(), () -> service.get(id)));
+    }
+
+    @GetMapping(path = "/{id}/contacts", produces = APPLICATION_JSON_VALUE)
     @ResponseStatus(OK)
-    Directory get(@PathVariable("id") UUID id) throws DirectoryException {
-        return service.get(id);
+    ContactPage contacts(
+            @PathVariable("id") UUID id,
+            @RequestParam(name = "after", required = false) @Nullable String after,
+            @RequestParam(name = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) throws DirectoryException {
+        return service.contacts(id, after, size);
+    }
+
+    @GetMapping(path = "/{id}/contacts/search", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    List<Contact> search(
+            @PathVariable("id") UUID id,
+            @RequestParam("q") String query,
+            @RequestParam(name = "size", defaultValue = DEFAULT_SEARCH_SIZE) int size) throws DirectoryException {
+        return service.search(id, query, size);
+    }
+
+    @GetMapping(path = "/{id}/contacts/typeahead", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    List<Contact> typeahead(
+            @PathVariable("id") UUID id,
+            @RequestParam("q") String query,
+            @RequestParam(name = "size", defaultValue = DEFAULT_SEARCH_SIZE) int size) throws DirectoryException {
+        return service.typeahead(id, query, size);
+    }
+
+    @GetMapping(path = "/{id}/export", produces = {ContactWriter.NDJSON_VALUE, ContactWriter.CSV_VALUE})
+    ResponseEntity<StreamingResponseBody> export(@PathVariable("id") UUID id, @RequestHeader HttpHeaders headers)
+            throws DirectoryException {
+        final ContactStream contacts = service.export(id);
+        // Nothing is read until the response body is written, straight to the servlet output stream
+        if (csv(headers.getAccept())) {
+            return export(id, CSV, ".csv", output -> writer.writeCsv(contacts, output));
+        }
+        return export(id, NDJSON, ".ndjson", output -> writer.writeLines(contacts, output));
+    }
+
+    @GetMapping(path = "/{id}/union/{other}", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    StreamingResponseBody union(@PathVariable("id") UUID id, @PathVariable("other") UUID other) throws DirectoryException {
+        final ContactStream contacts = service.union(id, other);
+        return output -> writer.write(contacts, output);
+    }
+
+    @GetMapping(path = "/{id}/intersection/{other}", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    StreamingResponseBody intersection(@PathVariable("id") UUID id, @PathVariable("other") UUID other)
+            throws DirectoryException {
+        final ContactStream contacts = service.intersection(id, other);
+        return output -> writer.write(contacts, output);
+    }
+
+    @PostMapping(
+            path = "/operations",
+            produces = APPLICATION_JSON_VALUE,
+            consumes = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    StreamingResponseBody combine(@RequestBody DirectoryOperation operation) throws DirectoryException {
+        final ContactStream contacts = service.combine(operation);
+        return output -> writer.write(contacts, output);
+    }
+
+    @PatchMapping(
+            path = "/{id}/contacts",
+            produces = APPLICATION_JSON_VALUE,
+            consumes = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    ContactChanges change(@PathVariable("id") UUID id, @RequestBody ContactChanges changes) throws DirectoryException {
+        return service.change(id, changes);
     }
 
     @PutMapping(
@@ -59,7 +217,7 @@ class DirectoryController {
     @ResponseStatus(OK)
     Directory update(@PathVariable("id") UUID id, @RequestBody Directory directory) throws DirectoryException {
         // Enforce the path variable identifier
-        return service.update(new Directory(id, directory.getName(), directory.getContacts()));
+        return service.update(new Directory(id, directory.getName(), directory.getReceivedContacts()));
     }
 
     @DeleteMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
@@ -67,4 +225,60 @@ class DirectoryController {
     void delete(UUID id) throws DirectoryException {
         service.delete(id);
     }
+
+    /**
+     * @param id is the identifier of the {@link Directory}.
+     * @param contentType is the {@link MediaType} of the export.
+     * @param extension is the file name extension of the export.
+     * @param body is the {@link StreamingResponseBody} writing the export.
+     * @return the {@link ResponseEntity} of the export, as an attachment.
+     */
+    private static ResponseEntity<StreamingResponseBody> export(
+            UUID id, MediaType contentType, String extension, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(CONTENT_DISPOSITION, ContentDisposition.builder("attachment").filename(id + extension).build().toString())
+                .body(body);
+    }
+
+    /**
+     * @param accept is the {@link List} of accepted {@link MediaType} values.
+     * @return {@code true} if {@code CSV} is preferred over newline delimited {@code JSON}, which is the default.
+     */
+    private static boolean csv(List<MediaType> accept) {
+        final List<MediaType> sorted = newArrayList(accept);
+        MediaType.sortBySpecificityAndQuality(sorted);
+        for (MediaType type : sorted) {
+            if (type.includes(NDJSON)) {
+                return false;
+            }
+            if (type.includes(CSV)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param version is the entity tag of the {@link Directory}, without quotes.
+     * @param type is the document {@link MediaType}.
+     * @return the quoted entity tag of the document of the {@link Directory}.
+     */
+    private static String tag(String version, MediaType type) {
+        if (APPLICATION_JSON.equals(type)) {
+            return '"' + version + "-json\"";
+        }
+        return '"' + version + "-api\"";
+    }
+
+    /**
+     * Weak comparison of entity tags, as used for {@code If-None-Match}.
+     *
+     * @param matches is the {@link List} of entity tags of the {@code If-None-Match} header.
+     * @param tag is the current entity tag.
+     * @return {@code true} if any of the entity tags match the current one.
+     */
+    private static boolean matches(List<String> matches, String tag) {
+        return matches.stream().anyMatch(match -> ANY_TAG.equals(match) || tag.equals(removeStart(match, WEAK_TAG_PREFIX)));
+    }
 }
@@ -0,0 +1,26 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a paging cursor given by a client cannot be decoded.
+ * This maps to a {@code 400} response.
+ */
+@ResponseStatus(BAD_REQUEST)
+class DirectoryCursorException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = -3310470853601652947L;
+
+    /**
+     * @param cursor is the cursor which could not be decoded.
+     */
+    DirectoryCursorException(String cursor) {
+        super(String.format("Invalid cursor: %s", cursor));
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Asynchronous job finding the duplicate {@link Contact} entities of a {@link Directory}, those which only differ
+ * by case, whitespace, phone formatting or how the {@link State} is written, and optionally merging each group of
+ * duplicates into its first {@link Contact}. Each change of status creates a new instance.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonInclude(NON_EMPTY)
+final class DirectoryDedupe {
+
+    /**
+     * Identifier of the {@link Directory}.
+     */
+    private final UUID directory;
+
+    /**
+     * Whether duplicates are merged, otherwise they are only reported.
+     */
+    private final boolean merge;
+
+    /**
+     * {@link DirectoryJobStatus}.
+     */
+    private final DirectoryJobStatus status;
+
+    /**
+     * Number of {@link Contact} entities read.
+     */
+    private final long contacts;
+
+    /**
+     * Number of groups of duplicates.
+     */
+    private final long groups;
+
+    /**
+     * Number of {@link Contact} entities which duplicate another, so the number removed by a merge.
+     */
+    private final long duplicates;
+
+    /**
+     * First groups of duplicates, in {@link Contact} order within each group.
+     */
+    private final List<List<Contact>> reported;
+
+    /**
+     * Reason for failing, only set once failed.
+     */
+    @Nullable
+    private final String error;
+
+    /**
+     * Time the job was submitted, in milliseconds.
+     */
+    private final long submitted;
+
+    /**
+     * Time the job finished, in milliseconds, {@code 0} if not yet finished.
+     */
+    private final long finished;
+
+    /**
+     * @param directory is the identifier of the {@link Directory}.
+     * @param merge is whether duplicates are merged.
+     * @param status is the {@link DirectoryJobStatus}.
+     * @param contacts is the number of read {@link Contact} entities.
+     * @param groups is the number of groups of duplicates.
+     * @param duplicates is the number of duplicate {@link Contact} entities.
+     * @param reported is the first groups of duplicates.
+     * @param error is the reason for failing.
+     * @param submitted is the time the job was submitted.
+     * @param finished is the time the job finished.
+     */
+    private DirectoryDedupe(
+            UUID directory,
+            boolean merge,
+            DirectoryJobStatus status,
+            long contacts,
+            long groups,
+            long duplicates,
+            List<List<Contact>> reported,
+            @Nullable String error,
+            long submitted,
+            long finished) {
+        this.directory = directory;
+        this.merge = merge;
+        this.status = status;
+        this.contacts = contacts;
+        this.groups = groups;
+        this.duplicates = duplicates;
+        this.reported = reported;
+        this.error = error;
+        this.submitted = submitted;
+        this.finished = finished;
+    }
+
+    /**
+     * @param directory is the identifier of the {@link Directory}.
+     * @param merge is whether duplicates are merged.
+     * @return a new {@link DirectoryDedupe} in the {@link DirectoryJobStatus#SUBMITTED} status.
+     */
+    static DirectoryDedupe submit(UUID directory, boolean merge) {
+        return new DirectoryDedupe(directory, merge, DirectoryJobStatus.SUBMITTED, 0, 0, 0, ImmutableList.of(), null,
+                System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * @return a copy in the {@link DirectoryJobStatus#RUNNING} status.
+     */
+    DirectoryDedupe run() {
+        return new DirectoryDedupe(directory, merge, DirectoryJobStatus.RUNNING, 0, 0, 0, ImmutableList.of(), null,
+                submitted, 0);
+    }
+
+    /**
+     * @param count is the number of read {@link Contact} entities.
+     * @param found is the number of groups of duplicates.
+     * @param redundant is the number of duplicate {@link Contact} entities.
+     * @param first is the first groups of duplicates.
+     * @return a copy in the {@link DirectoryJobStatus#COMPLETED} status.
+     */
+    DirectoryDedupe complete(long count, long found, long redundant, List<List<Contact>> first) {
+        return new DirectoryDedupe(directory, merge, DirectoryJobStatus.COMPLETED, count, found, redundant,
+                ImmutableList.copyOf(first), null, submitted, System.currentTimeMillis());
+    }
+
+    /**
+     * @param reason is the reason for failing.
+     * @return a copy in the {@link DirectoryJobStatus#FAILED} status.
+     */
+    DirectoryDedupe fail(String reason) {
+        return new DirectoryDedupe(directory, merge, DirectoryJobStatus.FAILED, 0, 0, 0, ImmutableList.of(), reason,
+                submitted, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the identifier of the {@link Directory}.
+     */
+    @JsonGetter
+    UUID getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return whether duplicates are merged, otherwise they are only reported.
+     */
+    @JsonGetter
+    boolean isMerge() {
+        return merge;
+    }
+
+    /**
+     * @return the {@link DirectoryJobStatus}.
+     */
+    @JsonGetter
+    DirectoryJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of read {@link Contact} entities.
+     */
+    @JsonGetter
+    long getContacts() {
+        return contacts;
+    }
+
+    /**
+     * @return the number of groups of duplicates.
+     */
+    @JsonGetter
+    long getGroups() {
+        return groups;
+    }
+
+    /**
+     * @return the number of {@link Contact} entities which duplicate another, so the number removed by a merge.
+     */
+    @JsonGetter
+    long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return the first groups of duplicates, in {@link Contact} order within each group. When merging, the
+     *         first {@link Contact} of each group is the one kept.
+     */
+    @JsonGetter
+    List<List<Contact>> getReported() {
+        return reported;
+    }
+
+    /**
+     * @return the reason for failing, {@code null} unless failed.
+     */
+    @Nullable
+    @JsonGetter
+    String getError() {
+        return error;
+    }
+
+    /**
+     * @return the time the job was submitted.
+     */
+    @JsonGetter
+    Date getSubmitted() {
+        return new Date(submitted);
+    }
+
+    /**
+     * @return the time the job finished, {@code null} if not yet finished.
+     */
+    @Nullable
+    @JsonGetter
+    Date getFinished() {
+        if (finished == 0) {
+            return null;
+        }
+        return new Date(finished);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("directory=\"");
+        builder.append(directory);
+        builder.append("\", merge=");
+        builder.append(merge);
+        builder.append(", status=");
+        builder.append(status);
+        builder.append(", contacts=");
+        builder.append(contacts);
+        builder.append(", groups=");
+        builder.append(groups);
+        builder.append(", duplicates=");
+        builder.append(duplicates);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for submitting and polling the {@link DirectoryDedupe} of a {@link Directory}.
+ */
+@RestController
+@RequestMapping(
+        path = "/directories/{id}/dedupe")
+class DirectoryDedupeController {
+
+    /**
+     * {@link DirectoryDedupeService} used to submit and get {@link DirectoryDedupe} entities.
+     */
+    private DirectoryDedupeService service;
+
+    /**
+     * @param service is the {@link DirectoryDedupeService}.
+     */
+    @Autowired
+    DirectoryDedupeController(DirectoryDedupeService service) {
+        this.service = service;
+    }
+
+    @PostMapping(produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(ACCEPTED)
+    DirectoryDedupe submit(
+            @PathVariable("id") UUID id,
+            @RequestParam(name = "merge", defaultValue = "false") boolean merge) throws DirectoryException {
+        return service.submit(id, merge);
+    }
+
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    DirectoryDedupe get(@PathVariable("id") UUID id) throws DirectoryException {
+        return service.get(id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+import java.util.UUID;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when looking up the {@link DirectoryDedupe} of a {@link Directory} which has none or
+ * whose dedupe is no longer retained. This maps to a {@code 404} response.
+ */
+@ResponseStatus(NOT_FOUND)
+class DirectoryDedupeNotFoundException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 3318092457720153962L;
+
+    /**
+     * @param id is the identifier of the directory.
+     */
+    DirectoryDedupeNotFoundException(UUID id) {
+        super(String.format("Directory dedupe not found: %s", id));
+    }
+
+}
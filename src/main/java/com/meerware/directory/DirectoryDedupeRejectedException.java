@@ -0,0 +1,28 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+import java.util.UUID;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a dedupe cannot start because another one is still waiting or running for the same
+ * {@link Directory}. This maps to a {@code 409} response.
+ */
+@ResponseStatus(CONFLICT)
+class DirectoryDedupeRejectedException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = -2048836623577641370L;
+
+    /**
+     * @param id is the identifier of the directory being deduplicated.
+     */
+    DirectoryDedupeRejectedException(UUID id) {
+        super(String.format("Directory dedupe already running: %s", id));
+    }
+
+}
@@ -0,0 +1,282 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.annotation.PreDestroy;
+import javax.validation.constraints.NotNull;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link Service} running {@link DirectoryDedupe} jobs. The {@link Contact} entities of a {@link Directory} are read
+ * through the export cursor and grouped by {@link ContactDuplicates}, so the cost is linear in the size of the
+ * {@link Directory}, while the number of {@link Contact} entities held at a time is bounded by reading large
+ * {@link Directory} entities in more than one pass. Jobs run on a bounded pool of threads and the
+ * {@link DirectoryDedupe} of each {@link Directory} can be polled until it finishes and for a while after.
+ */
+@Service
+@Validated
+class DirectoryDedupeService {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryDedupeService.class);
+
+    /**
+     * Default number of dedupes run at the same time.
+     */
+    private static final int DEFAULT_THREADS = 1;
+
+    /**
+     * Default number of dedupes waiting to run.
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    /**
+     * Default number of partitions the {@link Contact} entities are hashed into.
+     */
+    private static final int DEFAULT_PARTITIONS = 64;
+
+    /**
+     * Default number of {@link Contact} entities held by each pass.
+     */
+    private static final long DEFAULT_CONTACTS_PER_PASS = 100000;
+
+    /**
+     * Default number of groups of duplicates reported.
+     */
+    private static final int DEFAULT_REPORTED = 100;
+
+    /**
+     * Default number of dedupes kept.
+     */
+    private static final long DEFAULT_RETAINED = 1000;
+
+    /**
+     * Default time dedupes are kept for after finishing.
+     */
+    private static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+
+    /**
+     * {@link DirectoryService} used to check and read the {@link Directory}.
+     */
+    private final DirectoryService service;
+
+    /**
+     * {@link DirectoryContactRepository} used to merge the duplicate {@link Contact} entities.
+     */
+    private final DirectoryContactRepository contacts;
+
+    /**
+     * {@link ContactIndexCache} invalidated by each merge.
+     */
+    private final ContactIndexCache indexes;
+
+    /**
+     * {@link TransactionTemplate} used to merge all the duplicates in a single transaction.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Number of partitions the {@link Contact} entities are hashed into.
+     */
+    private final int partitions;
+
+    /**
+     * Number of {@link Contact} entities held by each pass.
+     */
+    private final long contactsPerPass;
+
+    /**
+     * Number of groups of duplicates reported.
+     */
+    private final int reported;
+
+    /**
+     * Bounded {@link ThreadPoolExecutor} running the dedupes.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * {@link DirectoryJobRegistry} of the running and retained {@link DirectoryDedupe} entities by {@link Directory}
+     * identifier.
+     */
+    private final DirectoryJobRegistry<DirectoryDedupe> dedupes;
+
+    /**
+     * @param service is the {@link DirectoryService}.
+     * @param contacts is the {@link DirectoryContactRepository}.
+     * @param indexes is the {@link ContactIndexCache}.
+     * @param transactionManager is the {@link PlatformTransactionManager}.
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    DirectoryDedupeService(
+            DirectoryService service,
+            DirectoryContactRepository contacts,
+            ContactIndexCache indexes,
+            PlatformTransactionManager transactionManager,
+            Environment environment) {
+        this.service = service;
+        this.contacts = contacts;
+        this.indexes = indexes;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.partitions = environment.getProperty("directory.dedupes.partitions", Integer.class, DEFAULT_PARTITIONS);
+        this.contactsPerPass = environment.getProperty(
+                "directory.dedupes.contacts-per-pass", Long.class, DEFAULT_CONTACTS_PER_PASS);
+        this.reported = environment.getProperty("directory.dedupes.reported", Integer.class, DEFAULT_REPORTED);
+
+        final int threads = environment.getProperty("directory.dedupes.threads", Integer.class, DEFAULT_THREADS);
+        final int capacity = environment.getProperty(
+                "directory.dedupes.queue-capacity", Integer.class, DEFAULT_QUEUE_CAPACITY);
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                new ThreadFactoryBuilder().setNameFormat("directory-dedupe-%d").setDaemon(true).build());
+        this.dedupes = new DirectoryJobRegistry<>(
+                environment.getProperty("directory.dedupes.retained", Long.class, DEFAULT_RETAINED),
+                environment.getProperty("directory.dedupes.retention", Duration.class, DEFAULT_RETENTION),
+                DirectoryDedupe::getStatus);
+    }
+
+    /**
+     * Attempts to submit a {@link DirectoryDedupe} of a {@link Directory}. The {@link Directory} is checked straight
+     * away, the duplicates are found and merged later.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @param merge is whether each group of duplicates is merged into its first {@link Contact}, otherwise they
+     *        are only reported.
+     * @return the submitted {@link DirectoryDedupe}.
+     * @throws DirectoryException if the {@link Directory} cannot be found, if it is already being deduplicated or
+     *         if too many dedupes are waiting.
+     */
+    DirectoryDedupe submit(@NotNull UUID id, boolean merge) throws DirectoryException {
+        LOG.info("Attempting to submit directory dedupe: id=\"{}\", merge={}", id, merge);
+        final ContactStream stream = service.export(id);
+
+        final DirectoryDedupe submitted = DirectoryDedupe.submit(id, merge);
+        if (!dedupes.start(id, submitted)) {
+            LOG.info("Directory dedupe already running: id=\"{}\"", id);
+            throw new DirectoryDedupeRejectedException(id);
+        }
+        try {
+            executor.execute(() -> run(submitted, stream));
+        } catch (RejectedExecutionException exception) {
+            dedupes.remove(id);
+            LOG.warn("Directory dedupe rejected: {}", submitted);
+            throw new DirectoryJobRejectedException();
+        }
+        LOG.info("Successfully submitted directory dedupe: {}", submitted);
+        return submitted;
+    }
+
+    /**
+     * Attempts to get the {@link DirectoryDedupe} of a {@link Directory}.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @return the current state of the latest {@link DirectoryDedupe}.
+     * @throws DirectoryException if there is no {@link DirectoryDedupe} retained for the {@link Directory}.
+     */
+    DirectoryDedupe get(@NotNull UUID id) throws DirectoryException {
+        final DirectoryDedupe dedupe = dedupes.get(id);
+        if (dedupe == null) {
+            LOG.info("Directory dedupe not found: id=\"{}\"", id);
+            throw new DirectoryDedupeNotFoundException(id);
+        }
+        return dedupe;
+    }
+
+    /**
+     * Stops running dedupes on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a {@link DirectoryDedupe} in a single transaction, so when merging either all the duplicates are merged
+     * or none are.
+     *
+     * @param submitted is the submitted {@link DirectoryDedupe}.
+     * @param stream is the {@link ContactStream} of the {@link Contact} entities of the {@link Directory}.
+     */
+    private void run(DirectoryDedupe submitted, ContactStream stream) {
+        final DirectoryDedupe running = submitted.run();
+        final UUID id = running.getDirectory();
+        dedupes.put(id, running);
+        try {
+            LOG.info("Attempting to run directory dedupe: {}", running);
+            // The export cursor is read inside the transaction too, as some drivers only stream in one
+            final DirectoryDedupe completed = transactions.execute(status -> dedupe(running, stream));
+            if (running.isMerge() && completed.getDuplicates() > 0) {
+                indexes.invalidate(id);
+            }
+            dedupes.put(id, completed);
+            LOG.info("Successfully ran directory dedupe: {}", completed);
+        } catch (Exception exception) {
+            LOG.error("Failed to run directory dedupe: " + running, exception);
+            dedupes.put(id, running.fail("Failed to dedupe the directory contacts"));
+        }
+    }
+
+    /**
+     * @param running is the running {@link DirectoryDedupe}.
+     * @param stream is the {@link ContactStream} of the {@link Contact} entities of the {@link Directory}.
+     * @return the completed {@link DirectoryDedupe}.
+     */
+    private DirectoryDedupe dedupe(DirectoryDedupe running, ContactStream stream) {
+        final UUID id = running.getDirectory();
+        final List<List<Contact>> first = newArrayList();
+        final long[] totals = new long[2];
+        // Groups are only given once each pass is read, so the export cursor is closed by then
+        final long count = ContactDuplicates.find(stream, partitions, contactsPerPass, group -> {
+            totals[0]++;
+            totals[1] += group.size() - 1;
+            if (first.size() < reported) {
+                first.add(ImmutableList.copyOf(group));
+            }
+            if (running.isMerge()) {
+                merge(id, group);
+            }
+        });
+        if (running.isMerge() && totals[0] > 0) {
+            contacts.touch(id);
+        }
+        return running.complete(count, totals[0], totals[1], first);
+    }
+
+    /**
+     * Merges a group of duplicates into its first {@link Contact}. Every {@link Contact} of the group is removed
+     * before the first one is added back, as removing an equal {@link Contact} would remove its rows too.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     * @param group is the {@link List} of duplicate {@link Contact} entities, in {@link Contact} order.
+     */
+    private void merge(UUID id, List<Contact> group) {
+        for (Contact contact : ImmutableSet.copyOf(group)) {
+            contacts.remove(id, contact);
+        }
+        contacts.add(id, group.get(0));
+    }
+}
@@ -0,0 +1,194 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.Date;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Progress of a bulk import of {@link Contact} entities into a {@link Directory}. Each saved chunk
+ * creates a new instance.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonInclude(NON_EMPTY)
+final class DirectoryImport {
+
+    /**
+     * Identifier of the {@link Directory} being imported into.
+     */
+    private final UUID directory;
+
+    /**
+     * {@link DirectoryJobStatus}, only ever running, completed or failed.
+     */
+    private final DirectoryJobStatus status;
+
+    /**
+     * Number of {@link Contact} entities saved so far.
+     */
+    private final long contacts;
+
+    /**
+     * Number of chunks saved so far.
+     */
+    private final long chunks;
+
+    /**
+     * Reason for failing, only set once failed.
+     */
+    @Nullable
+    private final String error;
+
+    /**
+     * Time the import started, in milliseconds.
+     */
+    private final long started;
+
+    /**
+     * Time the import finished, in milliseconds, {@code 0} if not yet finished.
+     */
+    private final long finished;
+
+    /**
+     * @param directory is the identifier of the {@link Directory}.
+     * @param status is the {@link DirectoryJobStatus}.
+     * @param contacts is the number of saved {@link Contact} entities.
+     * @param chunks is the number of saved chunks.
+     * @param error is the reason for failing.
+     * @param started is the time the import started.
+     * @param finished is the time the import finished.
+     */
+    private DirectoryImport(
+            UUID directory,
+            DirectoryJobStatus status,
+            long contacts,
+            long chunks,
+            @Nullable String error,
+            long started,
+            long finished) {
+        this.directory = directory;
+        this.status = status;
+        this.contacts = contacts;
+        this.chunks = chunks;
+        this.error = error;
+        this.started = started;
+        this.finished = finished;
+    }
+
+    /**
+     * @param directory is the identifier of the {@link Directory} to import into.
+     * @return a new {@link DirectoryImport} in the {@link DirectoryJobStatus#RUNNING} status.
+     */
+    static DirectoryImport start(UUID directory) {
+        return new DirectoryImport(directory, DirectoryJobStatus.RUNNING, 0, 0, null, System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * @param count is the number of {@link Contact} entities in the saved chunk.
+     * @return a copy with the chunk added.
+     */
+    DirectoryImport save(int count) {
+        return new DirectoryImport(directory, status, contacts + count, chunks + 1, null, started, 0);
+    }
+
+    /**
+     * @return a copy in the {@link DirectoryJobStatus#COMPLETED} status.
+     */
+    DirectoryImport complete() {
+        return new DirectoryImport(
+                directory, DirectoryJobStatus.COMPLETED, contacts, chunks, null, started, System.currentTimeMillis());
+    }
+
+    /**
+     * @param reason is the reason for failing.
+     * @return a copy in the {@link DirectoryJobStatus#FAILED} status, keeping the chunks already saved.
+     */
+    DirectoryImport fail(String reason) {
+        return new DirectoryImport(
+                directory, DirectoryJobStatus.FAILED, contacts, chunks, reason, started, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the identifier of the {@link Directory}.
+     */
+    @JsonGetter
+    UUID getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the {@link DirectoryJobStatus}.
+     */
+    @JsonGetter
+    DirectoryJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of saved {@link Contact} entities.
+     */
+    @JsonGetter
+    long getContacts() {
+        return contacts;
+    }
+
+    /**
+     * @return the number of saved chunks.
+     */
+    @JsonGetter
+    long getChunks() {
+        return chunks;
+    }
+
+    /**
+     * @return the reason for failing, {@code null} unless failed.
+     */
+    @Nullable
+    @JsonGetter
+    String getError() {
+        return error;
+    }
+
+    /**
+     * @return the time the import started.
+     */
+    @JsonGetter
+    Date getStarted() {
+        return new Date(started);
+    }
+
+    /**
+     * @return the time the import finished, {@code null} if not yet finished.
+     */
+    @Nullable
+    @JsonGetter
+    Date getFinished() {
+        if (finished == 0) {
+            return null;
+        }
+        return new Date(finished);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("directory=\"");
+        builder.append(directory);
+        builder.append("\", status=");
+        builder.append(status);
+        builder.append(", contacts=");
+        builder.append(contacts);
+        builder.append(", chunks=");
+        builder.append(chunks);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for bulk importing {@link Contact} entities into a {@link Directory} and polling the progress
+ * of a {@link DirectoryImport}.
+ */
+@RestController
+@RequestMapping(
+        path = "/directories/{id}/import")
+class DirectoryImportController {
+
+    /**
+     * {@link DirectoryImportService} used to import {@link Contact} entities.
+     */
+    private DirectoryImportService service;
+
+    /**
+     * @param service is the {@link DirectoryImportService}.
+     */
+    @Autowired
+    DirectoryImportController(DirectoryImportService service) {
+        this.service = service;
+    }
+
+    @PostMapping(produces = APPLICATION_JSON_VALUE, consumes = ContactWriter.NDJSON_VALUE)
+    @ResponseStatus(OK)
+    DirectoryImport load(@PathVariable("id") UUID id, InputStream input) throws DirectoryException {
+        // The body is read as it arrives rather than being bound up front
+        return service.load(id, input);
+    }
+
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    DirectoryImport get(@PathVariable("id") UUID id) throws DirectoryException {
+        return service.get(id);
+    }
+}
@@ -0,0 +1,27 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a line of a bulk import cannot be read as a valid {@link Contact}.
+ * This maps to a {@code 400} response.
+ */
+@ResponseStatus(BAD_REQUEST)
+class DirectoryImportException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = -3081754962251447815L;
+
+    /**
+     * @param line is the line number of the {@link Contact}.
+     * @param message is the reason the {@link Contact} is not valid.
+     */
+    DirectoryImportException(long line, String message) {
+        super(String.format("Invalid contact on line %d: %s", line, message));
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+import java.util.UUID;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when looking up the {@link DirectoryImport} of a {@link Directory} which has none or
+ * whose import is no longer retained. This maps to a {@code 404} response.
+ */
+@ResponseStatus(NOT_FOUND)
+class DirectoryImportNotFoundException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = -6657329174590718843L;
+
+    /**
+     * @param id is the identifier of the directory.
+     */
+    DirectoryImportNotFoundException(UUID id) {
+        super(String.format("Directory import not found: %s", id));
+    }
+
+}
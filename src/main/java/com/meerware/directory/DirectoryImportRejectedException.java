@@ -0,0 +1,28 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+import java.util.UUID;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a bulk import cannot start because another one is still running for the same
+ * {@link Directory}. This maps to a {@code 409} response.
+ */
+@ResponseStatus(CONFLICT)
+class DirectoryImportRejectedException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 8156206630412457129L;
+
+    /**
+     * @param id is the identifier of the directory being imported into.
+     */
+    DirectoryImportRejectedException(UUID id) {
+        super(String.format("Directory import already running: %s", id));
+    }
+
+}
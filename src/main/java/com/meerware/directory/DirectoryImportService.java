@@ -0,0 +1,265 @@
+package com.meerware.directory;
+
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * {@link Service} importing {@link Contact} entities into a {@link Directory} from newline delimited
+ * {@code JSON}, one {@link Contact} per line. The input is read, validated and inserted one chunk at a time,
+ * each chunk in its own transaction, so memory use depends on the chunk size rather than the size of the input.
+ * The {@link DirectoryImport} of each {@link Directory} is kept for a while so its progress can be polled.
+ */
+@Service
+@Validated
+class DirectoryImportService {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryImportService.class);
+
+    /**
+     * Default number of {@link Contact} entities validated and inserted per chunk.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Default number of imports kept.
+     */
+    private static final long DEFAULT_RETAINED = 1000;
+
+    /**
+     * Default time imports are kept for after finishing.
+     */
+    private static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+
+    /**
+     * {@link DirectoryRepository} used to check the {@link Directory} exists.
+     */
+    private final DirectoryRepository repository;
+
+    /**
+     * {@link DirectoryContactRepository} used to insert the {@link Contact} entities.
+     */
+    private final DirectoryContactRepository contacts;
+
+    /**
+     * {@link ContactIndexCache} invalidated by each saved chunk.
+     */
+    private final ContactIndexCache indexes;
+
+    /**
+     * {@link Validator} used to check each {@link Contact}.
+     */
+    private final Validator validator;
+
+    /**
+     * {@link ObjectReader} of {@link Contact} entities.
+     */
+    private final ObjectReader reader;
+
+    /**
+     * {@link TransactionTemplate} used to save each chunk in its own transaction.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Number of {@link Contact} entities validated and inserted per chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * {@link DirectoryJobRegistry} of the running and retained {@link DirectoryImport} entities by {@link Directory}
+     * identifier.
+     */
+    private final DirectoryJobRegistry<DirectoryImport> imports;
+
+    /**
+     * @param repository is the {@link DirectoryRepository}.
+     * @param contacts is the {@link DirectoryContactRepository}.
+     * @param indexes is the {@link ContactIndexCache}.
+     * @param validator is the {@link Validator}.
+     * @param mapper is the {@link ObjectMapper}.
+     * @param transactionManager is the {@link PlatformTransactionManager}.
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    DirectoryImportService(
+            DirectoryRepository repository,
+            DirectoryContactRepository contacts,
+            ContactIndexCache indexes,
+            Validator validator,
+            ObjectMapper mapper,
+            PlatformTransactionManager transactionManager,
+            Environment environment) {
+        this.repository = repository;
+        this.contacts = contacts;
+        this.indexes = indexes;
+        this.validator = validator;
+        this.reader = mapper.readerFor(Contact.class);
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, environment.getProperty("directory.imports.chunk-size", Integer.class, DEFAULT_CHUNK_SIZE));
+        this.imports = new DirectoryJobRegistry<>(
+                environment.getProperty("directory.imports.retained", Long.class, DEFAULT_RETAINED),
+                environment.getProperty("directory.imports.retention", Duration.class, DEFAULT_RETENTION),
+                DirectoryImport::getStatus);
+    }
+
+    /**
+     * Attempts to import {@link Contact} entities into an existing {@link Directory}. Chunks saved before a
+     * failure are kept, and the {@link DirectoryImport} tells how many there were.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @param input is the newline delimited {@code JSON} {@link InputStream}. This cannot be {@code null}.
+     * @return the completed {@link DirectoryImport}.
+     * @throws DirectoryException if a line is not a valid {@link Contact}, if there is a problem writing the
+     *         {@link Contact} entities, if the {@link Directory} cannot be found or if it is already being imported into.
+     */
+    DirectoryImport load(@NotNull UUID id, @NotNull InputStream input) throws DirectoryException {
+        LOG.info("Attempting to import directory contacts: id=\"{}\"", id);
+        if (!repository.existsById(id)) {
+            LOG.info("Directory not found: id=\"{}\"", id);
+            throw new DirectoryNotFoundException(id);
+        }
+        final DirectoryImport started = DirectoryImport.start(id);
+        if (!imports.start(id, started)) {
+            LOG.info("Directory import already running: id=\"{}\"", id);
+            throw new DirectoryImportRejectedException(id);
+        }
+        try {
+            final DirectoryImport completed = read(started, input).complete();
+            imports.put(id, completed);
+            LOG.info("Successfully imported directory contacts: {}", completed);
+            return completed;
+        } catch (Exception exception) {
+            String reason = "Failed to save the imported contacts";
+            if (exception instanceof DirectoryException) {
+                reason = exception.getMessage();
+            }
+            final String failure = reason;
+            imports.update(id, current -> current.fail(failure));
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to import directory contacts", exception);
+            throw new DirectoryUpdateException(exception);
+        }
+    }
+
+    /**
+     * Attempts to get the {@link DirectoryImport} of a {@link Directory}.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @return the current state of the latest {@link DirectoryImport}.
+     * @throws DirectoryException if there is no {@link DirectoryImport} retained for the {@link Directory}.
+     */
+    DirectoryImport get(@NotNull UUID id) throws DirectoryException {
+        final DirectoryImport progress = imports.get(id);
+        if (progress == null) {
+            LOG.info("Directory import not found: id=\"{}\"", id);
+            throw new DirectoryImportNotFoundException(id);
+        }
+        return progress;
+    }
+
+    /**
+     * Reads, validates and saves the {@link Contact} entities one chunk at a time. Only the current chunk is
+     * held in memory.
+     *
+     * @param started is the started {@link DirectoryImport}.
+     * @param input is the newline delimited {@code JSON} {@link InputStream}.
+     * @return the {@link DirectoryImport} after the last chunk.
+     * @throws IOException if the input cannot be read.
+     */
+    private DirectoryImport read(DirectoryImport started, InputStream input) throws IOException {
+        DirectoryImport progress = started;
+        final List<Contact> chunk = newArrayListWithCapacity(chunkSize);
+        try (MappingIterator<Contact> iterator = reader.readValues(input)) {
+            while (iterator.hasNextValue()) {
+                final Contact contact = iterator.nextValue();
+                check(contact, iterator.getCurrentLocation().getLineNr());
+                chunk.add(contact);
+                if (chunk.size() == chunkSize) {
+                    progress = save(progress, chunk);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException exception) {
+            throw new DirectoryImportException(line(exception), exception.getOriginalMessage());
+        }
+        return save(progress, chunk);
+    }
+
+    /**
+     * @param exception is the {@link JsonProcessingException} of a line.
+     * @return the line number of the failure, {@code 0} if not known.
+     */
+    private static long line(JsonProcessingException exception) {
+        if (exception.getLocation() == null) {
+            return 0;
+        }
+        return exception.getLocation().getLineNr();
+    }
+
+    /**
+     * @param contact is the read {@link Contact}.
+     * @param line is the line number of the {@link Contact}.
+     * @throws DirectoryException if the {@link Contact} is not valid.
+     */
+    private void check(Contact contact, int line) throws DirectoryException {
+        final Set<ConstraintViolation<Contact>> violations = validator.validate(contact);
+        if (!violations.isEmpty()) {
+            final ConstraintViolation<Contact> violation = violations.iterator().next();
+            throw new DirectoryImportException(line, violation.getPropertyPath() + " " + violation.getMessage());
+        }
+    }
+
+    /**
+     * Inserts the {@link Contact} entities of a chunk which are not already present as a single {@code JDBC}
+     * batch and marks the {@link Directory} as modified, in one transaction. Repeated lines and lines already in the
+     * {@link Directory} are skipped, so it stays a set.
+     *
+     * @param progress is the current {@link DirectoryImport}.
+     * @param chunk is the {@link List} of validated {@link Contact} entities.
+     * @return the {@link DirectoryImport} with the chunk added.
+     */
+    private DirectoryImport save(DirectoryImport progress, List<Contact> chunk) {
+        if (chunk.isEmpty()) {
+            return progress;
+        }
+        final UUID id = progress.getDirectory();
+        final Integer inserted = transactions.execute(status -> {
+            final int count = contacts.insertAbsent(id, chunk).size();
+            contacts.touch(id);
+            return count;
+        });
+        indexes.invalidate(id);
+        final DirectoryImport saved = progress.save(inserted);
+        imports.put(id, saved);
+        LOG.info("Imported directory contacts chunk: {}", saved);
+        return saved;
+    }
+}
@@ -0,0 +1,219 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+import static java.util.UUID.randomUUID;
+
+import java.util.Date;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Asynchronous job which applies a {@link DirectoryOperation} and saves the result as a new
+ * {@link Directory}. Each change of status creates a new instance.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonInclude(NON_EMPTY)
+final class DirectoryJob {
+
+    /**
+     * Identifier.
+     */
+    private final UUID id;
+
+    /**
+     * {@link DirectoryOperation} being applied.
+     */
+    private final DirectoryOperation operation;
+
+    /**
+     * {@link DirectoryJobStatus}.
+     */
+    private final DirectoryJobStatus status;
+
+    /**
+     * Identifier of the saved {@link Directory}, only set once completed.
+     */
+    @Nullable
+    private final UUID directory;
+
+    /**
+     * Number of {@link Contact} entities in the saved {@link Directory}.
+     */
+    private final long contacts;
+
+    /**
+     * Reason for failing, only set once failed.
+     */
+    @Nullable
+    private final String error;
+
+    /**
+     * Time the job was submitted, in milliseconds.
+     */
+    private final long submitted;
+
+    /**
+     * Time the job finished, in milliseconds, {@code 0} if not yet finished.
+     */
+    private final long finished;
+
+    /**
+     * @param id is the identifier.
+     * @param operation is the {@link DirectoryOperation}.
+     * @param status is the {@link DirectoryJobStatus}.
+     * @param directory is the identifier of the saved {@link Directory}.
+     * @param contacts is the number of saved {@link Contact} entities.
+     * @param error is the reason for failing.
+     * @param submitted is the time the job was submitted.
+     * @param finished is the time the job finished.
+     */
+    private DirectoryJob(
+            UUID id,
+            DirectoryOperation operation,
+            DirectoryJobStatus status,
+            @Nullable UUID directory,
+            long contacts,
+            @Nullable String error,
+            long submitted,
+            long finished) {
+        this.id = id;
+        this.operation = operation;
+        this.status = status;
+        this.directory = directory;
+        this.contacts = contacts;
+        this.error = error;
+        this.submitted = submitted;
+        this.finished = finished;
+    }
+
+    /**
+     * @param operation is the {@link DirectoryOperation} to apply.
+     * @return a new {@link DirectoryJob} with a new identifier.
+     */
+    static DirectoryJob submit(DirectoryOperation operation) {
+        return new DirectoryJob(
+                randomUUID(), operation, DirectoryJobStatus.SUBMITTED, null, 0, null, System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * @return a copy in the {@link DirectoryJobStatus#RUNNING} status.
+     */
+    DirectoryJob run() {
+        return new DirectoryJob(id, operation, DirectoryJobStatus.RUNNING, null, 0, null, submitted, 0);
+    }
+
+    /**
+     * @param saved is the identifier of the saved {@link Directory}.
+     * @param count is the number of saved {@link Contact} entities.
+     * @return a copy in the {@link DirectoryJobStatus#COMPLETED} status.
+     */
+    DirectoryJob complete(UUID saved, long count) {
+        return new DirectoryJob(
+                id, operation, DirectoryJobStatus.COMPLETED, saved, count, null, submitted, System.currentTimeMillis());
+    }
+
+    /**
+     * @param reason is the reason for failing.
+     * @return a copy in the {@link DirectoryJobStatus#FAILED} status.
+     */
+    DirectoryJob fail(String reason) {
+        return new DirectoryJob(
+                id, operation, DirectoryJobStatus.FAILED, null, 0, reason, submitted, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the identifier.
+     */
+    @JsonGetter
+    UUID getId() {
+        return id;
+    }
+
+    /**
+     * @return the {@link DirectoryOperation}.
+     */
+    @JsonGetter
+    DirectoryOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the {@link DirectoryJobStatus}.
+     */
+    @JsonGetter
+    DirectoryJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the identifier of the saved {@link Directory}, {@code null} unless completed.
+     */
+    @Nullable
+    @JsonGetter
+    UUID getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the number of saved {@link Contact} entities.
+     */
+    @JsonGetter
+    long getContacts() {
+        return contacts;
+    }
+
+    /**
+     * @return the reason for failing, {@code null} unless failed.
+     */
+    @Nullable
+    @JsonGetter
+    String getError() {
+        return error;
+    }
+
+    /**
+     * @return the time the job was submitted.
+     */
+    @JsonGetter
+    Date getSubmitted() {
+        return new Date(submitted);
+    }
+
+    /**
+     * @return the time the job finished, {@code null} if not yet finished.
+     */
+    @Nullable
+    @JsonGetter
+    Date getFinished() {
+        if (finished == 0) {
+            return null;
+        }
+        return new Date(finished);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("id=\"");
+        builder.append(id);
+        builder.append("\", status=");
+        builder.append(status);
+        builder.append(", ");
+        builder.append(operation);
+        if (directory != null) {
+            builder.append(", directory=\"");
+            builder.append(directory);
+            builder.append("\", contacts=");
+            builder.append(contacts);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for submitting and polling {@link DirectoryJob} entities.
+ */
+@RestController
+@RequestMapping(
+        path = "/directories/jobs")
+class DirectoryJobController {
+
+    /**
+     * {@link DirectoryJobService} used to submit and get {@link DirectoryJob} entities.
+     */
+    private DirectoryJobService service;
+
+    /**
+     * @param service is the {@link DirectoryJobService}.
+     */
+    @Autowired
+    DirectoryJobController(DirectoryJobService service) {
+        this.service = service;
+    }
+
+    @PostMapping(produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE)
+    @ResponseStatus(ACCEPTED)
+    DirectoryJob submit(@RequestBody DirectoryOperation operation) throws DirectoryException {
+        return service.submit(operation);
+    }
+
+    @GetMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(OK)
+    DirectoryJob get(@PathVariable("id") UUID id) throws DirectoryException {
+        return service.get(id);
+    }
+}
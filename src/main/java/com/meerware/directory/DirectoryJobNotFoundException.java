@@ -0,0 +1,28 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+import java.util.UUID;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when looking up a {@link DirectoryJob} which does not exist or is no longer retained.
+ * This maps to a {@code 404} response.
+ */
+@ResponseStatus(NOT_FOUND)
+class DirectoryJobNotFoundException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = -1428840265329637725L;
+
+    /**
+     * @param id is the identifier of the job not found.
+     */
+    DirectoryJobNotFoundException(UUID id) {
+        super(String.format("Directory job not found: %s", id));
+    }
+
+}
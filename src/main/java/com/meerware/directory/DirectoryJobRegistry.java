@@ -0,0 +1,123 @@
+package com.meerware.directory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Registry of background jobs by identifier, so they can be polled. Jobs which are
+ * {@link DirectoryJobStatus#SUBMITTED} or {@link DirectoryJobStatus#RUNNING} are pinned until they finish, however
+ * long they take, while finished ones are kept in a {@link Cache} bounded by size and by the time since they finished.
+ * Only the thread running a job is expected to change it.
+ *
+ * @param <V> is the type of the job.
+ */
+final class DirectoryJobRegistry<V> {
+
+    /**
+     * Submitted and running jobs by identifier.
+     */
+    private final ConcurrentMap<UUID, V> active = new ConcurrentHashMap<>();
+
+    /**
+     * Finished jobs by identifier.
+     */
+    private final Cache<UUID, V> finished;
+
+    /**
+     * {@link Function} giving the {@link DirectoryJobStatus} of a job.
+     */
+    private final Function<? super V, DirectoryJobStatus> status;
+
+    /**
+     * @param retained is the number of finished jobs kept.
+     * @param retention is the time finished jobs are kept for.
+     * @param status is the {@link Function} giving the {@link DirectoryJobStatus} of a job.
+     */
+    DirectoryJobRegistry(long retained, Duration retention, Function<? super V, DirectoryJobStatus> status) {
+        this.finished = CacheBuilder.newBuilder()
+                .maximumSize(retained)
+                .expireAfterWrite(retention)
+                .build();
+        this.status = status;
+    }
+
+    /**
+     * Starts a job, unless another job with the same identifier is still submitted or running.
+     *
+     * @param id is the identifier.
+     * @param job is the submitted or running job.
+     * @return whether the job was started.
+     */
+    boolean start(UUID id, V job) {
+        return active.putIfAbsent(id, job) == null;
+    }
+
+    /**
+     * Keeps the new state of a job, unpinning it once finished.
+     *
+     * @param id is the identifier.
+     * @param job is the new state of the job.
+     */
+    void put(UUID id, V job) {
+        if (isActive(job)) {
+            active.put(id, job);
+        } else {
+            // Kept as finished before being unpinned, so polling never misses it
+            finished.put(id, job);
+            active.remove(id);
+        }
+    }
+
+    /**
+     * Changes a submitted or running job, if there is one.
+     *
+     * @param id is the identifier.
+     * @param change is the {@link UnaryOperator} giving the new state of the job.
+     */
+    void update(UUID id, UnaryOperator<V> change) {
+        final V current = active.get(id);
+        if (current != null) {
+            put(id, change.apply(current));
+        }
+    }
+
+    /**
+     * Forgets a job which was never run.
+     *
+     * @param id is the identifier.
+     */
+    void remove(UUID id) {
+        active.remove(id);
+    }
+
+    /**
+     * @param id is the identifier.
+     * @return the current state of the job, {@code null} if there is none or it finished too long ago.
+     */
+    @Nullable
+    V get(UUID id) {
+        final V job = active.get(id);
+        if (job == null) {
+            return finished.getIfPresent(id);
+        }
+        return job;
+    }
+
+    /**
+     * @param job is the job.
+     * @return whether the job is submitted or running.
+     */
+    private boolean isActive(V job) {
+        final DirectoryJobStatus current = status.apply(job);
+        return current == DirectoryJobStatus.SUBMITTED || current == DirectoryJobStatus.RUNNING;
+    }
+}
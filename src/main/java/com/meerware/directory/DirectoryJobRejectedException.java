@@ -0,0 +1,26 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a {@link DirectoryJob} cannot be accepted because too many are already waiting.
+ * This maps to a {@code 503} response.
+ */
+@ResponseStatus(SERVICE_UNAVAILABLE)
+class DirectoryJobRejectedException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 4721106397251183260L;
+
+    /**
+     * Default constructor.
+     */
+    DirectoryJobRejectedException() {
+        super("Too many directory jobs waiting");
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link Service} running {@link DirectoryJob} entities. Jobs run on a bounded pool of threads, so request
+ * threads are not held while large results are saved. They can be polled until they finish and for a while
+ * after.
+ */
+@Service
+@Validated
+class DirectoryJobService {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DirectoryJobService.class);
+
+    /**
+     * Number of {@link Contact} entities inserted per batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Default number of jobs run at the same time.
+     */
+    private static final int DEFAULT_THREADS = 2;
+
+    /**
+     * Default number of jobs waiting to run.
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    /**
+     * Default number of jobs kept.
+     */
+    private static final long DEFAULT_RETAINED = 1000;
+
+    /**
+     * Default time jobs are kept for after finishing.
+     */
+    private static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+
+    /**
+     * {@link DirectoryService} used to check and read the {@link DirectoryOperation}.
+     */
+    private final DirectoryService service;
+
+    /**
+     * {@link DirectoryRepository} used to save the resulting {@link Directory}.
+     */
+    private final DirectoryRepository repository;
+
+    /**
+     * {@link DirectoryContactRepository} used to save the resulting {@link Contact} entities.
+     */
+    private final DirectoryContactRepository contacts;
+
+    /**
+     * {@link Validator} used to check the resulting {@link Directory} before submitting.
+     */
+    private final Validator validator;
+
+    /**
+     * {@link TransactionTemplate} used to save each result in a single transaction.
+     */
+    private final TransactionTemplate transactions;
+
+    /**
+     * Bounded {@link ThreadPoolExecutor} running the jobs.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * {@link DirectoryJobRegistry} of the running and retained {@link DirectoryJob} entities.
+     */
+    private final DirectoryJobRegistry<DirectoryJob> jobs;
+
+    /**
+     * @param service is the {@link DirectoryService}.
+     * @param repository is the {@link DirectoryRepository}.
+     * @param contacts is the {@link DirectoryContactRepository}.
+     * @param validator is the {@link Validator}.
+     * @param transactionManager is the {@link PlatformTransactionManager}.
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    DirectoryJobService(
+            DirectoryService service,
+            DirectoryRepository repository,
+            DirectoryContactRepository contacts,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            Environment environment) {
+        this.service = service;
+        this.repository = repository;
+        this.contacts = contacts;
+        this.validator = validator;
+        this.transactions = new TransactionTemplate(transactionManager);
+
+        final int threads = environment.getProperty("directory.jobs.threads", Integer.class, DEFAULT_THREADS);
+        final int capacity = environment.getProperty(
+                "directory.jobs.queue-capacity", Integer.class, DEFAULT_QUEUE_CAPACITY);
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                new ThreadFactoryBuilder().setNameFormat("directory-job-%d").setDaemon(true).build());
+        this.jobs = new DirectoryJobRegistry<>(
+                environment.getProperty("directory.jobs.retained", Long.class, DEFAULT_RETAINED),
+                environment.getProperty("directory.jobs.retention", Duration.class, DEFAULT_RETENTION),
+                DirectoryJob::getStatus);
+    }
+
+    /**
+     * Attempts to submit a {@link DirectoryJob}. The {@link DirectoryOperation} is checked straight away,
+     * the result is computed and saved later.
+     *
+     * @param operation is the {@link DirectoryOperation} to apply. This cannot be {@code null}.
+     * @return the submitted {@link DirectoryJob}.
+     * @throws DirectoryException if the {@link DirectoryOperation} is not valid, if any {@link Directory}
+     *         cannot be found or if too many jobs are waiting.
+     */
+    DirectoryJob submit(@NotNull DirectoryOperation operation) throws DirectoryException {
+        LOG.info("Attempting to submit directory job: {}", operation);
+        if (!validator.validate(new Directory(operation.getName(), ImmutableList.of())).isEmpty()) {
+            throw new DirectoryOperationException("invalid name");
+        }
+        final ContactStream stream = service.combine(operation);
+
+        final DirectoryJob job = DirectoryJob.submit(operation);
+        jobs.start(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, stream));
+        } catch (RejectedExecutionException exception) {
+            jobs.remove(job.getId());
+            LOG.warn("Directory job rejected: {}", job);
+            throw new DirectoryJobRejectedException();
+        }
+        LOG.info("Successfully submitted directory job: {}", job);
+        return job;
+    }
+
+    /**
+     * Attempts to get a {@link DirectoryJob} by identifier.
+     *
+     * @param id is the identifier of the {@link DirectoryJob}. This cannot be {@code null}.
+     * @return the current state of the {@link DirectoryJob}.
+     * @throws DirectoryException if the {@link DirectoryJob} cannot be found.
+     */
+    DirectoryJob get(@NotNull UUID id) throws DirectoryException {
+        final DirectoryJob job = jobs.get(id);
+        if (job == null) {
+            LOG.info("Directory job not found: id=\"{}\"", id);
+            throw new DirectoryJobNotFoundException(id);
+        }
+        return job;
+    }
+
+    /**
+     * Stops running jobs on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a {@link DirectoryJob}, saving the {@link Directory} and its {@link Contact} entities in a single
+     * transaction. The {@link Contact} entities are inserted in batches as they are read.
+     *
+     * @param submitted is the submitted {@link DirectoryJob}.
+     * @param stream is the {@link ContactStream} of the result.
+     */
+    private void run(DirectoryJob submitted, ContactStream stream) {
+        final DirectoryJob running = submitted.run();
+        jobs.put(running.getId(), running);
+        try {
+            LOG.info("Attempting to run directory job: {}", running);
+            final DirectoryJob completed = transactions.execute(status -> {
+                final Directory directory = repository.saveAndFlush(
+                        new Directory(running.getOperation().getName(), ImmutableList.of()));
+                final List<Contact> batch = newArrayListWithCapacity(BATCH_SIZE);
+                final AtomicLong count = new AtomicLong();
+                stream.forEach(contact -> {
+                    batch.add(contact);
+                    if (batch.size() == BATCH_SIZE) {
+                        contacts.insert(directory.getId(), batch);
+                        count.addAndGet(batch.size());
+                        batch.clear();
+                    }
+                });
+                contacts.insert(directory.getId(), batch);
+                count.addAndGet(batch.size());
+                return running.complete(directory.getId(), count.get());
+            });
+            jobs.put(completed.getId(), completed);
+            LOG.info("Successfully ran directory job: {}", completed);
+        } catch (Exception exception) {
+            LOG.error("Failed to run directory job: " + running, exception);
+            jobs.put(running.getId(), running.fail("Failed to save the operation result"));
+        }
+    }
+}
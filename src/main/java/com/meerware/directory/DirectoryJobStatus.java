@@ -0,0 +1,39 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Status of a {@link DirectoryJob}.
+ */
+enum DirectoryJobStatus {
+
+    /**
+     * Waiting to be run.
+     */
+    SUBMITTED,
+
+    /**
+     * Being run.
+     */
+    RUNNING,
+
+    /**
+     * Finished and the result saved.
+     */
+    COMPLETED,
+
+    /**
+     * Finished without saving a result.
+     */
+    FAILED;
+
+    /**
+     * @return the lower case name.
+     */
+    @JsonValue
+    String toValue() {
+        return lowerCase(name());
+    }
+}
@@ -0,0 +1,26 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a lookup of the {@link Directory} entities holding a {@link Contact} is not valid.
+ * This maps to a {@code 400} response.
+ */
+@ResponseStatus(BAD_REQUEST)
+class DirectoryLookupException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 2870467121380985413L;
+
+    /**
+     * @param message is the reason the lookup is not valid.
+     */
+    DirectoryLookupException(String message) {
+        super(String.format("Invalid lookup: %s", message));
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.meerware.directory;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Auto {@link Configuration} of the metrics of the in process caches of the directory, available on the metrics
+ * end point.
+ */
+@Configuration
+class DirectoryMetricsAutoConfiguration {
+
+    /**
+     * Publishes the hits, misses, evictions and size of the {@link PhoneNumbers} memo as the {@code directory.phones}
+     * cache, for example {@code cache.gets} tagged with {@code result=hit}.
+     *
+     * @return the {@link MeterBinder} of the {@link PhoneNumbers} memo.
+     */
+    @Bean
+    MeterBinder directoryPhonesMeterBinder() {
+        return registry -> GuavaCacheMetrics.monitor(registry, PhoneNumbers.cache(), "directory.phones");
+    }
+}
@@ -0,0 +1,109 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A {@link SetOperation} to apply over the {@link Contact} entities of a number of {@link Directory}
+ * entities. The order of the {@link Directory} identifiers matters for {@link SetOperation#DIFFERENCE}.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(NON_EMPTY)
+final class DirectoryOperation {
+
+    /**
+     * {@link SetOperation} to apply.
+     */
+    @Nullable
+    private final SetOperation operation;
+
+    /**
+     * Identifiers of the {@link Directory} entities, by position.
+     */
+    private final List<UUID> directories;
+
+    /**
+     * Optional name of the {@link Directory} the result is saved as, only used when the result is saved.
+     */
+    @Nullable
+    private final String name;
+
+    /**
+     * @param operation is the {@link SetOperation}.
+     * @param directories is the {@link Iterable} of {@link Directory} identifiers, can be {@code null}.
+     */
+    DirectoryOperation(@Nullable SetOperation operation, @Nullable Iterable<UUID> directories) {
+        this(operation, directories, null);
+    }
+
+    /**
+     * @param operation is the {@link SetOperation}.
+     * @param directories is the {@link Iterable} of {@link Directory} identifiers, can be {@code null}.
+     * @param name is the optional name of the {@link Directory} the result is saved as.
+     */
+    @JsonCreator
+    DirectoryOperation(
+            @JsonProperty("operation") @Nullable SetOperation operation,
+            @JsonProperty("directories") @Nullable Iterable<UUID> directories,
+            @JsonProperty("name") @Nullable String name) {
+        this.operation = operation;
+        this.name = name;
+        if (directories == null) {
+            this.directories = ImmutableList.of();
+        } else {
+            this.directories = ImmutableList.copyOf(directories);
+        }
+    }
+
+    /**
+     * @return the {@link SetOperation}, {@code null} if missing.
+     */
+    @Nullable
+    @JsonGetter
+    SetOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return an immutable {@link List} of {@link Directory} identifiers.
+     */
+    @JsonGetter
+    List<UUID> getDirectories() {
+        return directories;
+    }
+
+    /**
+     * @return the optional name of the {@link Directory} the result is saved as.
+     */
+    @Nullable
+    @JsonGetter
+    String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("operation=");
+        builder.append(operation);
+        builder.append(", directories=");
+        builder.append(directories);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a {@link DirectoryOperation} given by a client is not valid.
+ * This maps to a {@code 400} response.
+ */
+@ResponseStatus(BAD_REQUEST)
+class DirectoryOperationException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 6035182748372211640L;
+
+    /**
+     * @param message is the reason the operation is not valid.
+     */
+    DirectoryOperationException(String message) {
+        super(String.format("Invalid operation: %s", message));
+    }
+
+}
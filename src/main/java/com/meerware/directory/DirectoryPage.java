@@ -0,0 +1,71 @@
+package com.meerware.directory;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A single page of {@link Directory} identifiers, with the cursor used to request the page after it.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@JsonInclude(NON_EMPTY)
+final class DirectoryPage {
+
+    /**
+     * {@link Directory} identifiers on the page, in ascending order.
+     */
+    private final List<UUID> directories;
+
+    /**
+     * Last {@link Directory} identifier, {@code null} if this is the last page.
+     */
+    @Nullable
+    private final UUID next;
+
+    /**
+     * @param directories is the {@link Iterable} of {@link Directory} identifiers on the page.
+     * @param next is the {@link Directory} identifier to continue after, {@code null} if there are no more pages.
+     */
+    DirectoryPage(Iterable<UUID> directories, @Nullable UUID next) {
+        this.directories = ImmutableList.copyOf(directories);
+        this.next = next;
+    }
+
+    /**
+     * @return an immutable {@link List} of the {@link Directory} identifiers on the page.
+     */
+    @JsonGetter
+    List<UUID> getDirectories() {
+        return directories;
+    }
+
+    /**
+     * @return the cursor of the next page or {@code null} if this is the last page.
+     */
+    @Nullable
+    @JsonGetter
+    UUID getNext() {
+        return next;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("directories=");
+        builder.append(directories.size());
+        builder.append(", last=");
+        builder.append(next == null);
+        return builder.toString();
+    }
+}
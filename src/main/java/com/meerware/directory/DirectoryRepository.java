@@ -1,13 +1,24 @@
 package com.meerware.directory;
 
+import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  *
  */
-interface DirectoryRepository extends CrudRepository<Directory, UUID> {
+interface DirectoryRepository extends JpaRepository<Directory, UUID> {
 
+    /**
+     * Finds the version of a {@link Directory} without loading it.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     * @return the version, empty if the {@link Directory} does not exist.
+     */
+    @Query("select directory.version from Directory directory where directory.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
 
 }
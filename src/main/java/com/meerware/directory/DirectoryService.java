@@ -1,10 +1,16 @@
 package com.meerware.directory;
 
 import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
@@ -14,6 +20,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 /**
  * {@link Service} for accessing {@link Directory} entities.
  * This offers the {@code CRUD} operations.
@@ -27,17 +36,60 @@ class DirectoryService {
      */
     private static final Logger LOG = getLogger(DirectoryService.class);
 
+    /**
+     * Largest number of {@link Contact} entities returned on a single {@link ContactPage}.
+     */
+    private static final int MAXIMUM_PAGE_SIZE = 1000;
+
+    /**
+     * Largest number of {@link Contact} entities returned by a single search.
+     */
+    private static final int MAXIMUM_SEARCH_SIZE = 100;
+
+    /**
+     * Largest number of {@link Directory} entities in a single {@link DirectoryOperation}, each one
+     * holds an open cursor while the result is read.
+     */
+    private static final int MAXIMUM_OPERATION_DIRECTORIES = 100;
+
     /**
      * Underlying {@link DirectoryRepository} used for storage.
      */
     private final DirectoryRepository repository;
 
+    /**
+     * {@link DirectoryContactRepository} used to read {@link Contact} entities without
+     * loading the whole {@link Directory}.
+     */
+    private final DirectoryContactRepository contacts;
+
+    /**
+     * {@link ContactIndexCache} used for typeahead, kept current by every write.
+     */
+    private final ContactIndexCache indexes;
+
+    /**
+     * {@link ContactValidator} checking the {@link Contact} entities of created and updated {@link Directory}
+     * entities, in parallel for large ones.
+     */
+    private final ContactValidator validator;
+
     /**
      * @param repository is the {@link DirectoryRepository}.
+     * @param contacts is the {@link DirectoryContactRepository}.
+     * @param indexes is the {@link ContactIndexCache}.
+     * @param validator is the {@link ContactValidator}.
      */
     @Autowired
-    DirectoryService(DirectoryRepository repository) {
+    DirectoryService(
+            DirectoryRepository repository,
+            DirectoryContactRepository contacts,
+            ContactIndexCache indexes,
+            ContactValidator validator) {
         this.repository = repository;
+        this.contacts = contacts;
+        this.indexes = indexes;
+        this.validator = validator;
     }
 
     /**
@@ -66,21 +118,299 @@ class DirectoryService {
         }
     }
 
+    /**
+     * Attempts to get the entity tag of a {@link Directory}, made from its identifier and version.
+     * The {@link Directory} itself is not loaded.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @return the entity tag, which changes whenever the {@link Directory} does.
+     * @throws DirectoryException if there is a problem reading the {@link Directory}
+     *         or if the {@link Directory} cannot be found.
+     */
+    String tag(@NotNull UUID id) throws DirectoryException {
+        try {
+            LOG.info("Attempting to read directory tag: id=\"{}\"", id);
+            final Long version = repository.findVersionById(id)
+                    .orElseThrow(() -> {
+                        LOG.info("Directory not found: id=\"{}\"", id);
+                        return new DirectoryNotFoundException(id);
+                    });
+            final String tag = id + "-" + Long.toHexString(version);
+            LOG.info("Successfully read directory tag: id=\"{}\", tag=\"{}\"", id, tag);
+            return tag;
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to read directory tag", exception);
+            throw new DirectoryReadException(exception);
+        }
+    }
+
+    /**
+     * Attempts to get a page of {@link Contact} entities of a {@link Directory}. Only the
+     * {@link Contact} entities on the page are read.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @param after is the cursor of the page to read, {@code null} for the first page.
+     * @param size is the requested page size. This is limited to between {@code 1} and {@value #MAXIMUM_PAGE_SIZE}.
+     * @return the {@link ContactPage}.
+     * @throws DirectoryException if there is a problem reading the {@link Contact} entities,
+     *         if the cursor is not valid or if the {@link Directory} cannot be found.
+     */
+    ContactPage contacts(@NotNull UUID id, @Nullable String after, int size) throws DirectoryException {
+        try {
+            LOG.info("Attempting to read directory contacts: id=\"{}\", size={}", id, size);
+            ContactKey key = null;
+            if (after != null) {
+                key = ContactKey.decode(after);
+            }
+            if (!repository.existsById(id)) {
+                LOG.info("Directory not found: id=\"{}\"", id);
+                throw new DirectoryNotFoundException(id);
+            }
+            final ContactPage page = contacts.findPage(id, key, Math.max(1, Math.min(size, MAXIMUM_PAGE_SIZE)));
+            LOG.info("Successfully read directory contacts: id=\"{}\", {}", id, page);
+            return page;
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to read directory contacts", exception);
+            throw new DirectoryReadException(exception);
+        }
+    }
+
+    /**
+     * Attempts to find the {@link Directory} entities holding a {@link Contact} with an email, ignoring case, or with a
+     * phone, comparing canonical forms. Exactly one of them is looked up.
+     *
+     * @param email is the email, {@code null} when looking up a phone.
+     * @param phone is the phone, {@code null} when looking up an email.
+     * @param after is the {@link Directory} identifier to continue after, {@code null} for the first page.
+     * @param size is the requested page size. This is limited to between {@code 1} and {@value #MAXIMUM_PAGE_SIZE}.
+     * @return the {@link DirectoryPage}.
+     * @throws DirectoryException if the lookup is not valid or if there is a problem reading the
+     *         {@link Contact} entities.
+     */
+    DirectoryPage lookup(@Nullable String email, @Nullable String phone, @Nullable UUID after, int size)
+            throws DirectoryException {
+        try {
+            LOG.info("Attempting to look up directories: email=\"{}\", phone=\"{}\", size={}", email, phone, size);
+            if (isBlank(email) == isBlank(phone)) {
+                throw new DirectoryLookupException("expected either an email or a phone");
+            }
+            final int limit = Math.max(1, Math.min(size, MAXIMUM_PAGE_SIZE));
+            final DirectoryPage page;
+            if (isBlank(phone)) {
+                page = contacts.findDirectoriesByEmail(email.trim(), after, limit);
+            } else if (DirectoryContactRepository.digits(phone).isEmpty()) {
+                throw new DirectoryLookupException("phone has no digits");
+            } else {
+                page = contacts.findDirectoriesByPhone(phone, after, limit);
+            }
+            LOG.info("Successfully looked up directories: {}", page);
+            return page;
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to look up directories", exception);
+            throw new DirectoryReadException(exception);
+        }
+    }
+
+    /**
+     * Attempts to search the {@link Contact} entities of a {@link Directory} by the start of their name, email,
+     * phone, locality or postcode, ignoring case.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @param query is the searched prefix. This cannot be {@code null}.
+     * @param size is the requested number of results. This is limited to between {@code 1} and
+     *        {@value #MAXIMUM_SEARCH_SIZE}.
+     * @return the {@link List} of found {@link Contact} entities, empty for a blank query.
+     * @throws DirectoryException if there is a problem reading the {@link Contact} entities
+     *         or if the {@link Directory} cannot be found.
+     */
+    List<Contact> search(@NotNull UUID id, @NotNull String query, int size) throws DirectoryException {
+        try {
+            LOG.info("Attempting to search directory contacts: id=\"{}\", query=\"{}\"", id, query);
+            if (!repository.existsById(id)) {
+                LOG.info("Directory not found: id=\"{}\"", id);
+                throw new DirectoryNotFoundException(id);
+            }
+            final String prefix = trimToEmpty(query);
+            List<Contact> found = ImmutableList.of();
+            if (!prefix.isEmpty()) {
+                found = contacts.search(id, prefix, Math.max(1, Math.min(size, MAXIMUM_SEARCH_SIZE)));
+            }
+            LOG.info("Successfully searched directory contacts: id=\"{}\", found={}", id, found.size());
+            return found;
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to search directory contacts", exception);
+            throw new DirectoryReadException(exception);
+        }
+    }
+
+    /**
+     * Attempts to find the {@link Contact} entities of a {@link Directory} for typeahead, from the in memory
+     * {@link ContactIndex} of the {@link Directory}. Every token of the query has to start a token of the name,
+     * email or {@link Address} of a found {@link Contact}, ignoring case. The {@link ContactIndex} is loaded
+     * on the first lookup of a {@link Directory}.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @param query is the typed query. This cannot be {@code null}.
+     * @param size is the requested number of results. This is limited to between {@code 1} and
+     *        {@value #MAXIMUM_SEARCH_SIZE}.
+     * @return the {@link List} of found {@link Contact} entities, empty for a blank query.
+     * @throws DirectoryException if there is a problem reading the {@link Contact} entities
+     *         or if the {@link Directory} cannot be found.
+     */
+    List<Contact> typeahead(@NotNull UUID id, @NotNull String query, int size) throws DirectoryException {
+        try {
+            LOG.info("Attempting to typeahead directory contacts: id=\"{}\", query=\"{}\"", id, query);
+            final ContactIndex index = indexes.get(id, () -> load(id));
+            final List<Contact> found = index.find(query, Math.max(1, Math.min(size, MAXIMUM_SEARCH_SIZE)));
+            LOG.info("Successfully typed ahead directory contacts: id=\"{}\", found={}", id, found.size());
+            return found;
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to typeahead directory contacts", exception);
+            throw new DirectoryReadException(exception);
+        }
+    }
+
+    /**
+     * Loads the {@link ContactIndex} of a {@link Directory}, reading its {@link Contact} entities through a
+     * forward only cursor.
+     *
+     * @param id is the identifier of the {@link Directory}.
+     * @return the {@link ContactIndex}.
+     * @throws DirectoryException if the {@link Directory} cannot be found.
+     */
+    private ContactIndex load(UUID id) throws DirectoryException {
+        if (!repository.existsById(id)) {
+            LOG.info("Directory not found: id=\"{}\"", id);
+            throw new DirectoryNotFoundException(id);
+        }
+        final List<Contact> all = newArrayList();
+        contacts.export(id, all::add);
+        final ContactIndex index = ContactIndex.of(all);
+        LOG.info("Loaded directory contact index: id=\"{}\", {}", id, index);
+        return index;
+    }
+
+    /**
+     * Attempts to export all the {@link Contact} entities of a {@link Directory}. They are read through a
+     * forward only cursor when the returned {@link ContactStream} is read, in no particular order.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @return the {@link ContactStream} of the {@link Contact} entities.
+     * @throws DirectoryException if there is a problem reading the {@link Directory}
+     *         or if the {@link Directory} cannot be found.
+     */
+    ContactStream export(@NotNull UUID id) throws DirectoryException {
+        return stream("export", ImmutableList.of(id), action -> contacts.export(id, action));
+    }
+
+    /**
+     * Attempts to get the union of the {@link Contact} entities of two {@link Directory} entities.
+     * The set operation is done by the database when the returned {@link ContactStream} is read.
+     *
+     * @param first is the identifier of the first {@link Directory}. This cannot be {@code null}.
+     * @param second is the identifier of the second {@link Directory}. This cannot be {@code null}.
+     * @return the {@link ContactStream} of the union.
+     * @throws DirectoryException if there is a problem reading the {@link Directory} entities
+     *         or if either {@link Directory} cannot be found.
+     */
+    ContactStream union(@NotNull UUID first, @NotNull UUID second) throws DirectoryException {
+        return stream("union", ImmutableList.of(first, second), action -> contacts.union(first, second, action));
+    }
+
+    /**
+     * Attempts to get the intersection of the {@link Contact} entities of two {@link Directory} entities.
+     * The set operation is done by the database when the returned {@link ContactStream} is read.
+     *
+     * @param first is the identifier of the first {@link Directory}. This cannot be {@code null}.
+     * @param second is the identifier of the second {@link Directory}. This cannot be {@code null}.
+     * @return the {@link ContactStream} of the intersection.
+     * @throws DirectoryException if there is a problem reading the {@link Directory} entities
+     *         or if either {@link Directory} cannot be found.
+     */
+    ContactStream intersection(@NotNull UUID first, @NotNull UUID second) throws DirectoryException {
+        return stream("intersection", ImmutableList.of(first, second),
+                action -> contacts.intersection(first, second, action));
+    }
+
+    /**
+     * Attempts to apply a {@link SetOperation} over the {@link Contact} entities of any number of
+     * {@link Directory} entities. The sorted {@link Contact} entities of each {@link Directory} are merged
+     * in a single pass when the returned {@link ContactStream} is read.
+     *
+     * @param operation is the {@link DirectoryOperation}. This cannot be {@code null}.
+     * @return the {@link ContactStream} of the result.
+     * @throws DirectoryException if the {@link DirectoryOperation} is not valid, if there is a problem
+     *         reading the {@link Directory} entities or if any {@link Directory} cannot be found.
+     */
+    ContactStream combine(@NotNull DirectoryOperation operation) throws DirectoryException {
+        final SetOperation type = operation.getOperation();
+        final List<UUID> directories = operation.getDirectories();
+        if (type == null) {
+            throw new DirectoryOperationException("missing operation");
+        }
+        if (directories.isEmpty() || directories.size() > MAXIMUM_OPERATION_DIRECTORIES) {
+            throw new DirectoryOperationException(
+                    "expected between 1 and " + MAXIMUM_OPERATION_DIRECTORIES + " directories");
+        }
+        return stream(type.toValue(), directories, action -> contacts.combine(directories, type, action));
+    }
+
+    /**
+     * Checks the {@link Directory} entities exist before handing out the {@link ContactStream}, so a
+     * missing {@link Directory} is reported before any output is written.
+     *
+     * @param operation is the name of the set operation, used for logging.
+     * @param directories is the {@link List} of {@link Directory} identifiers.
+     * @param stream is the {@link ContactStream} doing the set operation.
+     * @return the {@link ContactStream}.
+     * @throws DirectoryException if there is a problem reading the {@link Directory} entities
+     *         or if any {@link Directory} cannot be found.
+     */
+    private ContactStream stream(String operation, List<UUID> directories, ContactStream stream)
+            throws DirectoryException {
+        try {
+            LOG.info("Attempting to read directory {}: ids={}", operation, directories);
+            for (UUID id : ImmutableSet.copyOf(directories)) {
+                if (!repository.existsById(id)) {
+                    LOG.info("Directory not found: id=\"{}\"", id);
+                    throw new DirectoryNotFoundException(id);
+                }
+            }
+            return action -> {
+                stream.forEach(action);
+                LOG.info("Successfully read directory {}: ids={}", operation, directories);
+            };
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to read directory " + operation, exception);
+            throw new DirectoryReadException(exception);
+        }
+    }
+
     /**
      * Attempts to create a {@link Directory} in the underlying repository layer.
      *
      * @param directory is the {@link Directory} input.
      * @return the created {@link Directory}.
-     * @throws DirectoryException if there is a problem writing the {@link Directory}.
+     * @throws DirectoryException if a {@link Contact} is not valid or if there is a problem writing
+     *         the {@link Directory}.
      */
     @Transactional
     Directory create(@Valid Directory directory) throws DirectoryException {
         try {
             LOG.info("Attempting to create directory: {}", directory);
+            validator.validate(directory);
             final Directory result = repository.save(directory);
+            indexes.put(result.getId(), result.getContacts());
             LOG.info("Successfully created directory: {}", result);
             return result;
         } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
             LOG.error("Failed to create directory", exception);
             throw new DirectoryCreateException(exception);
         }
@@ -91,18 +421,25 @@ class DirectoryService {
      *
      * @param directory is the {@link Directory} to update.
      * @return the updated {@link Directory}.
-     * @throws DirectoryException if there is a problem writing the {@link Directory} or
-     *         if no {@link Directory} exists to be updated.
+     * @throws DirectoryException if a {@link Contact} is not valid, if there is a problem writing the
+     *         {@link Directory} or if no {@link Directory} exists to be updated.
      */
     @Transactional
     Directory update(@Valid Directory directory) throws DirectoryException {
         try {
             LOG.info("Attempting to update directory: {}", directory);
-            if (!repository.existsById(directory.getId())) {
-                LOG.info("Directory not found: id=\"{}\"", directory.getId());
-                throw new DirectoryNotFoundException(directory.getId());
+            validator.validate(directory);
+            final Directory existing = repository.findById(directory.getId())
+                    .orElseThrow(() -> {
+                        LOG.info("Directory not found: id=\"{}\"", directory.getId());
+                        return new DirectoryNotFoundException(directory.getId());
+                    });
+            // Only the rows of the contacts which differ are written, the managed entity keeps its modified timestamp
+            final boolean changed = existing.replace(directory);
+            final Directory result = repository.save(existing);
+            if (changed) {
+                indexes.put(result.getId(), result.getContacts());
             }
-            final Directory result = repository.save(directory);
             LOG.info("Successfully updated directory: {}", directory);
             return result;
         } catch (Exception exception) {
@@ -112,6 +449,45 @@ class DirectoryService {
         }
     }
 
+    /**
+     * Attempts to incrementally change the {@link Contact} entities of an existing {@link Directory}.
+     * Unlike {@link #update(Directory)}, only the rows of the changed {@link Contact} entities are
+     * written, so the cost depends on the number of changes rather than the size of the {@link Directory}.
+     *
+     * @param id is the identifier of the {@link Directory}. This cannot be {@code null}.
+     * @param changes is the {@link ContactChanges} to apply.
+     * @return the {@link ContactChanges} which were actually applied, leaving out {@link Contact} entities
+     *         which were already present or missing.
+     * @throws DirectoryException if there is a problem writing the {@link Contact} entities or
+     *         if no {@link Directory} exists to be updated.
+     */
+    @Transactional
+    ContactChanges change(@NotNull UUID id, @Valid ContactChanges changes) throws DirectoryException {
+        try {
+            LOG.info("Attempting to change directory contacts: id=\"{}\", {}", id, changes);
+            // Held until commit, so a concurrent change adding the same contact sees it as present
+            if (!contacts.lock(id)) {
+                LOG.info("Directory not found: id=\"{}\"", id);
+                throw new DirectoryNotFoundException(id);
+            }
+            final List<Contact> removed = changes.getRemove().stream()
+                    .filter(contact -> contacts.remove(id, contact))
+                    .collect(toList());
+            final List<Contact> added = contacts.insertAbsent(id, changes.getAdd());
+            final ContactChanges result = new ContactChanges(added, removed);
+            if (!result.isEmpty()) {
+                contacts.touch(id);
+                indexes.change(id, added, removed);
+            }
+            LOG.info("Successfully changed directory contacts: id=\"{}\", {}", id, result);
+            return result;
+        } catch (Exception exception) {
+            throwIfInstanceOf(exception, DirectoryException.class);
+            LOG.error("Failed to change directory contacts", exception);
+            throw new DirectoryUpdateException(exception);
+        }
+    }
+
     /**
      * Attempts to delete a {@link Directory} by identifier.
      *
@@ -128,6 +504,7 @@ class DirectoryService {
                 throw new DirectoryNotFoundException(id);
             }
             repository.deleteById(id);
+            indexes.invalidate(id);
             LOG.info("Successfully deleted directory: id=\"{}\"", id);
         } catch (Exception exception) {
             throwIfInstanceOf(exception, DirectoryException.class);
@@ -0,0 +1,36 @@
+package com.meerware.directory;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the {@link Contact} entities of a {@link Directory} are not valid. The cause is a
+ * {@link BindException} holding a {@code FieldError} per violation, so each is reported with a pointer to the
+ * {@link Contact}. This maps to a {@code 400} response.
+ */
+@ResponseStatus(BAD_REQUEST)
+class DirectoryValidationException extends DirectoryException {
+
+    /**
+     * Serial version UID.
+     */
+    private static final long serialVersionUID = 2470315969470723854L;
+
+    /**
+     * @param result is the {@link BindingResult} holding the violations.
+     */
+    DirectoryValidationException(BindingResult result) {
+        super(new BindException(result));
+    }
+
+    /**
+     * @return the {@link BindingResult} holding the violations.
+     */
+    BindingResult getBindingResult() {
+        return ((BindException) getCause()).getBindingResult();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.meerware.directory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of parsing a raw phone number: whether it is valid and, if so, its {@code E.164} form such as
+ * {@code +61386851462}.
+ *
+ * <p>Instances are immutable.</p>
+ */
+final class NormalizedPhone {
+
+    /**
+     * {@link NormalizedPhone} of any number which parses but is not valid.
+     */
+    static final NormalizedPhone INVALID = new NormalizedPhone(null, true);
+
+    /**
+     * {@link NormalizedPhone} of any text which does not parse as a number at all.
+     */
+    static final NormalizedPhone UNPARSEABLE = new NormalizedPhone(null, false);
+
+    /**
+     * {@code E.164} form, {@code null} if the number is not valid.
+     */
+    @Nullable
+    private final String e164;
+
+    /**
+     * Whether the text parses as a number.
+     */
+    private final boolean parsed;
+
+    /**
+     * @param e164 is the {@code E.164} form of a valid number.
+     */
+    NormalizedPhone(String e164) {
+        this(e164, true);
+    }
+
+    /**
+     * @param e164 is the {@code E.164} form, {@code null} if the number is not valid.
+     * @param parsed is whether the text parses as a number.
+     */
+    private NormalizedPhone(@Nullable String e164, boolean parsed) {
+        this.e164 = e164;
+        this.parsed = parsed;
+    }
+
+    /**
+     * @return whether the text parses as a number, although it may not be valid.
+     */
+    boolean isParsed() {
+        return parsed;
+    }
+
+    /**
+     * @return whether the number is valid.
+     */
+    boolean isValid() {
+        return e164 != null;
+    }
+
+    /**
+     * @return the {@code E.164} form, {@code null} if the number is not valid.
+     */
+    @Nullable
+    String getE164() {
+        return e164;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        if (e164 == null) {
+            return "invalid";
+        }
+        return e164;
+    }
+}
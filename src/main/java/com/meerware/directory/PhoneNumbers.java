@@ -0,0 +1,86 @@
+package com.meerware.directory;
+
+import static com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat.E164;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+
+/**
+ * Parses raw phone numbers into a {@link NormalizedPhone}, remembering the outcome. Parsing and checking a number
+ * against the {@link PhoneNumberUtil} metadata is regular expression heavy, while large directories repeat the
+ * same numbers a lot, such as switchboards and help lines. The memo is shared by every {@link PhoneValidator},
+ * as they are created by the validation provider rather than by {@code Spring}, and is bounded by a number of
+ * entries. Numbers longer than a {@link Contact} can store are parsed every time, so unchecked input cannot grow
+ * the memo by its size. Its statistics are published as the {@code directory.phones} cache metrics.
+ */
+final class PhoneNumbers {
+
+    /**
+     * Default country code of numbers without an international prefix.
+     */
+    static final String DEFAULT_COUNTRY_CODE = "AU";
+
+    /**
+     * Maximum number of raw phone numbers remembered.
+     */
+    private static final long MAXIMUM_SIZE = 100_000;
+
+    /**
+     * Number of segments of the memo, so concurrent validation rarely contends.
+     */
+    private static final int CONCURRENCY = 16;
+
+    /**
+     * {@link NormalizedPhone} by raw phone number.
+     */
+    private static final LoadingCache<String, NormalizedPhone> NORMALIZED = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .concurrencyLevel(CONCURRENCY)
+            .recordStats()
+            .build(CacheLoader.from(PhoneNumbers::parse));
+
+    /**
+     * Utility class.
+     */
+    private PhoneNumbers() {
+    }
+
+    /**
+     * @param raw is the raw phone number.
+     * @return the remembered or newly parsed {@link NormalizedPhone}, numbers too long to be valid are not remembered.
+     */
+    static NormalizedPhone normalize(String raw) {
+        if (raw.length() > Contact.MAXIMUM_PHONE_LENGTH) {
+            return parse(raw);
+        }
+        return NORMALIZED.getUnchecked(raw);
+    }
+
+    /**
+     * @return the memo {@link LoadingCache}, for its statistics.
+     */
+    static LoadingCache<String, NormalizedPhone> cache() {
+        return NORMALIZED;
+    }
+
+    /**
+     * @param raw is the raw phone number.
+     * @return the newly parsed {@link NormalizedPhone}.
+     */
+    static NormalizedPhone parse(String raw) {
+        final PhoneNumberUtil utility = PhoneNumberUtil.getInstance();
+        try {
+            final PhoneNumber number = utility.parse(raw, DEFAULT_COUNTRY_CODE);
+            if (!utility.isValidNumber(number)) {
+                return NormalizedPhone.INVALID;
+            }
+            return new NormalizedPhone(utility.format(number, E164));
+        } catch (NumberParseException exception) {
+            return NormalizedPhone.UNPARSEABLE;
+        }
+    }
+}
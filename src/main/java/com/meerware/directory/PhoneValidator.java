@@ -7,9 +7,6 @@ import javax.validation.ConstraintValidatorContext;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
-import com.google.i18n.phonenumbers.NumberParseException;
-import com.google.i18n.phonenumbers.PhoneNumberUtil;
-import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
 
 /**
  * {@link ConstraintValidator} for a phone number. This needs to be public due
@@ -18,11 +15,6 @@ import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
 public class PhoneValidator
        implements ConstraintValidator<Phone, String> {
 
-    /**
-     * Default country code.
-     */
-    private static final String DEFAULT_COUNTRY_CODE = "AU";
-
     private static final Set<String> EXAMPLE_AUSTRALIAN_NUMBERS
         = ImmutableSet.of(
                 "1800 00 1234",
@@ -32,6 +24,12 @@ public class PhoneValidator
                 "0491 570 156",
                 "+61 491 570 156");
 
+    /**
+     * Message of a number which is not valid, built once.
+     */
+    private static final String INVALID_MESSAGE = "Invalid phone number, some examples of valid numbers are: "
+            + Joiner.on(", ").join(EXAMPLE_AUSTRALIAN_NUMBERS);
+
     /**
      * {@inheritDoc}
      */
@@ -42,25 +40,20 @@ public class PhoneValidator
         if (value == null) {
             return true;
         }
-        final PhoneNumberUtil utility = PhoneNumberUtil.getInstance();
-        try {
-            final PhoneNumber number = utility.parse(value, DEFAULT_COUNTRY_CODE);
-
-            if (!utility.isValidNumber(number)) {
-                final String examples = Joiner.on(", ").join(EXAMPLE_AUSTRALIAN_NUMBERS);
-
-                // Give a useful message
-                context.disableDefaultConstraintViolation();
-                context.buildConstraintViolationWithTemplate(
-                        "Invalid phone number, some examples of valid numbers are: " + examples)
-                       .addConstraintViolation();
-                return false;
-            }
-            // Valid
-            return true;
-        } catch (NumberParseException exception) {
+        // Remembered, as the same numbers are validated over and over
+        final NormalizedPhone phone = PhoneNumbers.normalize(value);
+        if (!phone.isParsed()) {
+            return false;
+        }
+        if (!phone.isValid()) {
+            // Give a useful message
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(INVALID_MESSAGE)
+                   .addConstraintViolation();
             return false;
         }
+        // Valid
+        return true;
     }
 
 }
@@ -0,0 +1,83 @@
+package com.meerware.directory;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.apache.commons.lang3.StringUtils.upperCase;
+
+import java.util.BitSet;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Set operation over the {@link Contact} entities of any number of {@link Directory} entities. Each
+ * operation decides, for a single {@link Contact}, whether it is part of the result from the
+ * {@link Directory} entities it is present in.
+ */
+enum SetOperation {
+
+    /**
+     * {@link Contact} entities present in any {@link Directory}.
+     */
+    UNION {
+        @Override
+        boolean includes(BitSet present, int count) {
+            return !present.isEmpty();
+        }
+    },
+
+    /**
+     * {@link Contact} entities present in every {@link Directory}.
+     */
+    INTERSECTION {
+        @Override
+        boolean includes(BitSet present, int count) {
+            return present.cardinality() == count;
+        }
+    },
+
+    /**
+     * {@link Contact} entities present in an odd number of {@link Directory} entities. For two
+     * {@link Directory} entities, these are the ones present in exactly one of them.
+     */
+    SYMMETRIC_DIFFERENCE {
+        @Override
+        boolean includes(BitSet present, int count) {
+            return present.cardinality() % 2 == 1;
+        }
+    },
+
+    /**
+     * {@link Contact} entities present in the first {@link Directory} and in none of the others.
+     */
+    DIFFERENCE {
+        @Override
+        boolean includes(BitSet present, int count) {
+            return present.get(0) && present.cardinality() == 1;
+        }
+    };
+
+    /**
+     * @param present has a bit set for each {@link Directory}, by position, the {@link Contact} is present in.
+     * @param count is the number of {@link Directory} entities.
+     * @return {@code true} if the {@link Contact} is part of the result.
+     */
+    abstract boolean includes(BitSet present, int count);
+
+    /**
+     * @param value is the name of the operation, case insensitive.
+     * @return the {@link SetOperation}.
+     * @throws IllegalArgumentException if there is no such operation.
+     */
+    @JsonCreator
+    static SetOperation parse(String value) {
+        return valueOf(upperCase(value));
+    }
+
+    /**
+     * @return the lower case name.
+     */
+    @JsonValue
+    String toValue() {
+        return lowerCase(name());
+    }
+}
@@ -1,8 +1,16 @@
 package com.meerware.directory;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.apache.commons.lang3.StringUtils.stripAccents;
 
 import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -11,12 +19,19 @@ import javax.validation.constraints.Size;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
 
 
 /**
  * Wrapper around a {@link State} or province. This handles short version of some values and behaves a bit like
- * an enumeration.
+ * an enumeration. The known {@link State} objects are the subdivisions of a few countries, other values are user
+ * defined and pooled, so reading the same value again does not create a new instance.
  */
 class State implements Comparable<State>, Serializable {
 
@@ -25,49 +40,49 @@ class State implements Comparable<State>, Serializable {
      * Australian Capital Territory {@link State}.
      */
     public static final State AUSTRALIAN_CAPITAL_TERRITORY = new State(
-            "ACT", "Australian Capital Territory");
+            "ACT", "Australian Capital Territory", Country.AUSTRALIA);
 
     /**
      * New South Wales {@link State}.
      */
     public static final State NEW_SOUTH_WALES = new State(
-            "NSW", "New South Wales");
+            "NSW", "New South Wales", Country.AUSTRALIA);
 
     /**
      * Northern Territory {@link State}.
      */
     public static final State NORTHERN_TERRITORY = new State(
-            "NT", "Northern Territory");
+            "NT", "Northern Territory", Country.AUSTRALIA);
 
     /**
      * Queensland {@link State}.
      */
     public static final State QUEENSLAND = new State(
-            "QLD", "Queensland");
+            "QLD", "Queensland", Country.AUSTRALIA);
 
     /**
      * South Australia {@link State}.
      */
     public static final State SOUTH_AUSTRALIA = new State(
-            "SA", "South Australia");
+            "SA", "South Australia", Country.AUSTRALIA);
 
     /**
      * Tasmamia {@link State}.
      */
     public static final State TASMANIA = new State(
-            "TAS", "Tasmania");
+            "TAS", "Tasmania", Country.AUSTRALIA);
 
     /**
      * Victoria {@link State}.
      */
     public static final State VICTORIA = new State(
-            "VIC", "Victoria");
+            "VIC", "Victoria", Country.AUSTRALIA);
 
     /**
      * Western Australia {@link State}.
      */
     public static final State WESTERN_AUSTRALIA = new State(
-            "WA", "Western Australia");
+            "WA", "Western Australia", Country.AUSTRALIA);
 
     /**
      * Serial version UID.
@@ -80,9 +95,14 @@ class State implements Comparable<State>, Serializable {
     private static final int MAXIMUM_NAME_LENGTH = 128;
 
     /**
-     * Known {@link State} objects.
+     * Maximum number of user defined {@link State} objects kept by the {@link #INTERNED} pool.
      */
-    private static Set<State> states = ImmutableSet.<State>builder()
+    private static final int MAXIMUM_INTERNED = 10000;
+
+    /**
+     * Known {@link State} objects, Australian ones first so their codes win over those of other countries.
+     */
+    private static final List<State> STATES = ImmutableList.<State>builder()
             .add(AUSTRALIAN_CAPITAL_TERRITORY)
             .add(NEW_SOUTH_WALES)
             .add(NORTHERN_TERRITORY)
@@ -91,6 +111,111 @@ class State implements Comparable<State>, Serializable {
             .add(TASMANIA)
             .add(VICTORIA)
             .add(WESTERN_AUSTRALIA)
+            .add(subdivision(Country.NEW_ZEALAND, "AUK", "Auckland"))
+            .add(subdivision(Country.NEW_ZEALAND, "BOP", "Bay of Plenty"))
+            .add(subdivision(Country.NEW_ZEALAND, "CAN", "Canterbury"))
+            .add(subdivision(Country.NEW_ZEALAND, "GIS", "Gisborne"))
+            .add(subdivision(Country.NEW_ZEALAND, "HKB", "Hawke's Bay"))
+            .add(subdivision(Country.NEW_ZEALAND, "MWT", "Manawatu-Whanganui"))
+            .add(subdivision(Country.NEW_ZEALAND, "MBH", "Marlborough"))
+            .add(subdivision(Country.NEW_ZEALAND, "NSN", "Nelson"))
+            .add(subdivision(Country.NEW_ZEALAND, "NTL", "Northland"))
+            .add(subdivision(Country.NEW_ZEALAND, "OTA", "Otago"))
+            .add(subdivision(Country.NEW_ZEALAND, "STL", "Southland"))
+            .add(subdivision(Country.NEW_ZEALAND, "TKI", "Taranaki"))
+            .add(subdivision(Country.NEW_ZEALAND, "TAS", "Tasman"))
+            .add(subdivision(Country.NEW_ZEALAND, "WKO", "Waikato"))
+            .add(subdivision(Country.NEW_ZEALAND, "WGN", "Wellington"))
+            .add(subdivision(Country.NEW_ZEALAND, "WTC", "West Coast"))
+            .add(subdivision(Country.CANADA, "AB", "Alberta"))
+            .add(subdivision(Country.CANADA, "BC", "British Columbia"))
+            .add(subdivision(Country.CANADA, "MB", "Manitoba"))
+            .add(subdivision(Country.CANADA, "NB", "New Brunswick"))
+            .add(subdivision(Country.CANADA, "NL", "Newfoundland and Labrador"))
+            .add(subdivision(Country.CANADA, "NS", "Nova Scotia"))
+            .add(subdivision(Country.CANADA, "NT", "Northwest Territories"))
+            .add(subdivision(Country.CANADA, "NU", "Nunavut"))
+            .add(subdivision(Country.CANADA, "ON", "Ontario"))
+            .add(subdivision(Country.CANADA, "PE", "Prince Edward Island"))
+            .add(subdivision(Country.CANADA, "QC", "Quebec"))
+            .add(subdivision(Country.CANADA, "SK", "Saskatchewan"))
+            .add(subdivision(Country.CANADA, "YT", "Yukon"))
+            .add(subdivision(Country.UNITED_STATES, "AL", "Alabama"))
+            .add(subdivision(Country.UNITED_STATES, "AK", "Alaska"))
+            .add(subdivision(Country.UNITED_STATES, "AZ", "Arizona"))
+            .add(subdivision(Country.UNITED_STATES, "AR", "Arkansas"))
+            .add(subdivision(Country.UNITED_STATES, "CA", "California"))
+            .add(subdivision(Country.UNITED_STATES, "CO", "Colorado"))
+            .add(subdivision(Country.UNITED_STATES, "CT", "Connecticut"))
+            .add(subdivision(Country.UNITED_STATES, "DE", "Delaware"))
+            .add(subdivision(Country.UNITED_STATES, "DC", "District of Columbia"))
+            .add(subdivision(Country.UNITED_STATES, "FL", "Florida"))
+            .add(subdivision(Country.UNITED_STATES, "GA", "Georgia"))
+            .add(subdivision(Country.UNITED_STATES, "HI", "Hawaii"))
+            .add(subdivision(Country.UNITED_STATES, "ID", "Idaho"))
+            .add(subdivision(Country.UNITED_STATES, "IL", "Illinois"))
+            .add(subdivision(Country.UNITED_STATES, "IN", "Indiana"))
+            .add(subdivision(Country.UNITED_STATES, "IA", "Iowa"))
+            .add(subdivision(Country.UNITED_STATES, "KS", "Kansas"))
+            .add(subdivision(Country.UNITED_STATES, "KY", "Kentucky"))
+            .add(subdivision(Country.UNITED_STATES, "LA", "Louisiana"))
+            .add(subdivision(Country.UNITED_STATES, "ME", "Maine"))
+            .add(subdivision(Country.UNITED_STATES, "MD", "Maryland"))
+            .add(subdivision(Country.UNITED_STATES, "MA", "Massachusetts"))
+            .add(subdivision(Country.UNITED_STATES, "MI", "Michigan"))
+            .add(subdivision(Country.UNITED_STATES, "MN", "Minnesota"))
+            .add(subdivision(Country.UNITED_STATES, "MS", "Mississippi"))
+            .add(subdivision(Country.UNITED_STATES, "MO", "Missouri"))
+            .add(subdivision(Country.UNITED_STATES, "MT", "Montana"))
+            .add(subdivision(Country.UNITED_STATES, "NE", "Nebraska"))
+            .add(subdivision(Country.UNITED_STATES, "NV", "Nevada"))
+            .add(subdivision(Country.UNITED_STATES, "NH", "New Hampshire"))
+            .add(subdivision(Country.UNITED_STATES, "NJ", "New Jersey"))
+            .add(subdivision(Country.UNITED_STATES, "NM", "New Mexico"))
+            .add(subdivision(Country.UNITED_STATES, "NY", "New York"))
+            .add(subdivision(Country.UNITED_STATES, "NC", "North Carolina"))
+            .add(subdivision(Country.UNITED_STATES, "ND", "North Dakota"))
+            .add(subdivision(Country.UNITED_STATES, "OH", "Ohio"))
+            .add(subdivision(Country.UNITED_STATES, "OK", "Oklahoma"))
+            .add(subdivision(Country.UNITED_STATES, "OR", "Oregon"))
+            .add(subdivision(Country.UNITED_STATES, "PA", "Pennsylvania"))
+            .add(subdivision(Country.UNITED_STATES, "RI", "Rhode Island"))
+            .add(subdivision(Country.UNITED_STATES, "SC", "South Carolina"))
+            .add(subdivision(Country.UNITED_STATES, "SD", "South Dakota"))
+            .add(subdivision(Country.UNITED_STATES, "TN", "Tennessee"))
+            .add(subdivision(Country.UNITED_STATES, "TX", "Texas"))
+            .add(subdivision(Country.UNITED_STATES, "UT", "Utah"))
+            .add(subdivision(Country.UNITED_STATES, "VT", "Vermont"))
+            .add(subdivision(Country.UNITED_STATES, "VA", "Virginia"))
+            .add(subdivision(Country.UNITED_STATES, "WA", "Washington"))
+            .add(subdivision(Country.UNITED_STATES, "WV", "West Virginia"))
+            .add(subdivision(Country.UNITED_STATES, "WI", "Wisconsin"))
+            .add(subdivision(Country.UNITED_STATES, "WY", "Wyoming"))
+            .build();
+
+    /**
+     * Index of the known {@link State} objects by folded code and name, used by {@link #parse(String)}. Where the
+     * same folded value is used by more than one {@link State}, the first known wins.
+     */
+    private static final Map<String, State> INDEX = index(STATES);
+
+    /**
+     * Indexes of the known {@link State} objects of each {@link Country}, used by {@link #parse(String, Country)}.
+     */
+    private static final Map<Country, Map<String, State>> SUBDIVISIONS = subdivisions();
+
+    /**
+     * Folded codes used by more than one known {@link State}, such as {@code WA}, which only read back as the same
+     * {@link State} along with the {@link Country}.
+     */
+    private static final Set<String> SHARED_CODES = sharedCodes();
+
+    /**
+     * Bounded pool of user defined {@link State} objects by trimmed name, so reading the same value again shares an
+     * instance rather than creating a new one.
+     */
+    private static final Cache<String, State> INTERNED = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_INTERNED)
             .build();
 
     /**
@@ -104,13 +229,21 @@ class State implements Comparable<State>, Serializable {
      */
     private final String name;
 
+    /**
+     * {@link Country} the {@link State} is a subdivision of, {@code null} if user defined.
+     */
+    @Nullable
+    private final Country country;
+
     /**
      * @param code is the optional short code.
      * @param name is the long name.
+     * @param country is the optional {@link Country} the {@link State} is a subdivision of.
      */
-    State(@Nullable String code, String name) {
+    private State(@Nullable String code, String name, @Nullable Country country) {
         this.code = code;
         this.name = name;
+        this.country = country;
     }
 
     /**
@@ -129,6 +262,24 @@ class State implements Comparable<State>, Serializable {
         return code;
     }
 
+    /**
+     * Internal use only.
+     * @return the {@link Country} the {@link State} is a subdivision of, {@code null} if user defined.
+     */
+    @Nullable
+    Country getCountry() {
+        return country;
+    }
+
+    /**
+     * Internal use only.
+     * @return whether the code is also used by a known {@link State} of another {@link Country}, so it is not enough to
+     *         store this {@link State}.
+     */
+    boolean isCodeShared() {
+        return code != null && SHARED_CODES.contains(fold(code));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -170,6 +321,17 @@ class State implements Comparable<State>, Serializable {
     }
 
     /**
+     * @return the known {@link State} or pooled user defined {@link State} in place of a deserialized copy.
+     */
+    private Object readResolve() {
+        return parse(name, country);
+    }
+
+    /**
+     * Parses a {@link String} form of the state, trying to match the code or name of the known {@link State} objects
+     * ignoring case and accents, in a single lookup. Any other value is a user defined {@link State}, shared through a
+     * bounded pool.
+     *
      * @param value is the {@link String} form of the value.
      * @return a {@link State} or {@code null} if the input value was {@code blank}.
      */
@@ -179,12 +341,98 @@ class State implements Comparable<State>, Serializable {
         if (isBlank(value)) {
             return null;
         }
-        final String search = value.trim();
-        return states.stream()
-                .filter(candidate -> candidate.getName().equalsIgnoreCase(search)
-                        || candidate.getCode().equalsIgnoreCase(search))
-                .findFirst().orElseGet(() -> new State(null, search));
+        final State state = INDEX.get(fold(value));
+        if (state == null) {
+            return intern(value.trim());
+        }
+        return state;
+    }
+
+    /**
+     * Parses a {@link String} form of the state of an address in a {@link Country}, so a code is read as a
+     * subdivision of that {@link Country} before any other, such as {@code WA} in the United States.
+     *
+     * @param value is the {@link String} form of the value.
+     * @param country is the {@link Country} of the address, which may be {@code null}.
+     * @return a {@link State} or {@code null} if the input value was {@code blank}.
+     */
+    @Nullable
+    static State parse(@Nullable String value, @Nullable Country country) {
+        if (isBlank(value) || country == null) {
+            return parse(value);
+        }
+        final State state = SUBDIVISIONS.getOrDefault(country, ImmutableMap.of()).get(fold(value));
+        if (state == null) {
+            return parse(value);
+        }
+        return state;
+    }
+
+    /**
+     * @param name is the trimmed name of a user defined {@link State}.
+     * @return the pooled {@link State}, names too long to be valid are not pooled.
+     */
+    private static State intern(String name) {
+        if (name.length() > MAXIMUM_NAME_LENGTH) {
+            return new State(null, name, null);
+        }
+        return INTERNED.asMap().computeIfAbsent(name, key -> new State(null, key, null));
     }
 
+    /**
+     * @param country is the {@link Country}.
+     * @param code is the short code.
+     * @param name is the long name.
+     * @return a known {@link State} of the {@link Country}.
+     */
+    private static State subdivision(Country country, String code, String name) {
+        return new State(code, name, country);
+    }
 
+    /**
+     * @param states is the known {@link State} objects.
+     * @return the index of the {@link State} objects by folded code and name.
+     */
+    private static Map<String, State> index(List<State> states) {
+        final Map<String, State> index = new LinkedHashMap<>();
+        for (State state : states) {
+            index.putIfAbsent(fold(state.getCode()), state);
+            index.putIfAbsent(fold(state.getName()), state);
+        }
+        return ImmutableMap.copyOf(index);
+    }
+
+    /**
+     * @return the {@link #SUBDIVISIONS}.
+     */
+    private static Map<Country, Map<String, State>> subdivisions() {
+        final Map<Country, Map<String, State>> subdivisions = new EnumMap<>(Country.class);
+        for (Map.Entry<Country, List<State>> entry : Multimaps.asMap(Multimaps.index(STATES, State::getCountry)).entrySet()) {
+            subdivisions.put(entry.getKey(), index(entry.getValue()));
+        }
+        return Maps.immutableEnumMap(subdivisions);
+    }
+
+    /**
+     * @return the {@link #SHARED_CODES}.
+     */
+    private static Set<String> sharedCodes() {
+        final Set<String> codes = new HashSet<>();
+        final Set<String> shared = new HashSet<>();
+        for (State state : STATES) {
+            final String folded = fold(state.getCode());
+            if (!codes.add(folded)) {
+                shared.add(folded);
+            }
+        }
+        return ImmutableSet.copyOf(shared);
+    }
+
+    /**
+     * @param value is the value to fold.
+     * @return the trimmed value without accents and in lower case.
+     */
+    private static String fold(String value) {
+        return lowerCase(stripAccents(value.trim()), Locale.ROOT);
+    }
 }
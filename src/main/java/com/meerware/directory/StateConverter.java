@@ -16,7 +16,9 @@ class StateConverter implements AttributeConverter<State, String> {
         if (state == null) {
             return null;
         }
-        if (state.getCode() == null) {
+        // Codes shared by more than one country, such as WA, do not read back the same without the country so keep the
+        // name, then every path reads the stored value the same way
+        if (state.getCode() == null || state.isCodeShared() || parse(state.getCode()) != state) {
             return state.getName();
         } else {
             return state.getCode();
@@ -1,18 +1,13 @@
 package com.meerware.web;
 
 import static com.google.common.collect.ImmutableMap.of;
-import static com.google.common.collect.Maps.newLinkedHashMap;
-import static com.google.common.io.ByteStreams.toByteArray;
-import static org.apache.commons.lang3.StringUtils.lowerCase;
 import static org.springframework.core.Ordered.LOWEST_PRECEDENCE;
 import static org.springframework.http.MediaType.parseMediaType;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Type;
-import java.util.Map;
-import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
@@ -21,6 +16,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.http.server.ServerHttpRequest;
@@ -30,14 +26,12 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.base.Function;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Streams;
 import com.meerware.Application;
 
 
@@ -63,21 +57,6 @@ public class DocumentBodyAdvice extends RequestBodyAdviceAdapter
      */
     private static final String DATA = "data";
 
-    /**
-     * Attributes component, used for {@code JSON API}.
-     */
-    private static final String ATTRIBUTES = "attributes";
-
-    /**
-     * Identifier component, used for {@code JSON API}.
-     */
-    private static final String ID = "id";
-
-    /**
-     * Type component, used for {@code JSON API}.
-     */
-    private static final String TYPE = "type";
-
     /**
      * JSON {@link ObjectMapper}.
      */
@@ -136,57 +115,50 @@ public class DocumentBodyAdvice extends RequestBodyAdviceAdapter
             return null;
         }
 
-       final HttpHeaders headers = request.getHeaders();
+        container.setValue(wrap(container.getValue(), request.getHeaders().getContentType()));
+        return container;
+    }
+
 
+    /**
+     * Wraps an outgoing value as a document of the type selected by the request content type.
+     *
+     * @param value is the value to wrap.
+     * @param contentType is the request content type, can be {@code null}.
+     * @return the wrapped value, ready to be serialized.
+     */
+    Object wrap(Object value, @Nullable MediaType contentType) {
         // If we are dealing with JSON API, we break the object into attributes
         // Otherwise, at the very least, we wrap in a data top level attribute
-        if (JSON_API_MEDIA_TYPE.isCompatibleWith(headers.getContentType())) {
-            // JSON API
-            final Function<Object, Map<String, Object>> transform
-                = input -> {
-                Map<String, Object> transformed = mapper.convertValue(
-                        input, new TypeReference<Map<String, Object>>() {
-                });
-
-                Map<String, Object> output = newLinkedHashMap();
-                if (transformed.containsKey(ID)) {
-                    output.put(ID, transformed.get(ID));
-                }
-
-                if (transformed.containsKey(TYPE)) {
-                    output.put(TYPE, transformed.get(TYPE));
-                } else {
-                    output.put(TYPE, lowerCase(input.getClass().getSimpleName()));
-                }
-
-                // Everything else goes into attributes
-                Map<String, Object> attributes = newLinkedHashMap(transformed);
-                attributes.remove(ID);
-                attributes.remove(TYPE);
-                output.put(ATTRIBUTES, attributes);
-
-                return output;
-            };
-
-            final Object value = container.getValue();
+        if (JSON_API_MEDIA_TYPE.isCompatibleWith(contentType)) {
+            // JSON API, each resource is written straight from the value
             if (value instanceof Iterable) {
-                Iterable<?> iterable = (Iterable<?>) value;
-                container.setValue(of(DATA, Iterables.transform(iterable, transform)));
-            } else {
-                container.setValue(of(DATA, transform.apply(value)));
+                return of(DATA, Iterables.transform((Iterable<?>) value, Resource::new));
             }
-        } else {
-            // Plain old JSON
-            // Wrap in a map with a single data attribute
-            container.setValue(of(DATA, container.getValue()));
+            return of(DATA, new Resource(value));
         }
-
-        return container;
+        // Plain old JSON
+        // Wrap in a map with a single data attribute
+        return of(DATA, value);
     }
 
+    /**
+     * @param contentType is the request content type, can be {@code null}.
+     * @return the {@code JSON API} {@link MediaType} if the content type is compatible with it, otherwise
+     *         {@link MediaType#APPLICATION_JSON}.
+     */
+    public static MediaType documentType(@Nullable MediaType contentType) {
+        if (JSON_API_MEDIA_TYPE.isCompatibleWith(contentType)) {
+            return JSON_API_MEDIA_TYPE;
+        }
+        return MediaType.APPLICATION_JSON;
+    }
 
     /**
      * {@inheritDoc}
+     *
+     * <p>The body is not read here. A {@link JsonParser} over the body is moved to the {@code data} value,
+     * skipping over anything before it, and is then read directly by the {@link DocumentHttpMessageConverter}.</p>
      */
     @Override
     public HttpInputMessage beforeBodyRead(
@@ -194,77 +166,49 @@ public class DocumentBodyAdvice extends RequestBodyAdviceAdapter
             MethodParameter parameter,
             Type targetType,
             Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
-        // Unwrap the data part of the input message
         final HttpHeaders headers = inputMessage.getHeaders();
-
-        final byte[] bytes = toByteArray(inputMessage.getBody());
-
-        final JsonNode root = mapper.readTree(bytes);
-
-        // Whatever happens, we need to move to the data node if it exists
-        final JsonNode data;
-        if (root.isObject() && root.has(DATA)) {
-            data = root.get(DATA);
-        } else {
-            data = root;
+        try {
+            final JsonParser data = data(mapper.getFactory().createParser(inputMessage.getBody()));
+            // With JSON API, only the "attributes" and "id" parts of each resource are read
+            if (JSON_API_MEDIA_TYPE.isCompatibleWith(headers.getContentType())) {
+                return new DocumentInputMessage(headers, new ResourceParser(data));
+            }
+            return new DocumentInputMessage(headers, data);
+        } catch (JsonProcessingException exception) {
+            throw new HttpMessageNotReadableException(
+                    "JSON parse error: " + exception.getOriginalMessage(), exception, inputMessage);
         }
+    }
 
-        // Now it depends on what sort of media type (via content type)
-        final InputStream body;
-        if (JSON_API_MEDIA_TYPE.isCompatibleWith(headers.getContentType())) {
-            // JSON API
-            // We only handle "attributes", "id" and "type" part of the specification
-
-            // Transform from an json node representing a JSON API document to a plain
-            // map
-            final Function<JsonNode, ObjectNode> transform
-                = node -> {
-                ObjectNode output = new ObjectNode(mapper.getNodeFactory());
-
-                // Look for an object of attributes
-                if (node.has(ATTRIBUTES) && node.get(ATTRIBUTES).isObject()) {
-                    // Populate the map with the key values of the attribute
-                    ObjectNode attributes = (ObjectNode) node.get(ATTRIBUTES);
-                    output.setAll(attributes);
-                }
-
-                // Append (or replace) the ID with the one at the type of the document
-                if (node.has(ID)) {
-                    output.set(ID, node.get(ID));
-                }
-
-                return output;
-            };
-
-
-            final JsonNode output;
-            if (data.isArray()) {
-                // Transform each array item
-                output = new ArrayNode(
-                        mapper.getNodeFactory(),
-                        Streams.stream((ArrayNode) data)
-                                .map(transform)
-                               .collect(Collectors.toList()));
-
-            } else {
-                output = transform.apply(data);
+    /**
+     * Moves a {@link JsonParser} to the {@code data} value of the document. When the document is an object
+     * without {@code data}, the whole document is the value and is replayed from a {@link TokenBuffer} of the
+     * members read while looking for it.
+     *
+     * @param parser is the {@link JsonParser} at the start of the document.
+     * @return the {@link JsonParser} with the current token being the first of the value.
+     * @throws IOException if the document cannot be parsed.
+     */
+    private static JsonParser data(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return parser;
+        }
+        final TokenBuffer members = new TokenBuffer(parser);
+        members.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            if (DATA.equals(name)) {
+                return parser;
             }
-            body = new ByteArrayInputStream(mapper.writeValueAsBytes(output));
-        } else {
-            // Plain old JSON
-            body = new ByteArrayInputStream(mapper.writeValueAsBytes(data));
+            members.writeFieldName(name);
+            members.copyCurrentStructure(parser);
         }
+        members.writeEndObject();
+        parser.close();
 
-        return new HttpInputMessage() {
-            @Override
-            public HttpHeaders getHeaders() {
-                return headers;
-            }
-            @Override
-            public InputStream getBody() throws IOException {
-                return body;
-            }
-        };
+        final JsonParser document = members.asParser(parser.getCodec());
+        document.nextToken();
+        return document;
     }
-
 }
@@ -0,0 +1,90 @@
+package com.meerware.web;
+
+import static com.google.common.collect.Maps.immutableEntry;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Bounded cache of serialized response documents, keyed by an entity tag and the document {@link MediaType}.
+ * A repeated read of an unchanged value is written from the cached bytes, without loading or serializing the
+ * value again.
+ */
+@Component
+public class DocumentCache {
+
+    /**
+     * Log instance.
+     */
+    private static final Logger LOG = getLogger(DocumentCache.class);
+
+    /**
+     * Default maximum total size of the cached documents in bytes.
+     */
+    private static final long DEFAULT_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * {@link DocumentBodyAdvice} used to wrap values the same way as other responses.
+     */
+    private final DocumentBodyAdvice advice;
+
+    /**
+     * JSON {@link ObjectMapper}.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Serialized documents by entity tag and document {@link MediaType}.
+     */
+    private final Cache<Map.Entry<String, MediaType>, byte[]> documents;
+
+    /**
+     * @param advice is the {@link DocumentBodyAdvice}.
+     * @param mapper is the {@link ObjectMapper}.
+     * @param environment is the {@link Environment} holding the settings.
+     */
+    @Autowired
+    DocumentCache(DocumentBodyAdvice advice, ObjectMapper mapper, Environment environment) {
+        this.advice = advice;
+        this.mapper = mapper;
+        this.documents = CacheBuilder.newBuilder()
+                .maximumWeight(environment.getProperty("spring.web.documents.cache-size", Long.class, DEFAULT_SIZE))
+                .weigher((Map.Entry<String, MediaType> key, byte[] document) -> document.length)
+                .build();
+    }
+
+    /**
+     * Gets the serialized document of a value, only loading and serializing the value if it is not
+     * already cached under the entity tag.
+     *
+     * @param tag is the entity tag, which must change whenever the value does.
+     * @param contentType is the request content type selecting the document type, can be {@code null}.
+     * @param loader is the {@link Supplier} of the value.
+     * @return the serialized document.
+     * @throws IOException if the value cannot be serialized.
+     */
+    public byte[] get(String tag, @Nullable MediaType contentType, Supplier<?> loader) throws IOException {
+        final Map.Entry<String, MediaType> key = immutableEntry(tag, DocumentBodyAdvice.documentType(contentType));
+        byte[] document = documents.getIfPresent(key);
+        if (document == null) {
+            LOG.debug("Document not cached: tag=\"{}\", type=\"{}\"", key.getKey(), key.getValue());
+            document = mapper.writeValueAsBytes(advice.wrap(loader.get(), contentType));
+            documents.put(key, document);
+        }
+        return document;
+    }
+}
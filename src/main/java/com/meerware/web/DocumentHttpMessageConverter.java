@@ -0,0 +1,48 @@
+package com.meerware.web;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import javax.annotation.Nullable;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+
+/**
+ * {@link MappingJackson2HttpMessageConverter} which reads a {@link DocumentInputMessage} straight from its
+ * {@link JsonParser}, rather than parsing the request body again.
+ */
+class DocumentHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    /**
+     * @param mapper is the {@link ObjectMapper}.
+     */
+    DocumentHttpMessageConverter(ObjectMapper mapper) {
+        super(mapper);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        if (!(inputMessage instanceof DocumentInputMessage)) {
+            return super.read(type, contextClass, inputMessage);
+        }
+        try (JsonParser parser = ((DocumentInputMessage) inputMessage).getParser()) {
+            return getObjectMapper().readValue(parser, getJavaType(type, contextClass));
+        } catch (InvalidDefinitionException exception) {
+            throw new HttpMessageConversionException("Type definition error: " + exception.getType(), exception);
+        } catch (JsonProcessingException exception) {
+            throw new HttpMessageNotReadableException(
+                    "JSON parse error: " + exception.getOriginalMessage(), exception, inputMessage);
+        }
+    }
+}
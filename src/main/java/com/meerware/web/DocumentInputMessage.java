@@ -0,0 +1,70 @@
+package com.meerware.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * {@link HttpInputMessage} holding a {@link JsonParser} already positioned at the unwrapped document value.
+ * The {@link DocumentHttpMessageConverter} deserializes straight from the {@link JsonParser}, so the request
+ * body is only parsed once.
+ */
+final class DocumentInputMessage implements HttpInputMessage {
+
+    /**
+     * {@link HttpHeaders} of the request.
+     */
+    private final HttpHeaders headers;
+
+    /**
+     * {@link JsonParser} positioned at the unwrapped document value.
+     */
+    private final JsonParser parser;
+
+    /**
+     * @param headers is the {@link HttpHeaders} of the request.
+     * @param parser is the {@link JsonParser} positioned at the unwrapped document value.
+     */
+    DocumentInputMessage(HttpHeaders headers, JsonParser parser) {
+        this.headers = headers;
+        this.parser = parser;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Writes out the unwrapped document value, for any other converter reading the body. This holds the
+     * value in memory, so is only a fallback.
+     *
+     * @return the {@link InputStream} of the unwrapped document value.
+     * @throws IOException if the document cannot be read.
+     */
+    @Override
+    public InputStream getBody() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = parser.getCodec().getFactory().createGenerator(output)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return new ByteArrayInputStream(output.toByteArray());
+    }
+
+    /**
+     * @return the {@link JsonParser} positioned at the unwrapped document value.
+     */
+    JsonParser getParser() {
+        return parser;
+    }
+}
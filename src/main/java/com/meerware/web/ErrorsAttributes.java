@@ -4,7 +4,7 @@ import static org.springframework.web.context.request.RequestAttributes.SCOPE_RE
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.StringUtils.prependIfMissing;
-import static org.apache.commons.lang3.StringUtils.replace;
+import static org.apache.commons.lang3.StringUtils.replaceEach;
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
@@ -29,6 +29,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 
@@ -139,11 +140,14 @@ class ErrorsAttributes implements ErrorAttributes, HandlerExceptionResolver {
     Errors getErrorAttributes(
             Throwable cause,
             @Nullable HttpStatus status) {
-        // Was it a binding result or something that holds a binding result
-        if (cause instanceof BindingResult) {
-            return getErrorAttributes((BindingResult) cause);
-        } else if (cause instanceof MethodArgumentNotValidException) {
-            return getErrorAttributes(((MethodArgumentNotValidException) cause).getBindingResult());
+        // Was it a binding result or something that holds a binding result,
+        // possibly wrapped by an exception giving the response status
+        for (Throwable current : Throwables.getCausalChain(cause)) {
+            if (current instanceof BindingResult) {
+                return getErrorAttributes((BindingResult) current);
+            } else if (current instanceof MethodArgumentNotValidException) {
+                return getErrorAttributes(((MethodArgumentNotValidException) current).getBindingResult());
+            }
         }
 
         // Try and get it from a response status on the exception
@@ -198,7 +202,9 @@ class ErrorsAttributes implements ErrorAttributes, HandlerExceptionResolver {
 
             if (error instanceof FieldError) {
                 final FieldError field = (FieldError) error;
-                final String pointer = prependIfMissing("/" + replace(field.getField(), ".", "/"), "/data");
+                // Indexed fields such as contacts[3].phone point to /data/contacts/3/phone
+                final String path = replaceEach(field.getField(), new String[] {"[", "]", "."}, new String[] {"/", "", "/"});
+                final String pointer = prependIfMissing("/" + path, "/data");
                 item.pointer(pointer);
             }
 
@@ -9,6 +9,9 @@ import java.util.TimeZone;
 import org.springframework.boot.autoconfigure.jackson.JacksonProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Auto {@link Configuration} used to configure the {@code Jackson} components.
@@ -36,4 +39,14 @@ class JacksonAutoConfiguration {
         jacksonProperties.getSerialization().put(WRITE_ENUMS_USING_TO_STRING, true);
         return jacksonProperties;
     }
+
+    /**
+     * @param mapper is the {@link ObjectMapper}.
+     * @return the {@link DocumentHttpMessageConverter}, used in place of the default {@code Jackson} converter so
+     *         request documents unwrapped by the {@link DocumentBodyAdvice} are only parsed once.
+     */
+    @Bean
+    MappingJackson2HttpMessageConverter documentHttpMessageConverter(ObjectMapper mapper) {
+        return new DocumentHttpMessageConverter(mapper);
+    }
 }
@@ -0,0 +1,158 @@
+package com.meerware.web;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+
+/**
+ * {@code JSON API} resource object of a value. This writes the {@code id}, {@code type} and {@code attributes}
+ * members straight from the properties of the value's own serializer, so no intermediate tree or {@link Map}
+ * is built.
+ */
+final class Resource implements JsonSerializable {
+
+    /**
+     * Attributes member.
+     */
+    private static final String ATTRIBUTES = "attributes";
+
+    /**
+     * Identifier member.
+     */
+    private static final String ID = "id";
+
+    /**
+     * Type member.
+     */
+    private static final String TYPE = "type";
+
+    /**
+     * Value of the resource.
+     */
+    @Nullable
+    private final Object value;
+
+    /**
+     * @param value is the value of the resource.
+     */
+    Resource(@Nullable Object value) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (value instanceof Map) {
+            serialize((Map<?, ?>) value, generator, provider);
+            return;
+        }
+
+        generator.writeStartObject();
+        try {
+            serialize(provider.findValueSerializer(value.getClass(), null), generator, provider);
+        } catch (IOException | RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            // Property writers declare any exception, although only serialization ones are expected
+            throw new IOException(exception);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the members of the resource object from the properties of the {@link JsonSerializer} of the value.
+     *
+     * @param serializer is the {@link JsonSerializer} of the value.
+     * @param generator is the {@link JsonGenerator}.
+     * @param provider is the {@link SerializerProvider}.
+     * @throws Exception if the value cannot be written.
+     */
+    private void serialize(JsonSerializer<Object> serializer, JsonGenerator generator, SerializerProvider provider)
+            throws Exception {
+        PropertyWriter id = null;
+        PropertyWriter type = null;
+        for (Iterator<PropertyWriter> properties = serializer.properties(); properties.hasNext();) {
+            final PropertyWriter property = properties.next();
+            if (ID.equals(property.getName())) {
+                id = property;
+            } else if (TYPE.equals(property.getName())) {
+                type = property;
+            }
+        }
+
+        if (id != null) {
+            id.serializeAsField(value, generator, provider);
+        }
+        if (type == null) {
+            generator.writeStringField(TYPE, lowerCase(value.getClass().getSimpleName()));
+        } else {
+            type.serializeAsField(value, generator, provider);
+        }
+        // Everything else goes into attributes
+        generator.writeObjectFieldStart(ATTRIBUTES);
+        for (Iterator<PropertyWriter> properties = serializer.properties(); properties.hasNext();) {
+            final PropertyWriter property = properties.next();
+            if (property != id && property != type) {
+                property.serializeAsField(value, generator, provider);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer serializer)
+            throws IOException {
+        serialize(generator, provider);
+    }
+
+    /**
+     * Writes a {@link Map} value, with its {@code id} and {@code type} entries taken out of the attributes.
+     *
+     * @param map is the {@link Map} value.
+     * @param generator is the {@link JsonGenerator}.
+     * @param provider is the {@link SerializerProvider}.
+     * @throws IOException if the value cannot be written.
+     */
+    private static void serialize(Map<?, ?> map, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        if (map.containsKey(ID)) {
+            generator.writeFieldName(ID);
+            provider.defaultSerializeValue(map.get(ID), generator);
+        }
+        generator.writeFieldName(TYPE);
+        if (map.containsKey(TYPE)) {
+            provider.defaultSerializeValue(map.get(TYPE), generator);
+        } else {
+            generator.writeString(lowerCase(map.getClass().getSimpleName()));
+        }
+        generator.writeObjectFieldStart(ATTRIBUTES);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!ID.equals(entry.getKey()) && !TYPE.equals(entry.getKey())) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                provider.defaultSerializeValue(entry.getValue(), generator);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,212 @@
+package com.meerware.web;
+
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_FALSE;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_STRING;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+/**
+ * {@link JsonParser} which flattens {@code JSON API} resource objects as they are read. The members of
+ * {@code attributes} and the {@code id} of each resource are passed on as members of a single object, and every
+ * other member of the resource, such as {@code type}, is skipped. Nothing is buffered, so the target deserializer
+ * reads straight from the underlying {@link JsonParser}.
+ *
+ * <p>The underlying {@link JsonParser} is expected to be positioned at, or just before, the {@code data} value,
+ * which is either a single resource object or an array of them.</p>
+ */
+final class ResourceParser extends JsonParserDelegate {
+
+    /**
+     * Attributes member of a resource.
+     */
+    private static final String ATTRIBUTES = "attributes";
+
+    /**
+     * Identifier member of a resource.
+     */
+    private static final String ID = "id";
+
+    /**
+     * Nesting depth of resource objects, set from the first token of the {@code data} value.
+     */
+    private int resources;
+
+    /**
+     * Number of currently open objects and arrays since the start of the {@code data} value.
+     */
+    private int depth;
+
+    /**
+     * Depth of the currently open {@code attributes} object, {@code -1} when not within one.
+     */
+    private int attributes = -1;
+
+    /**
+     * @param parser is the underlying {@link JsonParser}.
+     */
+    ResourceParser(JsonParser parser) {
+        super(parser);
+        if (parser.currentToken() != null) {
+            start(parser.currentToken());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonToken nextToken() throws IOException {
+        while (true) {
+            final JsonToken token = delegate.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token.isStructStart()) {
+                start(token);
+                return token;
+            }
+            if (token.isStructEnd()) {
+                if (depth == attributes) {
+                    // Closes the attributes, which were passed on as members of the resource
+                    attributes = -1;
+                    depth--;
+                    continue;
+                }
+                depth--;
+                return token;
+            }
+            if (token != FIELD_NAME || depth != resources) {
+                return token;
+            }
+            final String name = delegate.getCurrentName();
+            if (ATTRIBUTES.equals(name)) {
+                if (delegate.nextToken() == START_OBJECT) {
+                    depth++;
+                    attributes = depth;
+                } else {
+                    delegate.skipChildren();
+                }
+            } else if (ID.equals(name)) {
+                return token;
+            } else {
+                delegate.nextToken();
+                delegate.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonToken nextValue() throws IOException {
+        final JsonToken token = nextToken();
+        if (token == FIELD_NAME) {
+            return nextToken();
+        }
+        return token;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String nextFieldName() throws IOException {
+        if (nextToken() == FIELD_NAME) {
+            return getCurrentName();
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean nextFieldName(SerializableString name) throws IOException {
+        return nextToken() == FIELD_NAME && name.getValue().equals(getCurrentName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String nextTextValue() throws IOException {
+        if (nextToken() == VALUE_STRING) {
+            return getText();
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int nextIntValue(int defaultValue) throws IOException {
+        if (nextToken() == VALUE_NUMBER_INT) {
+            return getIntValue();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long nextLongValue(long defaultValue) throws IOException {
+        if (nextToken() == VALUE_NUMBER_INT) {
+            return getLongValue();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Boolean nextBooleanValue() throws IOException {
+        final JsonToken token = nextToken();
+        if (token == VALUE_TRUE || token == VALUE_FALSE) {
+            return token == VALUE_TRUE;
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        final JsonToken token = delegate.currentToken();
+        if (token == START_OBJECT || token == START_ARRAY) {
+            delegate.skipChildren();
+            depth--;
+        }
+        return this;
+    }
+
+    /**
+     * Opens an object or array, working out the depth of resource objects from the first one.
+     *
+     * @param token is the {@link JsonToken} starting the object or array.
+     */
+    private void start(JsonToken token) {
+        depth++;
+        if (depth == 1) {
+            // A single resource, or an array of them
+            resources = 1;
+            if (token == START_ARRAY) {
+                resources = 2;
+            }
+        }
+    }
+}
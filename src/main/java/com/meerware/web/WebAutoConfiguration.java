@@ -3,6 +3,8 @@ package com.meerware.web;
 import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpHeaders.CACHE_CONTROL;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -38,13 +40,13 @@ class WebAutoConfiguration implements WebMvcConfigurer {
      * Default CORS allowed methods.
      */
     private static final String[] DEFAULT_ALLOWED_METHODS
-            = {"GET", "POST", "PUT", "DELETE"};
+            = {"GET", "POST", "PUT", "PATCH", "DELETE"};
 
     private static final String[] DEFAULT_ALLOWED_HEADERS
-            = {CONTENT_TYPE, ACCEPT};
+            = {CONTENT_TYPE, ACCEPT, IF_NONE_MATCH};
 
     private static final String[] DEFAULT_EXPOSED_HEADERS
-            = {CONTENT_TYPE, CACHE_CONTROL};
+            = {CONTENT_TYPE, CACHE_CONTROL, ETAG};
 
     private final Environment environment;
 
@@ -0,0 +1,16 @@
+-- Sequences
+-- Sequences: Directory Contact, each value reserves a block of 50 identifiers for Hibernate
+create sequence directory_contact_sequence start with 1 increment by 50;
+
+-- Columns: Directory Contact
+-- Rows inserted directly with JDBC take a single value from the sequence
+alter table directory_contact add column id bigint default next value for directory_contact_sequence;
+update directory_contact set id = next value for directory_contact_sequence where id is null;
+alter table directory_contact alter column id set not null;
+
+-- Primary Keys: Directory Contact
+alter table directory_contact add constraint directory_contact_primary_key primary key (id);
+
+-- Indexes: Directory Contact
+create index directory_contact_directory_index on directory_contact (directory_id);
+create index directory_contact_name_index on directory_contact (directory_id, "name");
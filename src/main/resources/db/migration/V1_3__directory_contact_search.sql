@@ -0,0 +1,14 @@
+-- Columns
+-- Columns: Directory Contact, search forms computed by the database so every insert path keeps them current
+alter table directory_contact add column folded_name varchar(128) as lower("name");
+alter table directory_contact add column folded_email varchar(384) as lower(email);
+alter table directory_contact add column phone_digits varchar(32) as regexp_replace(phone, '[^0-9]', '');
+alter table directory_contact add column folded_locality varchar(128) as lower(locality);
+alter table directory_contact add column folded_postcode varchar(16) as lower(postcode);
+
+-- Indexes: Directory Contact, one per searched column so each prefix match is a range scan
+create index directory_contact_folded_name_index on directory_contact (directory_id, folded_name);
+create index directory_contact_folded_email_index on directory_contact (directory_id, folded_email);
+create index directory_contact_phone_digits_index on directory_contact (directory_id, phone_digits);
+create index directory_contact_folded_locality_index on directory_contact (directory_id, folded_locality);
+create index directory_contact_folded_postcode_index on directory_contact (directory_id, folded_postcode);
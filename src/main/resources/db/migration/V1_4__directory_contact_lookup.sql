@@ -0,0 +1,4 @@
+-- Indexes
+-- Indexes: Directory Contact, led by the looked up value so finding the directories holding it is a range scan
+create index directory_contact_lookup_email_index on directory_contact (folded_email, directory_id);
+create index directory_contact_lookup_phone_index on directory_contact (phone_digits, directory_id);
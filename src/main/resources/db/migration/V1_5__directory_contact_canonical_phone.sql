@@ -0,0 +1,8 @@
+-- Columns
+-- Columns: Directory Contact, phone in its E.164 form when valid, otherwise as given, filled in by the application
+alter table directory_contact add column canonical_phone varchar(32);
+
+-- Indexes
+-- Indexes: Directory Contact, phone lookups compare canonical forms rather than digits
+drop index directory_contact_lookup_phone_index;
+create index directory_contact_lookup_phone_index on directory_contact (canonical_phone, directory_id);
@@ -0,0 +1,8 @@
+-- Data
+-- Data: Directory Contact, codes shared by more than one country are stored as the name of the state of the country
+update directory_contact set state = 'Washington' where upper(state) = 'WA' and country = 'US';
+update directory_contact set state = 'Western Australia' where upper(state) = 'WA';
+update directory_contact set state = 'Northwest Territories' where upper(state) = 'NT' and country = 'CA';
+update directory_contact set state = 'Northern Territory' where upper(state) = 'NT';
+update directory_contact set state = 'Tasman' where upper(state) = 'TAS' and country = 'NZ';
+update directory_contact set state = 'Tasmania' where upper(state) = 'TAS';
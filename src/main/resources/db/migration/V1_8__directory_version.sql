@@ -0,0 +1,3 @@
+-- Columns
+-- Columns: Directory, bumped by every write so the entity tag changes even within the same millisecond
+alter table directory add column version bigint default 0 not null;
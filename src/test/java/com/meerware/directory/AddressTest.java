@@ -80,6 +80,20 @@ public class AddressTest {
         assertEquals(address, mapper.readValue(JSON, Address.class));
     }
 
+    /**
+     * Ensures the state is read as a subdivision of the country, whichever comes first.
+     */
+    @Test
+    public void shouldDeserializeStateInCountry() throws Exception {
+        assertEquals("Washington", mapper.readValue("{\"state\":\"WA\",\"country\":\"US\"}", Address.class)
+                .getState().getName());
+        assertEquals("Washington", mapper.readValue("{\"country\":\"US\",\"state\":\"WA\"}", Address.class)
+                .getState().getName());
+        assertEquals(State.WESTERN_AUSTRALIA, mapper.readValue("{\"state\":\"WA\"}", Address.class).getState());
+        assertEquals(State.TASMANIA, mapper.readValue("{\"state\":\"Tasmania\",\"country\":\"NZ\"}", Address.class)
+                .getState());
+    }
+
     /**
      * Ensures valid with a complete, valid {@link Address}.
      */
@@ -148,4 +162,16 @@ public class AddressTest {
         assertEquals("100 C*********************************************ralia",
                 address.toString());
     }
+
+    /**
+     * Ensures the cached display is recomputed after a change.
+     */
+    @Test
+    public void shouldRecomputeDisplayAfterChange() {
+        assertEquals("100 Collins Street, Melbourne, Victoria 3000, Australia", address.toDisplay());
+        address.setPostcode("3001");
+        assertEquals("100 Collins Street, Melbourne, Victoria 3001, Australia", address.toDisplay());
+        address.setLines(Lists.newArrayList("200 Bourke Street"));
+        assertEquals("200 Bourke Street, Melbourne, Victoria 3001, Australia", address.toDisplay());
+    }
 }
@@ -0,0 +1,91 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ContactCanonicalKey}.
+ */
+public class ContactCanonicalKeyTest {
+
+    /**
+     * Ensures names and emails are compared ignoring case and whitespace.
+     */
+    @Test
+    public void shouldIgnoreCaseAndWhitespace() {
+        assertEquals(
+                ContactCanonicalKey.of(new Contact("H P Lovecraft", "hp@lovecraft.com", null, null)),
+                ContactCanonicalKey.of(new Contact("  h p   LOVECRAFT ", "HP@Lovecraft.com ", null, null)));
+    }
+
+    /**
+     * Ensures phone numbers are compared in their canonical form, or without punctuation when not valid.
+     */
+    @Test
+    public void shouldIgnorePhoneFormatting() {
+        assertEquals(
+                ContactCanonicalKey.of(new Contact("Frank Zappa", null, "(03) 8685 1462", null)),
+                ContactCanonicalKey.of(new Contact("Frank Zappa", null, "+61 3 8685 1462", null)));
+        assertEquals(
+                ContactCanonicalKey.of(new Contact("Frank Zappa", null, "12-34", null)),
+                ContactCanonicalKey.of(new Contact("Frank Zappa", null, "12 34", null)));
+    }
+
+    /**
+     * Ensures a {@link State} written as a code or a name is the same, as are postcodes with whitespace.
+     */
+    @Test
+    public void shouldCanonicalizeAddress() {
+        Address first = new Address();
+        first.setLines(newArrayList("100  Collins Street"));
+        first.setLocality("Melbourne");
+        first.setPostcode("3000");
+        first.setState(State.parse("VIC"));
+        first.setCountry(Country.AUSTRALIA);
+
+        Address second = new Address();
+        second.setLines(newArrayList("100 collins street "));
+        second.setLocality("MELBOURNE");
+        second.setPostcode(" 30 00");
+        second.setState(State.parse("victoria"));
+        second.setCountry(Country.parse("AU"));
+
+        ContactCanonicalKey key = ContactCanonicalKey.of(new Contact("H P Lovecraft", null, null, first));
+        ContactCanonicalKey other = ContactCanonicalKey.of(new Contact("H P Lovecraft", null, null, second));
+        assertEquals(key, other);
+        assertEquals(key.getFingerprint(), other.getFingerprint());
+    }
+
+    /**
+     * Ensures a {@link State} code is read as a subdivision of the {@link Country} of the address.
+     */
+    @Test
+    public void shouldCanonicalizeStateInCountry() {
+        Address code = Address.of(null, null, null, "wa", Country.UNITED_STATES);
+        Address name = Address.of(null, null, null, "Washington", Country.UNITED_STATES);
+
+        Address australian = new Address();
+        australian.setCountry(Country.UNITED_STATES);
+        australian.setState(State.WESTERN_AUSTRALIA);
+
+        ContactCanonicalKey key = ContactCanonicalKey.of(new Contact("Kurt Cobain", null, null, code));
+        assertEquals(key, ContactCanonicalKey.of(new Contact("Kurt Cobain", null, null, name)));
+        assertNotEquals(key, ContactCanonicalKey.of(new Contact("Kurt Cobain", null, null, australian)));
+    }
+
+    /**
+     * Ensures blank values are the same as missing ones, but different values are kept apart.
+     */
+    @Test
+    public void shouldTreatBlankAsMissing() {
+        assertEquals(
+                ContactCanonicalKey.of(new Contact("Jack Bruce", " ", null, null)),
+                ContactCanonicalKey.of(new Contact("Jack Bruce")));
+        assertNotEquals(
+                ContactCanonicalKey.of(new Contact("Jack Bruce", "jack@cream.com", null, null)),
+                ContactCanonicalKey.of(new Contact("Jack Bruce")));
+    }
+}
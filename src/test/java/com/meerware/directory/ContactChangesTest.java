@@ -0,0 +1,53 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ContactChanges}.
+ */
+public class ContactChangesTest {
+
+    /**
+     * {@link ObjectMapper} used for {@code JSON} tests.
+     */
+    private static ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Ensures {@code JSON} deserialization.
+     */
+    @Test
+    public void shouldDeserialize() throws Exception {
+        ContactChanges changes = mapper.readValue(
+                "{\"add\":[{\"name\":\"Frank Zappa\"},{\"name\":\"Frank Zappa\"}],"
+                + "\"remove\":[{\"name\":\"Les Claypool\"}]}", ContactChanges.class);
+        assertEquals(ImmutableSet.of(new Contact("Frank Zappa")), changes.getAdd());
+        assertEquals(ImmutableSet.of(new Contact("Les Claypool")), changes.getRemove());
+    }
+
+    /**
+     * Ensures {@code JSON} serialization leaves out empty changes.
+     */
+    @Test
+    public void shouldSerialize() throws Exception {
+        ContactChanges changes = new ContactChanges(ImmutableList.of(new Contact("Jack Bruce")), null);
+        assertEquals("{\"add\":[{\"name\":\"Jack Bruce\",\"address\":{},\"display\":\"Jack Bruce\"}]}",
+                mapper.writeValueAsString(changes));
+    }
+
+    /**
+     * Ensures missing changes are empty.
+     */
+    @Test
+    public void shouldBeEmpty() {
+        assertTrue(new ContactChanges(null, null).isEmpty());
+        assertFalse(new ContactChanges(null, ImmutableList.of(new Contact("Jack Bruce"))).isEmpty());
+    }
+}
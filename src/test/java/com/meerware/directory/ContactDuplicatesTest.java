@@ -0,0 +1,79 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for the {@link ContactDuplicates}.
+ */
+public class ContactDuplicatesTest {
+
+    /**
+     * {@link Contact} fixtures, with two groups of duplicates.
+     */
+    private static final List<Contact> CONTACTS = ImmutableList.of(
+            new Contact("jack bruce", null, "(03) 8685 1462", null),
+            new Contact("Ginger Baker"),
+            new Contact("Jack Bruce", null, "+61 3 8685 1462", null),
+            new Contact("Eric Clapton"),
+            new Contact(" ERIC CLAPTON"),
+            new Contact("JACK  BRUCE", null, "03 8685 1462", null));
+
+    /**
+     * Ensures duplicates are grouped in {@link Contact} order, whatever the number of partitions.
+     */
+    @Test
+    public void shouldGroupDuplicates() {
+        for (int partitions : new int[] {1, 3, 64}) {
+            List<List<Contact>> groups = newArrayList();
+            long count = ContactDuplicates.find(CONTACTS::forEach, partitions, 100, groups::add);
+            groups.sort(Comparator.comparing(group -> group.get(0)));
+
+            assertEquals(6, count);
+            assertEquals(ImmutableList.of(
+                    ImmutableList.of(new Contact(" ERIC CLAPTON"), new Contact("Eric Clapton")),
+                    ImmutableList.of(
+                            new Contact("JACK  BRUCE", null, "03 8685 1462", null),
+                            new Contact("Jack Bruce", null, "+61 3 8685 1462", null),
+                            new Contact("jack bruce", null, "(03) 8685 1462", null))), groups);
+        }
+    }
+
+    /**
+     * Ensures the same groups are found when only a few {@link Contact} entities are held at a time, by reading the
+     * {@link ContactStream} again for the partitions left over.
+     */
+    @Test
+    public void shouldGroupInPasses() {
+        List<List<Contact>> groups = newArrayList();
+        int[] passes = new int[1];
+        long count = ContactDuplicates.find(action -> {
+            passes[0]++;
+            CONTACTS.forEach(action);
+        }, 64, 1, groups::add);
+
+        assertEquals(6, count);
+        assertEquals(2, groups.size());
+        assertEquals(5, groups.stream().mapToInt(List::size).sum());
+        assertTrue(passes[0] > 1);
+    }
+
+    /**
+     * Ensures nothing is given without duplicates.
+     */
+    @Test
+    public void shouldNotGroupDistinctContacts() {
+        List<List<Contact>> groups = newArrayList();
+        ContactDuplicates.find(ImmutableList.of(new Contact("Jack Bruce"), new Contact("Ginger Baker"))::forEach, 4, 100,
+                groups::add);
+        assertTrue(groups.isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ContactFingerprintSet}.
+ */
+public class ContactFingerprintSetTest {
+
+    /**
+     * First {@link Contact} entities fixture.
+     */
+    private static final List<Contact> FIRST = ImmutableList.of(
+            new Contact("Jack Bruce"),
+            new Contact("Les Claypool", "les@primus.com", null, null),
+            new Contact("Frank Zappa"));
+
+    /**
+     * Second {@link Contact} entities fixture.
+     */
+    private static final List<Contact> SECOND = ImmutableList.of(
+            new Contact("Ginger Baker"),
+            new Contact("Les Claypool", "les@primus.com", null, null),
+            new Contact("Les Claypool"));
+
+    /**
+     * Ensures duplicates are only added once.
+     */
+    @Test
+    public void shouldAddDistinctContacts() {
+        ContactFingerprintSet set = new ContactFingerprintSet(1);
+        assertTrue(set.add(new Contact("Jack Bruce")));
+        assertFalse(set.add(new Contact("Jack Bruce")));
+        assertTrue(set.add(new Contact("Ginger Baker")));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(new Contact("Ginger Baker")));
+        assertFalse(set.contains(new Contact("Eric Clapton")));
+    }
+
+    /**
+     * Ensures the union in insertion order.
+     */
+    @Test
+    public void shouldUnion() {
+        ContactFingerprintSet result = ContactFingerprintSet.of(FIRST).union(ContactFingerprintSet.of(SECOND));
+        assertEquals(ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Les Claypool", "les@primus.com", null, null),
+                new Contact("Frank Zappa"),
+                new Contact("Ginger Baker"),
+                new Contact("Les Claypool")), ImmutableList.copyOf(result));
+    }
+
+    /**
+     * Ensures the intersection.
+     */
+    @Test
+    public void shouldIntersect() {
+        ContactFingerprintSet result = ContactFingerprintSet.of(FIRST).intersection(ContactFingerprintSet.of(SECOND));
+        assertEquals(ImmutableList.of(new Contact("Les Claypool", "les@primus.com", null, null)),
+                ImmutableList.copyOf(result));
+    }
+
+    /**
+     * Ensures the difference.
+     */
+    @Test
+    public void shouldDifference() {
+        ContactFingerprintSet result = ContactFingerprintSet.of(FIRST).difference(ContactFingerprintSet.of(SECOND));
+        assertEquals(ImmutableList.of(new Contact("Jack Bruce"), new Contact("Frank Zappa")),
+                ImmutableList.copyOf(result));
+    }
+
+    /**
+     * Ensures colliding fingerprints fall back to equality.
+     */
+    @Test
+    public void shouldFallBackToEqualityOnCollision() {
+        ContactFingerprintSet first = new ContactFingerprintSet(1, contact -> 42L);
+        FIRST.forEach(first::add);
+        ContactFingerprintSet second = new ContactFingerprintSet(1, contact -> 42L);
+        SECOND.forEach(second::add);
+        assertEquals(3, first.size());
+        assertEquals(5, first.union(second).size());
+        assertEquals(1, first.intersection(second).size());
+        assertEquals(2, first.difference(second).size());
+    }
+
+    /**
+     * Ensures equal {@link Contact} entities have equal fingerprints.
+     */
+    @Test
+    public void shouldFingerprintByValue() {
+        assertEquals(
+                ContactFingerprints.of(new Contact("Les Claypool", "les@primus.com", null, null)),
+                ContactFingerprints.of(new Contact("Les Claypool", "les@primus.com", null, null)));
+        assertNotEquals(
+                ContactFingerprints.of(new Contact("Les Claypool", "les@primus.com", null, null)),
+                ContactFingerprints.of(new Contact("Les Claypool", null, "les@primus.com", null)));
+    }
+}
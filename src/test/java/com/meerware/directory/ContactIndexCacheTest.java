@@ -0,0 +1,100 @@
+package com.meerware.directory;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Tests for the {@link ContactIndexCache}.
+ */
+public class ContactIndexCacheTest {
+
+    /**
+     * Main test object, holding a single {@link ContactIndex}.
+     */
+    private ContactIndexCache cache;
+
+    /**
+     * Number of loaded {@link ContactIndex} objects.
+     */
+    private AtomicInteger loads;
+
+    /**
+     * {@link Supplier} of a {@link ContactIndex}, counting the loads.
+     */
+    private Supplier<ContactIndex> loader;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        cache = new ContactIndexCache(new MockEnvironment().withProperty("directory.typeahead.directories", "1"));
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return ContactIndex.of(ImmutableList.of(new Contact("Jack Bruce")));
+        };
+    }
+
+    /**
+     * Ensures a cached {@link ContactIndex} is not loaded again.
+     */
+    @Test
+    public void shouldLoadOnce() {
+        UUID id = randomUUID();
+        ContactIndex index = cache.get(id, loader);
+        assertSame(index, cache.get(id, loader));
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Ensures the least recently used {@link ContactIndex} is evicted, so other {@link Directory} entities are cached.
+     */
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        UUID first = randomUUID();
+        UUID second = randomUUID();
+        cache.get(first, loader);
+        cache.get(second, loader);
+        cache.get(second, loader);
+        assertEquals(2, loads.get());
+
+        cache.get(first, loader);
+        assertEquals(3, loads.get());
+    }
+
+    /**
+     * Ensures an exception of the loader is given back as is.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailLoading() {
+        UUID id = randomUUID();
+        cache.get(id, () -> {
+            throw new DirectoryNotFoundException(id);
+        });
+    }
+
+    /**
+     * Ensures changes are applied to the cached {@link ContactIndex}, outside of a transaction straight away.
+     */
+    @Test
+    public void shouldChange() {
+        UUID id = randomUUID();
+        cache.get(id, loader);
+        cache.change(id, ImmutableList.of(new Contact("Frank Zappa")), ImmutableList.of());
+
+        assertEquals(ImmutableList.of(new Contact("Frank Zappa")), cache.get(id, loader).find("zap", 10));
+        assertEquals(1, loads.get());
+    }
+}
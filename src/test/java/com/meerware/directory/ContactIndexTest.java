@@ -0,0 +1,147 @@
+package com.meerware.directory;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ContactIndex}.
+ */
+public class ContactIndexTest {
+
+    /**
+     * {@link Contact} with an {@link Address} fixture.
+     */
+    private Contact lovecraft;
+
+    /**
+     * Main test object.
+     */
+    private ContactIndex index;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        Address address = new Address();
+        address.setCountry(Country.AUSTRALIA);
+        address.setState(State.VICTORIA);
+        address.setLocality("Melbourne");
+        address.setPostcode("3000");
+        address.setLines(newArrayList("100 Collins Street"));
+        lovecraft = new Contact("H P Lovecraft", "hp@lovecraft.com", "1800-757-888", address);
+
+        index = ContactIndex.of(ImmutableList.of(
+                new Contact("Les Claypool", "les@primus.com", null, null),
+                new Contact("Jack Bruce"),
+                lovecraft,
+                new Contact("Les Claypool"),
+                new Contact("Jack Bruce")));
+    }
+
+    /**
+     * Ensures duplicates are only indexed once.
+     */
+    @Test
+    public void shouldIndexDistinctContacts() {
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * Ensures finding by the start of a token of the name, ignoring case, in {@link Contact} order.
+     */
+    @Test
+    public void shouldFindByNamePrefix() {
+        assertEquals(ImmutableList.of(new Contact("Les Claypool"), new Contact("Les Claypool", "les@primus.com", null, null)),
+                index.find("CLAY", 10));
+    }
+
+    /**
+     * Ensures finding by the start of tokens of the email and {@link Address}.
+     */
+    @Test
+    public void shouldFindByEmailAndAddress() {
+        assertEquals(ImmutableList.of(lovecraft), index.find("hp@love", 10));
+        assertEquals(ImmutableList.of(lovecraft), index.find("melb", 10));
+        assertEquals(ImmutableList.of(lovecraft), index.find("collins st", 10));
+        assertEquals(ImmutableList.of(new Contact("Les Claypool", "les@primus.com", null, null)), index.find("prim", 10));
+    }
+
+    /**
+     * Ensures every token of the query has to match.
+     */
+    @Test
+    public void shouldFindAllTokens() {
+        assertEquals(ImmutableList.of(lovecraft), index.find("h p love", 10));
+        assertTrue(index.find("jack clay", 10).isEmpty());
+    }
+
+    /**
+     * Ensures nothing is found without tokens.
+     */
+    @Test
+    public void shouldNotFindWithoutTokens() {
+        assertTrue(index.find(" - ", 10).isEmpty());
+    }
+
+    /**
+     * Ensures the number of found {@link Contact} entities is limited.
+     */
+    @Test
+    public void shouldLimitFound() {
+        List<Contact> found = index.find("les", 1);
+        assertEquals(ImmutableList.of(new Contact("Les Claypool")), found);
+    }
+
+    /**
+     * Ensures changes build a new {@link ContactIndex}, leaving the original as is.
+     */
+    @Test
+    public void shouldChange() {
+        ContactIndex changed = index.change(
+                ImmutableList.of(new Contact("Frank Zappa")), ImmutableList.of(new Contact("Jack Bruce")));
+        assertEquals(ImmutableList.of(new Contact("Frank Zappa")), changed.find("zap", 10));
+        assertTrue(changed.find("jack", 10).isEmpty());
+        assertEquals(ImmutableList.of(new Contact("Jack Bruce")), index.find("jack", 10));
+    }
+
+    /**
+     * Ensures merging changes finds the same as building the changed {@link ContactIndex} from scratch.
+     */
+    @Test
+    public void shouldChangeAsIfBuilt() {
+        ContactIndex changed = index.change(
+                ImmutableList.of(new Contact("Les Paul"), new Contact("Adrian Belew"), new Contact("Zak Starkey"),
+                        new Contact("Jack Bruce")),
+                ImmutableList.of(new Contact("Les Claypool"), lovecraft, new Contact("Ginger Baker")));
+        ContactIndex built = ContactIndex.of(ImmutableList.of(
+                new Contact("Les Claypool", "les@primus.com", null, null),
+                new Contact("Jack Bruce"),
+                new Contact("Les Paul"),
+                new Contact("Adrian Belew"),
+                new Contact("Zak Starkey")));
+
+        assertEquals(built.size(), changed.size());
+        for (String query : ImmutableList.of("les", "l", "jack", "a", "z", "prim", "melb", "love", "claypool")) {
+            assertEquals(query, built.find(query, 10), changed.find(query, 10));
+        }
+    }
+
+    /**
+     * Ensures the same {@link ContactIndex} is kept when nothing changes.
+     */
+    @Test
+    public void shouldNotChangeWithoutChanges() {
+        assertSame(index, index.change(
+                ImmutableList.of(new Contact("Jack Bruce")), ImmutableList.of(new Contact("Ginger Baker"))));
+    }
+}
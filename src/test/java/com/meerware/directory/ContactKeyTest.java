@@ -0,0 +1,77 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ContactKey}.
+ */
+public class ContactKeyTest {
+
+    /**
+     * Ensures a {@link ContactKey} can be encoded and decoded back.
+     */
+    @Test
+    public void shouldEncodeAndDecode() {
+        ContactKey key = ContactKey.of(
+                "H P Lovecraft", null, "1800-757-888", "100 Collins Street", "Melbourne", "VIC", "3000", "AU");
+        ContactKey result = ContactKey.decode(key.encode());
+        assertEquals(key, result);
+        assertEquals("H P Lovecraft", result.get(0));
+        assertNull(result.get(1));
+        assertEquals("AU", result.get(7));
+    }
+
+    /**
+     * Ensures the cursor can be used as a query parameter without escaping.
+     */
+    @Test
+    public void shouldEncodeUrlSafe() {
+        String cursor = ContactKey.of("???>>>", "~~~", null, null, null, null, null, null).encode();
+        assertEquals(cursor, cursor.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    /**
+     * Ensures failure decoding a cursor which is not base 64.
+     */
+    @Test(expected = DirectoryCursorException.class)
+    public void shouldFailDecodingInvalidCursor() {
+        ContactKey.decode("!!!");
+    }
+
+    /**
+     * Ensures failure decoding a cursor which is truncated.
+     */
+    @Test(expected = DirectoryCursorException.class)
+    public void shouldFailDecodingTruncatedCursor() {
+        String cursor = ContactKey.of("a", "b", "c", "d", "e", "f", "g", "h").encode();
+        ContactKey.decode(cursor.substring(0, cursor.length() / 2));
+    }
+
+    /**
+     * Ensures failure creating a {@link ContactKey} with the wrong number of values.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailWithWrongNumberOfValues() {
+        ContactKey.of("a", "b");
+    }
+
+    /**
+     * Ensures ordering column by column with missing values first.
+     */
+    @Test
+    public void shouldCompareWithNullsFirst() {
+        ContactKey first = ContactKey.of("a", null, null, null, null, null, null, null);
+        ContactKey second = ContactKey.of("a", "", null, null, null, null, null, null);
+        ContactKey third = ContactKey.of("a", "b", null, null, null, null, null, null);
+        ContactKey fourth = ContactKey.of("b", null, null, null, null, null, null, null);
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+        assertTrue(third.compareTo(fourth) < 0);
+        assertTrue(fourth.compareTo(first) > 0);
+        assertEquals(0, third.compareTo(ContactKey.of("a", "b", null, null, null, null, null, null)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ContactMerge}.
+ */
+public class ContactMergeTest {
+
+    /**
+     * Sorted sources fixture, the second one repeats a value.
+     */
+    private static final List<List<Integer>> SOURCES = ImmutableList.of(
+            ImmutableList.of(1, 2, 3, 5),
+            ImmutableList.of(2, 3, 3, 4),
+            ImmutableList.of(3, 5, 6));
+
+    /**
+     * Ensures the union.
+     */
+    @Test
+    public void shouldMergeUnion() {
+        assertEquals(ImmutableList.of(1, 2, 3, 4, 5, 6), merge(SetOperation.UNION, SOURCES));
+    }
+
+    /**
+     * Ensures the intersection.
+     */
+    @Test
+    public void shouldMergeIntersection() {
+        assertEquals(ImmutableList.of(3), merge(SetOperation.INTERSECTION, SOURCES));
+    }
+
+    /**
+     * Ensures the symmetric difference keeps values in an odd number of sources.
+     */
+    @Test
+    public void shouldMergeSymmetricDifference() {
+        assertEquals(ImmutableList.of(1, 3, 4, 6), merge(SetOperation.SYMMETRIC_DIFFERENCE, SOURCES));
+    }
+
+    /**
+     * Ensures the difference keeps values only in the first source.
+     */
+    @Test
+    public void shouldMergeDifference() {
+        assertEquals(ImmutableList.of(1), merge(SetOperation.DIFFERENCE, SOURCES));
+    }
+
+    /**
+     * Ensures empty and missing sources.
+     */
+    @Test
+    public void shouldMergeEmptySources() {
+        assertEquals(ImmutableList.of(), merge(SetOperation.UNION, ImmutableList.of()));
+        assertEquals(ImmutableList.of(), merge(SetOperation.INTERSECTION,
+                ImmutableList.of(ImmutableList.of(1), ImmutableList.of())));
+    }
+
+    /**
+     * Ensures parsing the operation name.
+     */
+    @Test
+    public void shouldParseOperation() {
+        assertEquals(SetOperation.SYMMETRIC_DIFFERENCE, SetOperation.parse("symmetric_difference"));
+        assertEquals("union", SetOperation.UNION.toValue());
+    }
+
+    /**
+     * @param operation is the {@link SetOperation}.
+     * @param sources are the sorted sources.
+     * @return the merged result.
+     */
+    private static List<Integer> merge(SetOperation operation, List<List<Integer>> sources) {
+        List<Iterator<Integer>> iterators = sources.stream().map(List::iterator).collect(Collectors.toList());
+        ImmutableList.Builder<Integer> result = ImmutableList.builder();
+        ContactMerge.merge(iterators, Comparator.naturalOrder(), operation, result::add);
+        return result.build();
+    }
+}
@@ -238,6 +238,21 @@ public class ContactTest {
         assertFalse(right.equals(left));
     }
 
+    /**
+     * Ensures equal with the same phone number written differently, comparing canonical forms.
+     */
+    @Test
+    public void shouldEqualWithDifferentlyWrittenPhone() {
+        Contact left = contact;
+        Contact right = new Contact(
+                "H P Lovecraft", "hp@lovecraft.com", "1800 757 888", contact.getAddress());
+        assertTrue(left.equals(right));
+        assertEquals(left.hashCode(), right.hashCode());
+        assertEquals(0, left.compareTo(right));
+        assertEquals("1800 757 888", right.getPhone());
+        assertEquals(left.getCanonicalPhone(), right.getCanonicalPhone());
+    }
+
     /**
      * Ensures not equal with a different {@link Address}.
      */
@@ -262,4 +277,24 @@ public class ContactTest {
                 contact.toString());
         assertEquals("name=\"****\"", new Contact("Name").toString());
     }
+
+    /**
+     * Ensures missing values compare the same as blank values and before any other value.
+     */
+    @Test
+    public void shouldCompareMissingAsBlank() {
+        assertEquals(0, new Contact("Name", null, null, null).compareTo(new Contact("Name", "", null, null)));
+        assertTrue(new Contact("Name", null, null, null).compareTo(new Contact("Name", "a@b.com", null, null)) < 0);
+        assertTrue(new Contact("Name", "a@b.com", null, null).compareTo(new Contact("Name", null, null, null)) > 0);
+    }
+
+    /**
+     * Ensures equal values have the same hash code, including after the cached value is computed.
+     */
+    @Test
+    public void shouldHashByValue() {
+        Contact other = deserialize(serialize(contact));
+        assertEquals(contact.hashCode(), other.hashCode());
+        assertEquals(contact.hashCode(), contact.hashCode());
+    }
 }
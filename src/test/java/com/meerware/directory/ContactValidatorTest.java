@@ -0,0 +1,131 @@
+package com.meerware.directory;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import javax.validation.Validation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.validation.FieldError;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for the {@link ContactValidator}.
+ */
+public class ContactValidatorTest {
+
+    /**
+     * {@link Directory} fixture, with invalid {@link Contact} entities spread over several chunks.
+     */
+    private static final Directory INVALID = new Directory("invalid", ImmutableList.of(
+            new Contact("Eric Clapton", "eric@cream.com", "1800-757-888", null),
+            new Contact("Frank Zappa", null, "not a phone", null),
+            new Contact("Ginger Baker"),
+            new Contact("Jack Bruce"),
+            new Contact("Les Claypool", "not an email", "not a phone", null)));
+
+    /**
+     * Main test object, validating chunks of two {@link Contact} entities in parallel.
+     */
+    private ContactValidator validator;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        validator = validator("true");
+    }
+
+    /**
+     * Stops the test object.
+     */
+    @After
+    public void tearDown() {
+        validator.shutdown();
+    }
+
+    /**
+     * Ensures valid {@link Contact} entities pass.
+     */
+    @Test
+    public void shouldPassValidContacts() {
+        validator.validate(new Directory("valid", ImmutableList.of(
+                new Contact("Eric Clapton", "eric@cream.com", "1800-757-888", null),
+                new Contact("Ginger Baker"),
+                new Contact("Jack Bruce"))));
+    }
+
+    /**
+     * Ensures the violations of every chunk are merged in {@link Contact} order, pointing to each {@link Contact}.
+     */
+    @Test
+    public void shouldMergeViolationsInOrder() {
+        assertEquals(ImmutableList.of("contacts[1].phone", "contacts[4].email", "contacts[4].phone"), fields(validator));
+    }
+
+    /**
+     * Ensures the violations point at the position each {@link Contact} was received in, not its position in name order.
+     */
+    @Test
+    public void shouldPointAtReceivedOrder() {
+        try {
+            validator.validate(new Directory("unsorted", ImmutableList.of(
+                    new Contact("Les Claypool", "not an email", null, null),
+                    new Contact("Frank Zappa"),
+                    new Contact("Frank Zappa"),
+                    new Contact("Eric Clapton", null, "not a phone", null))));
+            fail("Expected the contacts not to be valid");
+        } catch (DirectoryValidationException exception) {
+            assertEquals(ImmutableList.of("contacts[0].email", "contacts[3].phone"), exception.getBindingResult()
+                    .getFieldErrors().stream().map(FieldError::getField).collect(toList()));
+        }
+    }
+
+    /**
+     * Ensures validating on the calling thread gives the same violations.
+     */
+    @Test
+    public void shouldValidateSequentially() {
+        ContactValidator sequential = validator("false");
+        try {
+            assertEquals(fields(validator), fields(sequential));
+        } finally {
+            sequential.shutdown();
+        }
+    }
+
+    /**
+     * @param parallel is whether chunks are validated in parallel.
+     * @return the {@link ContactValidator}.
+     */
+    private static ContactValidator validator(String parallel) {
+        return new ContactValidator(
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new MockEnvironment()
+                        .withProperty("directory.validation.parallel", parallel)
+                        .withProperty("directory.validation.chunk-size", "2")
+                        .withProperty("directory.validation.parallelism", "2"));
+    }
+
+    /**
+     * @param validator is the {@link ContactValidator}.
+     * @return the fields of the violations of the {@link #INVALID} {@link Directory}.
+     */
+    private static List<String> fields(ContactValidator validator) {
+        try {
+            validator.validate(INVALID);
+            fail("Expected the contacts not to be valid");
+            return ImmutableList.of();
+        } catch (DirectoryValidationException exception) {
+            return exception.getBindingResult().getFieldErrors().stream().map(FieldError::getField).collect(toList());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests for the {@link ContactWriter}.
+ */
+public class ContactWriterTest {
+
+    /**
+     * {@link ContactStream} fixture.
+     */
+    private static final ContactStream CONTACTS = action -> {
+        action.accept(new Contact("Jack Bruce", "jack@cream.com", null, null));
+        action.accept(new Contact("Ginger \"Baker\", drums"));
+    };
+
+    /**
+     * Main test object.
+     */
+    private ContactWriter writer;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        writer = new ContactWriter(new ObjectMapper());
+    }
+
+    /**
+     * Ensures writing one {@link Contact} per line.
+     */
+    @Test
+    public void shouldWriteLines() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.writeLines(CONTACTS, output);
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"name\":\"Jack Bruce\",\"email\":\"jack@cream.com\""));
+        assertTrue(lines[1].startsWith("{\"name\":\"Ginger \\\"Baker\\\", drums\""));
+    }
+
+    /**
+     * Ensures writing {@code CSV} with a header and quoting values only when needed.
+     */
+    @Test
+    public void shouldWriteCsv() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.writeCsv(CONTACTS, output);
+
+        assertEquals("name,email,phone,lines,locality,state,postcode,country\r\n"
+                + "Jack Bruce,jack@cream.com,,,,,,\r\n"
+                + "\"Ginger \"\"Baker\"\", drums\",,,,,,,\r\n",
+                new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -54,6 +54,32 @@ public class CountryTest {
         assertEquals(Country.ECUADOR, Country.parse("Ecuador"));
     }
 
+    /**
+     * Ensures parsing ignores case, accents and surrounding white space.
+     */
+    @Test
+    public void shouldParseFolded() {
+        assertEquals(Country.ECUADOR, Country.parse("republica del ecuador"));
+        assertEquals(Country.ECUADOR, Country.parse(" ec "));
+        assertEquals(Country.SAO_TOME_AND_PRINCIPE, Country.parse("SAO TOME AND PRINCIPE"));
+    }
+
+    /**
+     * Ensures parsing of enumeration names.
+     */
+    @Test
+    public void shouldParseName() {
+        assertEquals(Country.SAO_TOME_AND_PRINCIPE, Country.parse("sao_tome_and_principe"));
+    }
+
+    /**
+     * Ensures parsing of unknown values fails.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotParseUnknown() {
+        Country.parse("Atlantis");
+    }
+
     /**
      * Ensures {@code JSON} serialization.
      */
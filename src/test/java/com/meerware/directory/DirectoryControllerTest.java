@@ -4,10 +4,15 @@ import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.meerware.web.DocumentCache;
 
 import java.util.UUID;
 
@@ -17,6 +22,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Tests for the {@link DirectoryController}.
@@ -41,14 +51,153 @@ public class DirectoryControllerTest {
     @Mock
     private DirectoryService service;
 
+    /**
+     * {@link Mock} {@link ContactWriter}.
+     */
+    @Mock
+    private ContactWriter writer;
+
+    /**
+     * {@link Mock} {@link DocumentCache}.
+     */
+    @Mock
+    private DocumentCache documents;
+
 
     /**
      * Ensures getting a {@link Directory}.
      */
     @Test
-    public void shouldGetDirectory() {
-        controller.get(IDENTIFIER);
-        verify(service, times(1)).get(IDENTIFIER);
+    public void shouldGetDirectory() throws Exception {
+        when(service.tag(IDENTIFIER)).thenReturn("tag");
+        when(documents.get(eq("\"tag-json\""), isNull(), any())).thenReturn(new byte[0]);
+        ResponseEntity<byte[]> response = controller.get(IDENTIFIER, new HttpHeaders());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"tag-json\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(ImmutableList.of(HttpHeaders.CONTENT_TYPE), response.getHeaders().getVary());
+    }
+
+    /**
+     * Ensures the {@code JSON API} document of a {@link Directory} has its own entity tag and media type.
+     */
+    @Test
+    public void shouldGetDirectoryAsJsonApi() throws Exception {
+        when(service.tag(IDENTIFIER)).thenReturn("tag");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.api+json"));
+        headers.setIfNoneMatch("\"tag-json\"");
+        when(documents.get(eq("\"tag-api\""), eq(headers.getContentType()), any())).thenReturn(new byte[0]);
+        ResponseEntity<byte[]> response = controller.get(IDENTIFIER, headers);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"tag-api\"", response.getHeaders().getETag());
+        assertEquals(headers.getContentType(), response.getHeaders().getContentType());
+    }
+
+    /**
+     * Ensures a {@link Directory} the client already has is not loaded.
+     */
+    @Test
+    public void shouldNotGetUnmodifiedDirectory() throws Exception {
+        when(service.tag(IDENTIFIER)).thenReturn("tag");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ImmutableList.of("\"other\"", "W/\"tag-json\""));
+        ResponseEntity<byte[]> response = controller.get(IDENTIFIER, headers);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(documents, never()).get(any(), any(), any());
+        verify(service, never()).get(IDENTIFIER);
+    }
+
+    /**
+     * Ensures getting a page of {@link Contact} entities.
+     */
+    @Test
+    public void shouldGetContacts() {
+        controller.contacts(IDENTIFIER, "cursor", 10);
+        verify(service, times(1)).contacts(IDENTIFIER, "cursor", 10);
+    }
+
+    /**
+     * Ensures searching the {@link Contact} entities of a {@link Directory}.
+     */
+    @Test
+    public void shouldSearchContacts() {
+        controller.search(IDENTIFIER, "zap", 10);
+        verify(service, times(1)).search(IDENTIFIER, "zap", 10);
+    }
+
+    /**
+     * Ensures looking up the {@link Directory} entities holding an email.
+     */
+    @Test
+    public void shouldLookUpDirectories() {
+        controller.lookup("hp@lovecraft.com", null, null, 10);
+        verify(service, times(1)).lookup("hp@lovecraft.com", null, null, 10);
+    }
+
+    /**
+     * Ensures typeahead over the {@link Contact} entities of a {@link Directory}.
+     */
+    @Test
+    public void shouldTypeaheadContacts() {
+        controller.typeahead(IDENTIFIER, "zap", 10);
+        verify(service, times(1)).typeahead(IDENTIFIER, "zap", 10);
+    }
+
+    /**
+     * Ensures exporting a {@link Directory} as newline delimited {@code JSON} by default.
+     */
+    @Test
+    public void shouldExportLines() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(MediaType.parseMediaTypes("*/*"));
+        ResponseEntity<StreamingResponseBody> response = controller.export(IDENTIFIER, headers);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType(ContactWriter.NDJSON_VALUE), response.getHeaders().getContentType());
+        verify(service, times(1)).export(IDENTIFIER);
+    }
+
+    /**
+     * Ensures exporting a {@link Directory} as {@code CSV} when preferred.
+     */
+    @Test
+    public void shouldExportCsv() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(MediaType.parseMediaTypes("application/x-ndjson;q=0.5, text/csv"));
+        ResponseEntity<StreamingResponseBody> response = controller.export(IDENTIFIER, headers);
+        assertEquals(MediaType.parseMediaType(ContactWriter.CSV_VALUE), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"" + IDENTIFIER + ".csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    /**
+     * Ensures getting the union of two {@link Directory} entities.
+     */
+    @Test
+    public void shouldGetUnion() {
+        UUID other = randomUUID();
+        controller.union(IDENTIFIER, other);
+        verify(service, times(1)).union(IDENTIFIER, other);
+    }
+
+    /**
+     * Ensures getting the intersection of two {@link Directory} entities.
+     */
+    @Test
+    public void shouldGetIntersection() {
+        UUID other = randomUUID();
+        controller.intersection(IDENTIFIER, other);
+        verify(service, times(1)).intersection(IDENTIFIER, other);
+    }
+
+    /**
+     * Ensures applying a {@link SetOperation} over a number of {@link Directory} entities.
+     */
+    @Test
+    public void shouldCombine() {
+        DirectoryOperation operation = new DirectoryOperation(SetOperation.UNION, ImmutableList.of(IDENTIFIER));
+        controller.combine(operation);
+        verify(service, times(1)).combine(operation);
     }
 
     /**
@@ -72,6 +221,16 @@ public class DirectoryControllerTest {
         assertEquals(IDENTIFIER, captor.getValue().getId());
     }
 
+    /**
+     * Ensures incremental change of the {@link Contact} entities of a {@link Directory}.
+     */
+    @Test
+    public void shouldChangeContacts() {
+        ContactChanges changes = new ContactChanges(ImmutableList.of(new Contact("Frank Zappa")), null);
+        controller.change(IDENTIFIER, changes);
+        verify(service, times(1)).change(IDENTIFIER, changes);
+    }
+
     /**
      * Ensures deletion of a {@link Directory}.
      */
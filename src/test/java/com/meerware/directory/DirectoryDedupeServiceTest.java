@@ -0,0 +1,176 @@
+package com.meerware.directory;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Tests for the {@link DirectoryDedupeService}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DirectoryDedupeServiceTest {
+
+    /**
+     * Identifier fixture of the {@link Directory}.
+     */
+    private static final UUID IDENTIFIER = randomUUID();
+
+    /**
+     * {@link ContactStream} fixture, with a group of duplicates.
+     */
+    private static final ContactStream CONTACTS = ImmutableList.of(
+            new Contact("Jack Bruce", null, "(03) 8685 1462", null),
+            new Contact("Ginger Baker"),
+            new Contact("jack bruce", null, "+61 3 8685 1462", null))::forEach;
+
+    /**
+     * Main test object.
+     */
+    private DirectoryDedupeService service;
+
+    /**
+     * {@link Mock} {@link DirectoryService}.
+     */
+    @Mock
+    private DirectoryService directories;
+
+    /**
+     * {@link Mock} {@link DirectoryContactRepository}.
+     */
+    @Mock
+    private DirectoryContactRepository contacts;
+
+    /**
+     * {@link Mock} {@link ContactIndexCache}.
+     */
+    @Mock
+    private ContactIndexCache indexes;
+
+    /**
+     * {@link Mock} {@link PlatformTransactionManager}.
+     */
+    @Mock
+    private PlatformTransactionManager transactions;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        service = new DirectoryDedupeService(
+                directories,
+                contacts,
+                indexes,
+                transactions,
+                new MockEnvironment().withProperty("directory.dedupes.partitions", "4"));
+    }
+
+    /**
+     * Stops the test object.
+     */
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    /**
+     * Ensures duplicates are only reported unless merging.
+     */
+    @Test
+    public void shouldReportDuplicates() throws Exception {
+        when(directories.export(IDENTIFIER)).thenReturn(CONTACTS);
+        service.submit(IDENTIFIER, false);
+        DirectoryDedupe result = await(IDENTIFIER);
+
+        assertEquals(DirectoryJobStatus.COMPLETED, result.getStatus());
+        assertEquals(3, result.getContacts());
+        assertEquals(1, result.getGroups());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(ImmutableList.of(ImmutableList.of(
+                new Contact("Jack Bruce", null, "(03) 8685 1462", null),
+                new Contact("jack bruce", null, "+61 3 8685 1462", null))), result.getReported());
+        verify(contacts, never()).remove(any(), any());
+        verify(indexes, never()).invalidate(any());
+    }
+
+    /**
+     * Ensures each group of duplicates is merged into its first {@link Contact}.
+     */
+    @Test
+    public void shouldMergeDuplicates() throws Exception {
+        when(directories.export(IDENTIFIER)).thenReturn(CONTACTS);
+        service.submit(IDENTIFIER, true);
+        DirectoryDedupe result = await(IDENTIFIER);
+
+        assertEquals(DirectoryJobStatus.COMPLETED, result.getStatus());
+        verify(contacts).remove(IDENTIFIER, new Contact("Jack Bruce", null, "(03) 8685 1462", null));
+        verify(contacts).remove(IDENTIFIER, new Contact("jack bruce", null, "+61 3 8685 1462", null));
+        verify(contacts).add(IDENTIFIER, new Contact("Jack Bruce", null, "(03) 8685 1462", null));
+        verify(contacts).touch(IDENTIFIER);
+        verify(indexes).invalidate(IDENTIFIER);
+    }
+
+    /**
+     * Ensures a failure merging fails the {@link DirectoryDedupe}.
+     */
+    @Test
+    public void shouldFailDedupe() throws Exception {
+        when(directories.export(IDENTIFIER)).thenReturn(CONTACTS);
+        when(contacts.remove(eq(IDENTIFIER), any())).thenThrow(new IllegalStateException());
+        service.submit(IDENTIFIER, true);
+        DirectoryDedupe result = await(IDENTIFIER);
+
+        assertEquals(DirectoryJobStatus.FAILED, result.getStatus());
+        verify(indexes, never()).invalidate(any());
+    }
+
+    /**
+     * Ensures a {@link Directory} which does not exist is rejected straight away.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailSubmittingWithNonExistingDirectory() {
+        when(directories.export(IDENTIFIER)).thenThrow(new DirectoryNotFoundException(IDENTIFIER));
+        service.submit(IDENTIFIER, false);
+    }
+
+    /**
+     * Ensures failure getting the {@link DirectoryDedupe} of a {@link Directory} which has none.
+     */
+    @Test(expected = DirectoryDedupeNotFoundException.class)
+    public void shouldFailGettingNonExistingDedupe() {
+        service.get(randomUUID());
+    }
+
+    /**
+     * @param id is the identifier of the {@link Directory}.
+     * @return the finished {@link DirectoryDedupe}.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private DirectoryDedupe await(UUID id) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            DirectoryDedupe dedupe = service.get(id);
+            if (dedupe.getFinished() != null) {
+                return dedupe;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Directory dedupe did not finish");
+    }
+}
@@ -0,0 +1,177 @@
+package com.meerware.directory;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import javax.validation.Validation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for the {@link DirectoryImportService}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DirectoryImportServiceTest {
+
+    /**
+     * Identifier fixture of the {@link Directory}.
+     */
+    private static final UUID IDENTIFIER = randomUUID();
+
+    /**
+     * Main test object.
+     */
+    private DirectoryImportService service;
+
+    /**
+     * {@link Mock} {@link DirectoryRepository}.
+     */
+    @Mock
+    private DirectoryRepository repository;
+
+    /**
+     * {@link Mock} {@link DirectoryContactRepository}.
+     */
+    @Mock
+    private DirectoryContactRepository contacts;
+
+    /**
+     * {@link Mock} {@link ContactIndexCache}.
+     */
+    @Mock
+    private ContactIndexCache indexes;
+
+    /**
+     * {@link Mock} {@link PlatformTransactionManager}.
+     */
+    @Mock
+    private PlatformTransactionManager transactions;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        service = new DirectoryImportService(
+                repository,
+                contacts,
+                indexes,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                transactions,
+                new MockEnvironment().withProperty("directory.imports.chunk-size", "2"));
+    }
+
+    /**
+     * Ensures the {@link Contact} entities are inserted in chunks.
+     */
+    @Test
+    public void shouldImportInChunks() {
+        when(repository.existsById(IDENTIFIER)).thenReturn(true);
+        when(contacts.insertAbsent(eq(IDENTIFIER), anyList())).then(invocation -> invocation.getArgument(1));
+        DirectoryImport result = service.load(IDENTIFIER, input(
+                "{\"name\": \"Jack Bruce\"}\n{\"name\": \"Ginger Baker\"}\n{\"name\": \"Eric Clapton\"}\n"));
+
+        assertEquals(DirectoryJobStatus.COMPLETED, result.getStatus());
+        assertEquals(3, result.getContacts());
+        assertEquals(2, result.getChunks());
+        assertEquals(result, service.get(IDENTIFIER));
+        verify(contacts, times(2)).insertAbsent(eq(IDENTIFIER), anyList());
+        verify(contacts, times(2)).touch(IDENTIFIER);
+        verify(indexes, times(2)).invalidate(IDENTIFIER);
+    }
+
+    /**
+     * Ensures only the inserted {@link Contact} entities are counted, as those already present are skipped.
+     */
+    @Test
+    public void shouldCountOnlyInsertedContacts() {
+        when(repository.existsById(IDENTIFIER)).thenReturn(true);
+        when(contacts.insertAbsent(eq(IDENTIFIER), anyList())).thenReturn(ImmutableList.of(new Contact("Jack Bruce")));
+        DirectoryImport result = service.load(IDENTIFIER, input("{\"name\": \"Jack Bruce\"}\n{\"name\": \"Jack Bruce\"}\n"));
+
+        assertEquals(DirectoryJobStatus.COMPLETED, result.getStatus());
+        assertEquals(1, result.getContacts());
+    }
+
+    /**
+     * Ensures an invalid {@link Contact} fails the import, keeping the chunks already saved.
+     */
+    @Test
+    public void shouldFailImportingInvalidContact() {
+        when(repository.existsById(IDENTIFIER)).thenReturn(true);
+        when(contacts.insertAbsent(eq(IDENTIFIER), anyList())).then(invocation -> invocation.getArgument(1));
+        try {
+            service.load(IDENTIFIER, input(
+                    "{\"name\": \"Jack Bruce\"}\n{\"name\": \"Ginger Baker\"}\n{\"email\": \"eric@cream.com\"}\n"));
+            fail("Expected the import to fail");
+        } catch (DirectoryImportException exception) {
+            assertTrue(exception.getMessage().startsWith("Invalid contact on line 3: name "));
+        }
+
+        DirectoryImport result = service.get(IDENTIFIER);
+        assertEquals(DirectoryJobStatus.FAILED, result.getStatus());
+        assertEquals(2, result.getContacts());
+        verify(contacts).insertAbsent(eq(IDENTIFIER), anyList());
+    }
+
+    /**
+     * Ensures a malformed line fails the import.
+     */
+    @Test(expected = DirectoryImportException.class)
+    public void shouldFailImportingMalformedLine() {
+        when(repository.existsById(IDENTIFIER)).thenReturn(true);
+        service.load(IDENTIFIER, input("{\"name\": \"Jack Bruce\"\n"));
+    }
+
+    /**
+     * Ensures nothing is imported into a non existing {@link Directory}.
+     */
+    @Test
+    public void shouldFailImportingNonExistingDirectory() {
+        try {
+            service.load(IDENTIFIER, input("{\"name\": \"Jack Bruce\"}\n"));
+            fail("Expected the import to fail");
+        } catch (DirectoryNotFoundException exception) {
+            verify(contacts, never()).insertAbsent(eq(IDENTIFIER), anyList());
+        }
+    }
+
+    /**
+     * Ensures failure getting an import which was never started.
+     */
+    @Test(expected = DirectoryImportNotFoundException.class)
+    public void shouldFailGettingNonExistingImport() {
+        service.get(IDENTIFIER);
+    }
+
+    /**
+     * @param lines is the newline delimited {@code JSON}.
+     * @return the {@link InputStream} of the lines.
+     */
+    private static InputStream input(String lines) {
+        return new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+    }
+}
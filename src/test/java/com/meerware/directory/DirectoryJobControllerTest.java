@@ -0,0 +1,58 @@
+package com.meerware.directory;
+
+import static java.util.UUID.randomUUID;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Tests for the {@link DirectoryJobController}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DirectoryJobControllerTest {
+
+    /**
+     * Identifier fixture used for test input.
+     */
+    private static final UUID IDENTIFIER = randomUUID();
+
+    /**
+     * Main test object.
+     */
+    @InjectMocks
+    private DirectoryJobController controller;
+
+    /**
+     * {@link Mock} {@link DirectoryJobService}.
+     */
+    @Mock
+    private DirectoryJobService service;
+
+    /**
+     * Ensures submitting a {@link DirectoryJob}.
+     */
+    @Test
+    public void shouldSubmitJob() {
+        DirectoryOperation operation = new DirectoryOperation(SetOperation.UNION, ImmutableList.of(IDENTIFIER));
+        controller.submit(operation);
+        verify(service, times(1)).submit(operation);
+    }
+
+    /**
+     * Ensures getting a {@link DirectoryJob}.
+     */
+    @Test
+    public void shouldGetJob() {
+        controller.get(IDENTIFIER);
+        verify(service, times(1)).get(IDENTIFIER);
+    }
+}
@@ -0,0 +1,96 @@
+package com.meerware.directory;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link DirectoryJobRegistry}.
+ */
+public class DirectoryJobRegistryTest {
+
+    /**
+     * Identifier fixture.
+     */
+    private static final UUID IDENTIFIER = randomUUID();
+
+    /**
+     * Main test object, which keeps no finished jobs.
+     */
+    private DirectoryJobRegistry<DirectoryImport> registry;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        registry = new DirectoryJobRegistry<>(0, Duration.ofHours(1), DirectoryImport::getStatus);
+    }
+
+    /**
+     * Ensures a running job is kept whatever the bounds of finished ones.
+     */
+    @Test
+    public void shouldPinRunningJob() {
+        DirectoryImport started = DirectoryImport.start(IDENTIFIER);
+        assertTrue(registry.start(IDENTIFIER, started));
+        registry.put(IDENTIFIER, started.save(10));
+
+        assertEquals(10, registry.get(IDENTIFIER).getContacts());
+    }
+
+    /**
+     * Ensures another job cannot start while one is running.
+     */
+    @Test
+    public void shouldRejectStartingWhileRunning() {
+        assertTrue(registry.start(IDENTIFIER, DirectoryImport.start(IDENTIFIER)));
+        assertFalse(registry.start(IDENTIFIER, DirectoryImport.start(IDENTIFIER)));
+    }
+
+    /**
+     * Ensures a finished job is unpinned, so another can start.
+     */
+    @Test
+    public void shouldUnpinFinishedJob() {
+        DirectoryImport started = DirectoryImport.start(IDENTIFIER);
+        registry.start(IDENTIFIER, started);
+        registry.update(IDENTIFIER, current -> current.fail("failed"));
+
+        assertNull(registry.get(IDENTIFIER));
+        assertTrue(registry.start(IDENTIFIER, DirectoryImport.start(IDENTIFIER)));
+    }
+
+    /**
+     * Ensures a job which was never run is forgotten.
+     */
+    @Test
+    public void shouldRemoveJob() {
+        registry.start(IDENTIFIER, DirectoryImport.start(IDENTIFIER));
+        registry.remove(IDENTIFIER);
+
+        assertNull(registry.get(IDENTIFIER));
+    }
+
+    /**
+     * Ensures a finished job is kept within the bounds.
+     */
+    @Test
+    public void shouldRetainFinishedJob() {
+        DirectoryJobRegistry<DirectoryImport> retaining = new DirectoryJobRegistry<>(
+                10, Duration.ofHours(1), DirectoryImport::getStatus);
+        DirectoryImport started = DirectoryImport.start(IDENTIFIER);
+        retaining.start(IDENTIFIER, started);
+        retaining.put(IDENTIFIER, started.complete());
+
+        assertEquals(DirectoryJobStatus.COMPLETED, retaining.get(IDENTIFIER).getStatus());
+    }
+}
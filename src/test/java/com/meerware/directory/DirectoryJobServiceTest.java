@@ -0,0 +1,176 @@
+package com.meerware.directory;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.UUID;
+
+import javax.validation.Validation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Tests for the {@link DirectoryJobService}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DirectoryJobServiceTest {
+
+    /**
+     * Identifier fixture of the saved {@link Directory}.
+     */
+    private static final UUID IDENTIFIER = randomUUID();
+
+    /**
+     * {@link DirectoryOperation} fixture.
+     */
+    private static final DirectoryOperation OPERATION = new DirectoryOperation(
+            SetOperation.UNION, ImmutableList.of(randomUUID(), randomUUID()), "union");
+
+    /**
+     * Main test object.
+     */
+    private DirectoryJobService service;
+
+    /**
+     * {@link Mock} {@link DirectoryService}.
+     */
+    @Mock
+    private DirectoryService directories;
+
+    /**
+     * {@link Mock} {@link DirectoryRepository}.
+     */
+    @Mock
+    private DirectoryRepository repository;
+
+    /**
+     * {@link Mock} {@link DirectoryContactRepository}.
+     */
+    @Mock
+    private DirectoryContactRepository contacts;
+
+    /**
+     * {@link Mock} {@link PlatformTransactionManager}.
+     */
+    @Mock
+    private PlatformTransactionManager transactions;
+
+    /**
+     * Sets up the test object.
+     */
+    @Before
+    public void setUp() {
+        when(repository.saveAndFlush(any(Directory.class)))
+            .then(invocation -> {
+                Directory input = invocation.getArgument(0);
+                return new Directory(IDENTIFIER, input.getName(), input.getContacts());
+            });
+        service = new DirectoryJobService(
+                directories,
+                repository,
+                contacts,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                transactions,
+                new MockEnvironment().withProperty("directory.jobs.threads", "1"));
+    }
+
+    /**
+     * Stops the test object.
+     */
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    /**
+     * Ensures a submitted {@link DirectoryJob} saves the result.
+     */
+    @Test
+    public void shouldCompleteJob() throws Exception {
+        when(directories.combine(OPERATION)).thenReturn(action -> {
+            action.accept(new Contact("Jack Bruce"));
+            action.accept(new Contact("Ginger Baker"));
+        });
+        DirectoryJob job = service.submit(OPERATION);
+        DirectoryJob result = await(job.getId());
+
+        assertEquals(DirectoryJobStatus.COMPLETED, result.getStatus());
+        assertEquals(IDENTIFIER, result.getDirectory());
+        assertEquals(2, result.getContacts());
+        verify(contacts).insert(eq(IDENTIFIER), anyList());
+    }
+
+    /**
+     * Ensures a failure saving the result fails the {@link DirectoryJob}.
+     */
+    @Test
+    public void shouldFailJob() throws Exception {
+        when(directories.combine(OPERATION)).thenReturn(action -> action.accept(new Contact("Jack Bruce")));
+        doThrow(new IllegalStateException()).when(contacts).insert(eq(IDENTIFIER), anyList());
+        DirectoryJob job = service.submit(OPERATION);
+        DirectoryJob result = await(job.getId());
+
+        assertEquals(DirectoryJobStatus.FAILED, result.getStatus());
+        assertEquals(null, result.getDirectory());
+    }
+
+    /**
+     * Ensures an invalid {@link DirectoryOperation} is rejected straight away.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailSubmittingWithNonExistingDirectory() {
+        when(directories.combine(OPERATION)).thenThrow(new DirectoryNotFoundException(randomUUID()));
+        service.submit(OPERATION);
+    }
+
+    /**
+     * Ensures a name which is too long is rejected straight away.
+     */
+    @Test(expected = DirectoryOperationException.class)
+    public void shouldFailSubmittingWithInvalidName() {
+        StringBuilder name = new StringBuilder();
+        for (int index = 0; index < 100; index++) {
+            name.append('x');
+        }
+        service.submit(new DirectoryOperation(SetOperation.UNION, ImmutableList.of(randomUUID()), name.toString()));
+    }
+
+    /**
+     * Ensures failure getting an unknown {@link DirectoryJob}.
+     */
+    @Test(expected = DirectoryJobNotFoundException.class)
+    public void shouldFailGettingNonExistingJob() {
+        service.get(randomUUID());
+    }
+
+    /**
+     * @param id is the identifier of the {@link DirectoryJob}.
+     * @return the finished {@link DirectoryJob}.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private DirectoryJob await(UUID id) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            DirectoryJob job = service.get(id);
+            if (job.getFinished() != null) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Directory job did not finish");
+    }
+}
@@ -3,16 +3,26 @@ package com.meerware.directory;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -20,6 +30,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.validation.BeanPropertyBindingResult;
 
 /**
  * Tests for the {@link DirectoryService}.
@@ -44,6 +55,24 @@ public class DirectoryServiceTest {
     @Mock
     private DirectoryRepository repository;
 
+    /**
+     * {@link Mock} {@link DirectoryContactRepository}.
+     */
+    @Mock
+    private DirectoryContactRepository contacts;
+
+    /**
+     * {@link Mock} {@link ContactIndexCache}.
+     */
+    @Mock
+    private ContactIndexCache indexes;
+
+    /**
+     * {@link Mock} {@link ContactValidator}.
+     */
+    @Mock
+    private ContactValidator validator;
+
     /**
      * Sets up the mocks.
      */
@@ -51,6 +80,7 @@ public class DirectoryServiceTest {
     public void setUp() {
         Directory directory = new Directory(IDENTIFIER, "global", ImmutableList.of());
         when(repository.existsById(IDENTIFIER)).thenReturn(true);
+        when(contacts.lock(IDENTIFIER)).thenReturn(true);
         when(repository.findById(IDENTIFIER)).thenReturn(Optional.of(directory));
         when(repository.save(any(Directory.class)))
             .then(invocation -> {
@@ -89,6 +119,229 @@ public class DirectoryServiceTest {
         service.get(IDENTIFIER);
     }
 
+    /**
+     * Ensures getting the entity tag of an existing {@link Directory}.
+     */
+    @Test
+    public void shouldGetTag() {
+        when(repository.findVersionById(IDENTIFIER)).thenReturn(Optional.of(255L));
+        assertEquals(IDENTIFIER + "-ff", service.tag(IDENTIFIER));
+        verify(repository, never()).findById(IDENTIFIER);
+    }
+
+    /**
+     * Ensures failure when trying to get the entity tag of a non existing {@link Directory}.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailGettingTagOfNonExistingDirectory() {
+        service.tag(UUID.randomUUID());
+    }
+
+    /**
+     * Ensures getting a page of {@link Contact} entities of an existing {@link Directory}.
+     */
+    @Test
+    public void shouldGetContactsOfExistingDirectory() {
+        ContactPage page = new ContactPage(ImmutableList.of(new Contact("Frank Zappa")), null);
+        when(contacts.findPage(IDENTIFIER, null, 10)).thenReturn(page);
+        assertEquals(page, service.contacts(IDENTIFIER, null, 10));
+    }
+
+    /**
+     * Ensures the page size is limited.
+     */
+    @Test
+    public void shouldLimitContactsPageSize() {
+        service.contacts(IDENTIFIER, null, 1000000);
+        verify(contacts, times(1)).findPage(IDENTIFIER, null, 1000);
+    }
+
+    /**
+     * Ensures failure when trying to get the {@link Contact} entities of a non existing {@link Directory}.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailGettingContactsOfNonExistingDirectory() {
+        service.contacts(randomUUID(), null, 10);
+    }
+
+    /**
+     * Ensures failure when the cursor is not valid.
+     */
+    @Test(expected = DirectoryCursorException.class)
+    public void shouldFailGettingContactsWithInvalidCursor() {
+        service.contacts(IDENTIFIER, "RUBBISH", 10);
+    }
+
+    /**
+     * Ensures searching the {@link Contact} entities of an existing {@link Directory} by a trimmed prefix.
+     */
+    @Test
+    public void shouldSearchContactsOfExistingDirectory() {
+        List<Contact> found = ImmutableList.of(new Contact("Frank Zappa"));
+        when(contacts.search(IDENTIFIER, "zap", 10)).thenReturn(found);
+        assertEquals(found, service.search(IDENTIFIER, " zap ", 10));
+    }
+
+    /**
+     * Ensures a blank search finds nothing without querying.
+     */
+    @Test
+    public void shouldNotSearchBlankQuery() {
+        assertTrue(service.search(IDENTIFIER, "  ", 10).isEmpty());
+        verify(contacts, never()).search(eq(IDENTIFIER), any(), anyInt());
+    }
+
+    /**
+     * Ensures the search size is limited.
+     */
+    @Test
+    public void shouldLimitSearchSize() {
+        service.search(IDENTIFIER, "zap", 1000000);
+        verify(contacts, times(1)).search(IDENTIFIER, "zap", 100);
+    }
+
+    /**
+     * Ensures looking up the {@link Directory} entities holding an email.
+     */
+    @Test
+    public void shouldLookUpDirectoriesByEmail() {
+        service.lookup(" hp@lovecraft.com ", null, IDENTIFIER, 10);
+        verify(contacts, times(1)).findDirectoriesByEmail("hp@lovecraft.com", IDENTIFIER, 10);
+    }
+
+    /**
+     * Ensures looking up the {@link Directory} entities holding a phone, limiting the page size.
+     */
+    @Test
+    public void shouldLookUpDirectoriesByPhone() {
+        service.lookup(null, "1800-757-888", null, 1000000);
+        verify(contacts, times(1)).findDirectoriesByPhone("1800-757-888", null, 1000);
+    }
+
+    /**
+     * Ensures failure when neither an email nor a phone is looked up.
+     */
+    @Test(expected = DirectoryLookupException.class)
+    public void shouldFailLookingUpNothing() {
+        service.lookup(" ", null, null, 10);
+    }
+
+    /**
+     * Ensures failure when both an email and a phone are looked up.
+     */
+    @Test(expected = DirectoryLookupException.class)
+    public void shouldFailLookingUpEmailAndPhone() {
+        service.lookup("hp@lovecraft.com", "1800-757-888", null, 10);
+    }
+
+    /**
+     * Ensures failure when looking up a phone without digits.
+     */
+    @Test(expected = DirectoryLookupException.class)
+    public void shouldFailLookingUpPhoneWithoutDigits() {
+        service.lookup(null, "call me", null, 10);
+    }
+
+    /**
+     * Ensures typeahead loads the {@link ContactIndex} of an existing {@link Directory} from its {@link Contact} entities.
+     */
+    @Test
+    public void shouldTypeaheadContactsOfExistingDirectory() {
+        when(indexes.get(eq(IDENTIFIER), any())).then(invocation -> invocation.<Supplier<ContactIndex>>getArgument(1).get());
+        doAnswer(invocation -> {
+            Consumer<Contact> action = invocation.getArgument(1);
+            action.accept(new Contact("Frank Zappa"));
+            action.accept(new Contact("Jack Bruce"));
+            return null;
+        }).when(contacts).export(eq(IDENTIFIER), any());
+
+        assertEquals(ImmutableList.of(new Contact("Frank Zappa")), service.typeahead(IDENTIFIER, "zap", 10));
+    }
+
+    /**
+     * Ensures failure when trying to typeahead a non existing {@link Directory}.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailTypeaheadOfNonExistingDirectory() {
+        UUID id = randomUUID();
+        when(indexes.get(eq(id), any())).then(invocation -> invocation.<Supplier<ContactIndex>>getArgument(1).get());
+        service.typeahead(id, "zap", 10);
+    }
+
+    /**
+     * Ensures failure when trying to search a non existing {@link Directory}.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailSearchingNonExistingDirectory() {
+        service.search(randomUUID(), "zap", 10);
+    }
+
+    /**
+     * Ensures the union is only read from the repository when streamed.
+     */
+    @Test
+    public void shouldStreamUnionOfExistingDirectories() {
+        ContactStream stream = service.union(IDENTIFIER, IDENTIFIER);
+        verify(contacts, never()).union(any(UUID.class), any(UUID.class), any());
+        stream.forEach(contact -> { });
+        verify(contacts, times(1)).union(eq(IDENTIFIER), eq(IDENTIFIER), any());
+    }
+
+    /**
+     * Ensures the intersection is only read from the repository when streamed.
+     */
+    @Test
+    public void shouldStreamIntersectionOfExistingDirectories() {
+        ContactStream stream = service.intersection(IDENTIFIER, IDENTIFIER);
+        verify(contacts, never()).intersection(any(UUID.class), any(UUID.class), any());
+        stream.forEach(contact -> { });
+        verify(contacts, times(1)).intersection(eq(IDENTIFIER), eq(IDENTIFIER), any());
+    }
+
+    /**
+     * Ensures failure when trying to combine with a non existing {@link Directory}.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailUnionWithNonExistingDirectory() {
+        service.union(IDENTIFIER, randomUUID());
+    }
+
+    /**
+     * Ensures a {@link SetOperation} is only read from the repository when streamed.
+     */
+    @Test
+    public void shouldStreamOperationOfExistingDirectories() {
+        ImmutableList<UUID> directories = ImmutableList.of(IDENTIFIER, IDENTIFIER, IDENTIFIER);
+        ContactStream stream = service.combine(new DirectoryOperation(SetOperation.INTERSECTION, directories));
+        verify(contacts, never()).combine(any(), any(), any());
+        stream.forEach(contact -> { });
+        verify(contacts, times(1)).combine(eq(directories), eq(SetOperation.INTERSECTION), any());
+    }
+
+    /**
+     * Ensures failure when the {@link SetOperation} is missing.
+     */
+    @Test(expected = DirectoryOperationException.class)
+    public void shouldFailOperationWithoutType() {
+        service.combine(new DirectoryOperation(null, ImmutableList.of(IDENTIFIER)));
+    }
+
+    /**
+     * Ensures failure when there are no {@link Directory} entities.
+     */
+    @Test(expected = DirectoryOperationException.class)
+    public void shouldFailOperationWithoutDirectories() {
+        service.combine(new DirectoryOperation(SetOperation.UNION, null));
+    }
+
+    /**
+     * Ensures failure when one of the {@link Directory} entities does not exist.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailOperationWithNonExistingDirectory() {
+        service.combine(new DirectoryOperation(SetOperation.UNION, ImmutableList.of(IDENTIFIER, randomUUID())));
+    }
+
     /**
      * Ensures creation of a {@link Directory}.
      */
@@ -96,6 +349,23 @@ public class DirectoryServiceTest {
     public void shouldCreateDirectory() {
         service.create(new Directory());
         verify(repository, times(1)).save(any(Directory.class));
+        verify(indexes, times(1)).put(any(), eq(ImmutableList.of()));
+    }
+
+    /**
+     * Ensures failure to create a {@link Directory} with invalid {@link Contact} entities, without saving it.
+     */
+    @Test
+    public void shouldFailCreatingDirectoryWithInvalidContacts() {
+        Directory directory = new Directory("invalid", ImmutableList.of(new Contact("Frank Zappa", null, "not a phone", null)));
+        doThrow(new DirectoryValidationException(new BeanPropertyBindingResult(directory, "directory")))
+            .when(validator).validate(directory);
+        try {
+            service.create(directory);
+            fail("Expected the directory not to be valid");
+        } catch (DirectoryValidationException exception) {
+            verify(repository, never()).save(any(Directory.class));
+        }
     }
 
     /**
@@ -133,6 +403,54 @@ public class DirectoryServiceTest {
         service.update(new Directory(IDENTIFIER, "update", ImmutableList.of()));
     }
 
+    /**
+     * Ensures only the {@link Contact} entities which were actually changed are returned.
+     */
+    @Test
+    public void shouldChangeContactsOfExistingDirectory() {
+        Contact added = new Contact("Frank Zappa");
+        Contact present = new Contact("Jack Bruce");
+        Contact removed = new Contact("Les Claypool");
+        when(contacts.insertAbsent(IDENTIFIER, ImmutableSet.of(added, present))).thenReturn(ImmutableList.of(added));
+        when(contacts.remove(IDENTIFIER, removed)).thenReturn(true);
+
+        ContactChanges result = service.change(IDENTIFIER, new ContactChanges(
+                ImmutableList.of(added, present), ImmutableList.of(removed)));
+
+        assertEquals(ImmutableSet.of(added), result.getAdd());
+        assertEquals(ImmutableSet.of(removed), result.getRemove());
+        verify(contacts, times(1)).touch(IDENTIFIER);
+        verify(indexes, times(1)).change(IDENTIFIER, ImmutableList.of(added), ImmutableList.of(removed));
+    }
+
+    /**
+     * Ensures the {@link Directory} is not marked as modified when nothing changed.
+     */
+    @Test
+    public void shouldNotTouchDirectoryWithoutChanges() {
+        service.change(IDENTIFIER, new ContactChanges(ImmutableList.of(new Contact("Jack Bruce")), null));
+        verify(contacts, never()).touch(IDENTIFIER);
+        verify(indexes, never()).change(any(), any(), any());
+    }
+
+    /**
+     * Ensures failure when trying to change the {@link Contact} entities of a non existing {@link Directory}.
+     */
+    @Test(expected = DirectoryNotFoundException.class)
+    public void shouldFailChangingContactsOfNonExistingDirectory() {
+        service.change(randomUUID(), new ContactChanges(null, null));
+    }
+
+    /**
+     * Ensures failure when the underlying repository fails to change {@link Contact} entities.
+     */
+    @Test(expected = DirectoryUpdateException.class)
+    public void shouldFailChangingContactsWhenRepositoryFails() {
+        Contact contact = new Contact("Frank Zappa");
+        when(contacts.insertAbsent(IDENTIFIER, ImmutableSet.of(contact))).thenThrow(new RuntimeException());
+        service.change(IDENTIFIER, new ContactChanges(ImmutableList.of(contact), null));
+    }
+
     /**
      * Ensures deleting of an existing {@link Directory}.
      */
@@ -140,6 +458,7 @@ public class DirectoryServiceTest {
     public void shouldDeleteExistingDirectory() {
         service.delete(IDENTIFIER);
         verify(repository, times(1)).deleteById(IDENTIFIER);
+        verify(indexes, times(1)).invalidate(IDENTIFIER);
     }
 
     /**
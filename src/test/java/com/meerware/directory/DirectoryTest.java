@@ -3,6 +3,10 @@ package com.meerware.directory;
 import static org.apache.commons.lang3.SerializationUtils.deserialize;
 import static org.apache.commons.lang3.SerializationUtils.serialize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
@@ -109,4 +113,32 @@ public class DirectoryTest {
         assertEquals("Jason Newstead", union.getContacts().get(2).getName());
         assertEquals("Les Claypool", union.getContacts().get(3).getName());
     }
+
+    /**
+     * Ensures replacing the name and only the {@link Contact} entities which differ.
+     */
+    @Test
+    public void shouldReplaceChangedContacts() {
+        boolean changed = directory.replace(new Directory("replaced", ImmutableList.of(
+                new Contact("Jack Bruce"),
+                new Contact("Ginger Baker"))));
+
+        assertTrue(changed);
+        assertNotNull(directory.getModified());
+        assertEquals("replaced", directory.getName());
+        assertEquals(2, directory.getContacts().size());
+        assertEquals("Ginger Baker", directory.getContacts().get(0).getName());
+        assertEquals("Jack Bruce", directory.getContacts().get(1).getName());
+    }
+
+    /**
+     * Ensures replacing with the same {@link Contact} entities changes nothing.
+     */
+    @Test
+    public void shouldNotChangeReplacingSameContacts() {
+        assertFalse(directory.replace(new Directory("renamed", directory.getContacts())));
+        assertNull(directory.getModified());
+        assertEquals("renamed", directory.getName());
+        assertEquals(3, directory.getContacts().size());
+    }
 }
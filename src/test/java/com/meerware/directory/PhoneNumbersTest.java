@@ -0,0 +1,62 @@
+package com.meerware.directory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PhoneNumbers}.
+ */
+public class PhoneNumbersTest {
+
+    /**
+     * Ensures a valid number is normalized to its {@code E.164} form, whatever its format.
+     */
+    @Test
+    public void shouldNormalizeValidNumber() {
+        assertEquals("+61386851462", PhoneNumbers.normalize("03 8685 1462").getE164());
+        assertEquals("+61386851462", PhoneNumbers.normalize("+61 (3) 8685-1462").getE164());
+        assertTrue(PhoneNumbers.normalize("1800 00 1234").isValid());
+    }
+
+    /**
+     * Ensures a number which parses but is not valid is told apart from text which does not parse.
+     */
+    @Test
+    public void shouldNotNormalizeInvalidNumber() {
+        NormalizedPhone invalid = PhoneNumbers.normalize("12");
+        assertFalse(invalid.isValid());
+        assertTrue(invalid.isParsed());
+        assertNull(invalid.getE164());
+
+        NormalizedPhone unparseable = PhoneNumbers.normalize("call me");
+        assertFalse(unparseable.isValid());
+        assertFalse(unparseable.isParsed());
+    }
+
+    /**
+     * Ensures a number is only parsed once.
+     */
+    @Test
+    public void shouldRememberNumber() {
+        NormalizedPhone first = PhoneNumbers.normalize("0491 570 156");
+        long hits = PhoneNumbers.cache().stats().hitCount();
+        assertSame(first, PhoneNumbers.normalize("0491 570 156"));
+        assertEquals(hits + 1, PhoneNumbers.cache().stats().hitCount());
+    }
+
+    /**
+     * Ensures a number too long to be stored is parsed, but not remembered.
+     */
+    @Test
+    public void shouldNotRememberOverlongNumber() {
+        String raw = StringUtils.repeat('1', Contact.MAXIMUM_PHONE_LENGTH + 1);
+        assertFalse(PhoneNumbers.normalize(raw).isValid());
+        assertNull(PhoneNumbers.cache().getIfPresent(raw));
+    }
+}
@@ -29,6 +29,9 @@ public class StateConverterTest {
         assertNull(converter.convertToDatabaseColumn(null));
         assertEquals("VIC", converter.convertToDatabaseColumn(VICTORIA));
         assertEquals("WI", converter.convertToDatabaseColumn(State.parse("WI")));
+        assertEquals("Washington", converter.convertToDatabaseColumn(State.parse("WA", Country.UNITED_STATES)));
+        assertEquals("Western Australia", converter.convertToDatabaseColumn(State.WESTERN_AUSTRALIA));
+        assertEquals("Tasmania", converter.convertToDatabaseColumn(State.TASMANIA));
     }
 
     /**
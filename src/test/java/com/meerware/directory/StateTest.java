@@ -9,6 +9,7 @@ import static org.apache.commons.lang3.SerializationUtils.serialize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -64,12 +65,59 @@ public class StateTest {
         assertEquals("Wisconsin", State.parse("Wisconsin").getName());
     }
 
+    /**
+     * Ensures parsing of the known subdivisions of other countries, ignoring case and accents.
+     */
+    @Test
+    public void shouldParseSubdivision() {
+        assertEquals("QC", State.parse("Québec").getCode());
+        assertEquals(Country.CANADA, State.parse("quebec").getCountry());
+        assertEquals("Wisconsin", State.parse("wi").getName());
+        assertEquals(State.WESTERN_AUSTRALIA, State.parse("WA"));
+    }
+
+    /**
+     * Ensures parsing prefers the subdivisions of the {@link Country}.
+     */
+    @Test
+    public void shouldParseInCountry() {
+        assertEquals("Washington", State.parse("WA", Country.UNITED_STATES).getName());
+        assertEquals(State.WESTERN_AUSTRALIA, State.parse("WA", Country.AUSTRALIA));
+        assertEquals(State.WESTERN_AUSTRALIA, State.parse("WA", Country.FRANCE));
+        assertEquals(State.TASMANIA, State.parse("Tasmania", Country.NEW_ZEALAND));
+        assertNull(State.parse(" ", Country.UNITED_STATES));
+    }
+
+    /**
+     * Ensures codes used by the subdivisions of more than one country are known.
+     */
+    @Test
+    public void shouldKnowSharedCodes() {
+        assertTrue(State.WESTERN_AUSTRALIA.isCodeShared());
+        assertTrue(State.parse("NT", Country.CANADA).isCodeShared());
+        assertFalse(State.VICTORIA.isCodeShared());
+        assertFalse(State.parse("Bavaria").isCodeShared());
+    }
+
+    /**
+     * Ensures user defined values share an instance.
+     */
+    @Test
+    public void shouldInternUserDefined() {
+        State state = State.parse("Bavaria");
+        assertNull(state.getCode());
+        assertNull(state.getCountry());
+        assertSame(state, State.parse(" Bavaria "));
+        assertSame(State.VICTORIA, State.parse("victoria"));
+    }
+
     /**
      * Ensures {@link java.io.Serializable}.
      */
     @Test
     public void shouldBeSerializable() {
         assertEquals(QUEENSLAND, deserialize(serialize(QUEENSLAND)));
+        assertSame(QUEENSLAND, deserialize(serialize(QUEENSLAND)));
     }
 
     /**
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import org.junit.Before;
@@ -15,14 +16,17 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.mock.http.MockHttpInputMessage;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 /**
@@ -31,6 +35,11 @@ import com.google.common.collect.ImmutableMap;
 @RunWith(MockitoJUnitRunner.class)
 public class DocumentBodyAdviceTest {
 
+    /**
+     * {@code JSON API} {@link MediaType}.
+     */
+    private static final MediaType JSON_API = MediaType.parseMediaType("application/vnd.api+json");
+
     /**
      * Main test object.
      */
@@ -111,4 +120,90 @@ public class DocumentBodyAdviceTest {
         assertTrue(map.containsKey("data"));
         assertEquals(body, map.get("data"));
     }
+
+    /**
+     * Ensures writing {@code JSON API} resources straight from a bean.
+     */
+    @Test
+    public void shouldWriteJsonApiResource() throws Exception {
+        assertEquals("{\"data\":{\"id\":\"1\",\"type\":\"sample\",\"attributes\":{\"name\":\"global\"}}}",
+                new ObjectMapper().writeValueAsString(advice.wrap(new Sample(), JSON_API)));
+    }
+
+    /**
+     * Ensures writing {@code JSON API} resources from a {@link Map}, keeping its own type.
+     */
+    @Test
+    public void shouldWriteJsonApiResourcesFromMaps() throws Exception {
+        assertEquals("{\"data\":[{\"id\":2,\"type\":\"contact\",\"attributes\":{\"name\":\"Frank Zappa\"}}]}",
+                new ObjectMapper().writeValueAsString(advice.wrap(
+                        ImmutableList.of(ImmutableMap.of("name", "Frank Zappa", "type", "contact", "id", 2)), JSON_API)));
+    }
+
+    /**
+     * Ensures unwrapping the {@code data} attribute of a plain {@code JSON} request, skipping anything before it.
+     */
+    @Test
+    public void shouldUnwrapDataBeforeBodyRead() throws Exception {
+        assertEquals(ImmutableMap.of("name", "global"),
+                read("{\"meta\": {\"size\": 1}, \"data\": {\"name\": \"global\"}}", MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Ensures reading a plain {@code JSON} request without a {@code data} attribute as is.
+     */
+    @Test
+    public void shouldReadWithoutDataBeforeBodyRead() throws Exception {
+        assertEquals(ImmutableMap.of("name", "global", "contacts", ImmutableList.of()),
+                read("{\"name\": \"global\", \"contacts\": []}", MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Ensures flattening {@code JSON API} resources into their attributes and identifier.
+     */
+    @Test
+    public void shouldUnwrapJsonApiBeforeBodyRead() throws Exception {
+        Object result = read("{\"data\": ["
+                + "{\"id\": \"1\", \"type\": \"directory\", "
+                + "\"attributes\": {\"name\": \"first\", \"contacts\": [{\"name\": \"Frank Zappa\"}]}}, "
+                + "{\"type\": \"directory\", \"links\": {\"self\": \"/\"}, \"attributes\": {\"name\": \"second\"}}]}",
+                JSON_API);
+        assertEquals(ImmutableList.of(
+                ImmutableMap.of("id", "1", "name", "first", "contacts", ImmutableList.of(ImmutableMap.of("name", "Frank Zappa"))),
+                ImmutableMap.of("name", "second")), result);
+    }
+
+    /**
+     * Reads a request body through the {@link DocumentBodyAdvice} and {@link DocumentHttpMessageConverter}.
+     *
+     * @param body is the request body.
+     * @param contentType is the request content type.
+     * @return the read body.
+     */
+    private Object read(String body, MediaType contentType) throws Exception {
+        MockHttpInputMessage message = new MockHttpInputMessage(body.getBytes(StandardCharsets.UTF_8));
+        message.getHeaders().setContentType(contentType);
+        HttpInputMessage unwrapped = advice.beforeBodyRead(message, null, Object.class, DocumentHttpMessageConverter.class);
+        return new DocumentHttpMessageConverter(new ObjectMapper()).read(Object.class, null, unwrapped);
+    }
+
+    /**
+     * Bean written as a {@code JSON API} resource.
+     */
+    public static class Sample {
+
+        /**
+         * @return the identifier.
+         */
+        public String getId() {
+            return "1";
+        }
+
+        /**
+         * @return the name.
+         */
+        public String getName() {
+            return "global";
+        }
+    }
 }
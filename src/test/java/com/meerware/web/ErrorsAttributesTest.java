@@ -1,5 +1,6 @@
 package com.meerware.web;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -21,6 +22,8 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.context.request.WebRequest;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 
 /**
  * Tests for {@link ErrorsAttributes}.
@@ -102,4 +105,19 @@ public class ErrorsAttributesTest {
         assertFalse(errors.isEmpty());
         verify(request).setAttribute("javax.servlet.error.status_code", 400, SCOPE_REQUEST);
     }
+
+    /**
+     * Ensures getting error attributes from a {@link BindException} wrapped by another exception, pointing
+     * to indexed fields.
+     */
+    @Test
+    public void shouldGetErrorAttributesFromWrappedBindException() {
+        BindException result = new BindException(ImmutableMap.of(), "directory");
+        result.addError(new FieldError("directory", "contacts[3].address.lines[0]", "must not be blank"));
+
+        Errors errors = attributes.getErrorAttributes(new IllegalStateException(result), null);
+        Error error = Iterables.getOnlyElement(errors);
+        assertEquals(400, error.getStatus());
+        assertEquals("/data/contacts/3/address/lines/0", error.getSource().getPointer());
+    }
 }